@@ -0,0 +1,77 @@
+import java.lang.management.ManagementFactory;
+
+/**
+ * GC-allocation benchmark of the traversals in Graph: measures the bytes the current thread
+ * allocates for a traversal on graphs with the same vertices and more and more edges. The
+ * traversals walk (neighbor, edge) pairs by index, so what they allocate grows with the
+ * vertices visited and not with the edges; a Dijkstra search into a reused tree allocates
+ * nothing. Walking the neighbors through Vertex.getNeighbors(), which builds a set per vertex,
+ * is measured for comparison.
+ * <p>
+ * Usage: java AllocationBenchmark [vertices]
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class AllocationBenchmark {
+
+    /**
+     * Number of times each traversal is run before it is measured
+     */
+    private static final int WARMUP = 20;
+
+    /**
+     * Bean reporting the bytes allocated by a thread
+     */
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    /**
+     * Number of edges seen by a traversal, kept so the work is not optimized away
+     */
+    private static long sink;
+
+    /**
+     * Run the benchmark
+     *
+     * @param args number of vertices, 20000 if none
+     */
+    public static void main(String[] args) {
+        int vertexCount = RandomGraphs.intArg(args, 0, 20_000);
+        System.out.printf("%10s %10s %14s %14s %14s %14s%n", "vertices", "edges", "BFS B/edge", "DFS B/edge",
+                "Dijkstra B", "getNeighbors B/edge");
+        for (int degree = 2; degree <= 8; degree *= 2) {
+            Graph<VertexData, EdgeData> graph = RandomGraphs.build(vertexCount, vertexCount * degree / 2, degree);
+            Graph<VertexData, EdgeData>.Vertex start = graph.getVertex(0);
+            ShortestPathTree<VertexData, EdgeData> tree = new ShortestPathTree<>();
+            double edges = graph.numEdge();
+
+            long bfs = measure(() -> graph.breadthFirstTraversal(start, e -> sink++));
+            long dfs = measure(() -> graph.depthFirstTraversal(start, e -> sink++));
+            long dijkstra = measure(() -> graph.shortestPathTree(start, null, tree));
+            long neighbors = measure(() -> {
+                for (Graph<VertexData, EdgeData>.Vertex v : graph.getVertices()) {
+                    sink += v.getNeighbors().size();
+                }
+            });
+            System.out.printf("%10d %10d %14.2f %14.2f %14d %14.2f%n", graph.numVertex(), graph.numEdge(),
+                    bfs / edges, dfs / edges, dijkstra, neighbors / edges);
+        }
+    }
+
+    /**
+     * Bytes allocated by one run of a traversal, after warming it up
+     *
+     * @param traversal traversal to measure
+     * @return bytes allocated by the current thread
+     */
+    private static long measure(Runnable traversal) {
+        for (int i = 0; i < WARMUP; i++) {
+            traversal.run();
+        }
+        long thread = Thread.currentThread().getId();
+        long before = THREADS.getThreadAllocatedBytes(thread);
+        traversal.run();
+        return THREADS.getThreadAllocatedBytes(thread) - before;
+    }
+}
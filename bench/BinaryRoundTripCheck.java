@@ -0,0 +1,132 @@
+import java.awt.*;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Round-trip check of BinaryGraphFormat against the text format: each text graph is imported,
+ * written as a binary file, opened as a MappedGraph and turned back into a Graph, which must
+ * have the same vertices with the same names and points, and the same edges with the same
+ * lengths, and must export to the same text.
+ * <p>
+ * Usage: java BinaryRoundTripCheck [files...]
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class BinaryRoundTripCheck {
+
+    /**
+     * Run the check
+     *
+     * @param args text graphs to check, nymap.txt, simple.txt and a random graph if none
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        List<Path> files = new ArrayList<>();
+        Path random = null;
+        if (args.length > 0) {
+            for (String arg : args) {
+                files.add(Paths.get(arg));
+            }
+        } else {
+            files.add(Paths.get("nymap.txt"));
+            files.add(Paths.get("simple.txt"));
+            random = Files.createTempFile("roundtrip", ".txt");
+            RandomGraphs.writeText(random, 50_000, 150_000, 12);
+            files.add(random);
+        }
+
+        try {
+            for (Path file : files) {
+                check(file);
+            }
+        } finally {
+            if (random != null) {
+                Files.delete(random);
+            }
+        }
+    }
+
+    /**
+     * Take one text graph through the binary format and back
+     *
+     * @param file text graph
+     * @throws IOException if a file cannot be read or written
+     */
+    private static void check(Path file) throws IOException {
+        Graph<VertexData, EdgeData> text = new Graph<>();
+        new GraphImporter(Color.RED, Color.BLUE, ForkJoinPool.commonPool()).read(file.toString(), text);
+
+        Path binary = Files.createTempFile("roundtrip", BinaryGraphFormat.EXTENSION);
+        try {
+            BinaryGraphFormat.write(text, binary.toString());
+            Graph<VertexData, EdgeData> loaded;
+            try (MappedGraph mapped = MappedGraph.open(binary.toString(), true)) {
+                expect(mapped.numVertex() == text.numVertex() && mapped.numEdge() == text.numEdge(),
+                        file + ": mapped counts differ");
+                loaded = mapped.toGraph(Color.RED, Color.BLUE);
+            }
+            compare(file, text, loaded);
+            expect(export(text).equals(export(loaded)), file + ": exported text differs");
+            System.out.printf("%s: %d vertices, %d edges, %d bytes as text, %d as binary: ok%n", file,
+                    loaded.numVertex(), loaded.numEdge(), Files.size(file), Files.size(binary));
+        } finally {
+            Files.delete(binary);
+        }
+    }
+
+    /**
+     * Check that two graphs have the same vertices and edges in the same order
+     *
+     * @param file     file the graphs came from, for error messages
+     * @param expected graph imported from text
+     * @param actual   graph loaded from binary
+     */
+    private static void compare(Path file, Graph<VertexData, EdgeData> expected, Graph<VertexData, EdgeData> actual) {
+        expect(expected.numVertex() == actual.numVertex(), file + ": vertex counts differ");
+        expect(expected.numEdge() == actual.numEdge(), file + ": edge counts differ");
+        for (int v = 0; v < expected.numVertex(); v++) {
+            VertexData a = expected.getVertex(v).getData();
+            VertexData b = actual.getVertex(v).getData();
+            expect(a.getString().equals(b.getString()) && a.getPoint().equals(b.getPoint()),
+                    file + ": vertex " + a + " differs from " + b);
+        }
+        for (int e = 0; e < expected.numEdge(); e++) {
+            Graph<VertexData, EdgeData>.Edge a = expected.getEdge(e);
+            Graph<VertexData, EdgeData>.Edge b = actual.getEdge(e);
+            expect(a.toString().equals(b.toString()) && a.getData().getLength() == b.getData().getLength(),
+                    file + ": edge " + a + " differs from " + b);
+        }
+    }
+
+    /**
+     * Export a graph as text
+     *
+     * @param graph graph
+     * @return text of graph
+     * @throws IOException if the graph cannot be written
+     */
+    private static String export(Graph<VertexData, EdgeData> graph) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new GraphExporter(ForkJoinPool.commonPool()).write(graph, out);
+        return out.toString("UTF-8");
+    }
+
+    /**
+     * Fail the check unless a condition holds
+     *
+     * @param condition condition
+     * @param message   reason for failing
+     */
+    private static void expect(boolean condition, String message) {
+        if (!condition) {
+            throw new IllegalStateException(message);
+        }
+    }
+}
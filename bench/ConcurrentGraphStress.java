@@ -0,0 +1,159 @@
+import java.util.ArrayList;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Multi-threaded stress test of ConcurrentGraph: one writer thread keeps moving weight from one
+ * edge to another, both in the same write, so the total weight of the graph never changes,
+ * while reader threads query the graph. Each reader checks that the total weight it sees is
+ * the same as at the start and that the cost of each shortest path it finds is the sum of the
+ * lengths of the path's edges, which only holds if no write happened in between. Reader
+ * queries and writer updates per second are reported for more and more readers.
+ * <p>
+ * Usage: java ConcurrentGraphStress [seconds] [readers...]
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class ConcurrentGraphStress {
+
+    /**
+     * Number of vertices of the graph
+     */
+    private static final int VERTICES = 10_000;
+
+    /**
+     * Number of edges of the graph
+     */
+    private static final int EDGES = 25_000;
+
+    /**
+     * Run the stress test
+     *
+     * @param args seconds for each number of readers, 2 if missing, then numbers of readers,
+     *             1, 2, 4 and 8 if none
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    public static void main(String[] args) throws InterruptedException {
+        int seconds = RandomGraphs.intArg(args, 0, 2);
+        int[] readerCounts = {1, 2, 4, 8};
+        if (args.length > 1) {
+            readerCounts = new int[args.length - 1];
+            for (int i = 1; i < args.length; i++) {
+                readerCounts[i - 1] = Integer.parseInt(args[i]);
+            }
+        }
+
+        System.out.printf("%d cores, %d vertices, %d edges, %d s per run%n",
+                Runtime.getRuntime().availableProcessors(), VERTICES, EDGES, seconds);
+        System.out.printf("%10s %16s %16s %16s%n", "readers", "queries/s", "updates/s", "inconsistent");
+        for (int readers : readerCounts) {
+            run(readers, seconds);
+        }
+    }
+
+    /**
+     * Run one writer and some readers for a while
+     *
+     * @param readers number of reader threads
+     * @param seconds how long to run
+     * @throws InterruptedException if interrupted while waiting for the threads
+     */
+    private static void run(int readers, int seconds) throws InterruptedException {
+        ConcurrentGraph<VertexData, EdgeData> graph = new ConcurrentGraph<>(RandomGraphs.build(VERTICES, EDGES, readers));
+        double total = graph.read(ConcurrentGraphStress::totalWeight);
+        AtomicBoolean stop = new AtomicBoolean();
+        AtomicLong queries = new AtomicLong();
+        AtomicLong updates = new AtomicLong();
+        AtomicLong inconsistent = new AtomicLong();
+        CountDownLatch done = new CountDownLatch(readers + 1);
+
+        Thread writer = new Thread(() -> {
+            Random random = new Random(1);
+            ArrayList<Graph<VertexData, EdgeData>.Edge> edges = graph.getEdges();
+            while (!stop.get()) {
+                Graph<VertexData, EdgeData>.Edge from = edges.get(random.nextInt(edges.size()));
+                Graph<VertexData, EdgeData>.Edge to = edges.get(random.nextInt(edges.size()));
+                graph.write(g -> {
+                    double moved = Math.floor(from.getData().getLength() / 2);
+                    if (from != to && moved > 0) {
+                        from.getData().setLength(from.getData().getLength() - moved);
+                        to.getData().setLength(to.getData().getLength() + moved);
+                    }
+                });
+                updates.incrementAndGet();
+            }
+            done.countDown();
+        });
+
+        ArrayList<Thread> threads = new ArrayList<>();
+        threads.add(writer);
+        for (int r = 0; r < readers; r++) {
+            long seed = r;
+            threads.add(new Thread(() -> {
+                Random random = new Random(seed);
+                while (!stop.get()) {
+                    Graph<VertexData, EdgeData>.Vertex start = graph.read(g -> g.getVertex(random.nextInt(VERTICES)));
+                    Graph<VertexData, EdgeData>.Vertex end = graph.read(g -> g.getVertex(random.nextInt(VERTICES)));
+                    boolean consistent = graph.read(g -> totalWeight(g) == total && pathAddsUp(g, start, end));
+                    if (!consistent) {
+                        inconsistent.incrementAndGet();
+                    }
+                    queries.incrementAndGet();
+                }
+                done.countDown();
+            }));
+        }
+
+        for (Thread t : threads) {
+            t.start();
+        }
+        Thread.sleep(seconds * 1000L);
+        stop.set(true);
+        done.await();
+
+        System.out.printf("%10d %16.1f %16.1f %16d%n", readers, queries.get() / (double) seconds,
+                updates.get() / (double) seconds, inconsistent.get());
+        if (inconsistent.get() > 0 || graph.read(ConcurrentGraphStress::totalWeight) != total) {
+            throw new IllegalStateException("Readers saw a graph in the middle of a write");
+        }
+    }
+
+    /**
+     * Sum of the lengths of every edge
+     *
+     * @param graph graph, read under the read lock
+     * @return total weight
+     */
+    private static double totalWeight(Graph<VertexData, EdgeData> graph) {
+        double total = 0;
+        for (Graph<VertexData, EdgeData>.Edge e : graph.getEdges()) {
+            total += e.getData().getLength();
+        }
+        return total;
+    }
+
+    /**
+     * Find a shortest path and check that its cost is the sum of its edges' lengths
+     *
+     * @param graph graph, read under the read lock
+     * @param start start of path
+     * @param end   end of path
+     * @return true if the cost adds up, or there is no path
+     */
+    private static boolean pathAddsUp(Graph<VertexData, EdgeData> graph, Graph<VertexData, EdgeData>.Vertex start,
+                                      Graph<VertexData, EdgeData>.Vertex end) {
+        Graph<VertexData, EdgeData>.PathResult result = graph.bidirectionalDijkstra(start, end);
+        if (result.getCost() == Double.POSITIVE_INFINITY) {
+            return true;
+        }
+        double cost = 0;
+        ArrayList<Graph<VertexData, EdgeData>.Vertex> path = result.getPath();
+        for (int i = 1; i < path.size(); i++) {
+            cost += graph.getEdgeRef(path.get(i - 1), path.get(i)).getData().getLength();
+        }
+        return cost == result.getCost();
+    }
+}
@@ -0,0 +1,115 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+/**
+ * Frame-time benchmark of GraphCanvas.paintComponent on a graph of 1M edges: paints a 700x600
+ * view into an image at zoom levels from close up, where labels are drawn, to the whole graph,
+ * where dense areas are clustered. At each level it times the first frame, which renders every
+ * tile of the view, and then frames that pan the view a few pixels, which mostly move cached
+ * tiles. Run it headless with -Djava.awt.headless=true.
+ * <p>
+ * Usage: java -Djava.awt.headless=true FrameTimeBenchmark [edges]
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class FrameTimeBenchmark {
+
+    /**
+     * Width of the view
+     */
+    private static final int WIDTH = 700;
+
+    /**
+     * Height of the view
+     */
+    private static final int HEIGHT = 600;
+
+    /**
+     * Zoom levels measured, from close up to the whole graph
+     */
+    private static final int[] LEVELS = {2, 0, -4, -8, -12, -14};
+
+    /**
+     * Number of panning frames timed at each level
+     */
+    private static final int PANS = 20;
+
+    /**
+     * Run the benchmark
+     *
+     * @param args number of edges, 1M if none
+     * @throws Exception if the graph cannot be written or the event dispatch thread fails
+     */
+    public static void main(String[] args) throws Exception {
+        int edgeCount = RandomGraphs.intArg(args, 0, 1_000_000);
+        Path file = Files.createTempFile("frames", ".txt");
+        try {
+            RandomGraphs.writeText(file, edgeCount / 2, edgeCount, 22);
+            SwingUtilities.invokeAndWait(() -> run(file.toString()));
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    /**
+     * Load the graph into a canvas and time its frames
+     *
+     * @param filename text graph
+     */
+    private static void run(String filename) {
+        GraphCanvas canvas = new GraphCanvas();
+        canvas.setSize(WIDTH, HEIGHT);
+        canvas.importGraph(filename);
+        BufferedImage frame = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB_PRE);
+        Point center = new Point(WIDTH / 2, HEIGHT / 2);
+        System.out.printf("%d vertices, %d edges, %dx%d view%n", canvas.getVertices().size(),
+                canvas.getEdges().size(), WIDTH, HEIGHT);
+        System.out.printf("%8s %10s %14s %14s%n", "level", "zoom", "first ms", "pan ms");
+
+        // center the view on the middle of the graph
+        int maxX = 0;
+        int maxY = 0;
+        for (Graph<VertexData, EdgeData>.Vertex v : canvas.getVertices()) {
+            maxX = Math.max(maxX, v.getData().getPoint().x);
+            maxY = Math.max(maxY, v.getData().getPoint().y);
+        }
+        canvas.pan(WIDTH / 2 - maxX / 2, HEIGHT / 2 - maxY / 2);
+
+        int level = 0;
+        for (int target : LEVELS) {
+            canvas.zoomAt(center, target - level);
+            level = target;
+            long first = paint(canvas, frame);
+            long pans = 0;
+            for (int i = 0; i < PANS; i++) {
+                canvas.pan(i % 2 == 0 ? 13 : -13, 7);
+                pans += paint(canvas, frame);
+            }
+            System.out.printf("%8d %10.3f %14.1f %14.2f%n", level, canvas.getZoom(), first / 1e6, pans / 1e6 / PANS);
+        }
+        System.out.println(canvas.getTileStatistics());
+    }
+
+    /**
+     * Paint the whole view once
+     *
+     * @param canvas canvas
+     * @param frame  image to paint into
+     * @return nanoseconds taken
+     */
+    private static long paint(GraphCanvas canvas, BufferedImage frame) {
+        Graphics2D g = frame.createGraphics();
+        try {
+            g.setClip(0, 0, WIDTH, HEIGHT);
+            long start = System.nanoTime();
+            canvas.paintComponent(g);
+            return System.nanoTime() - start;
+        } finally {
+            g.dispose();
+        }
+    }
+}
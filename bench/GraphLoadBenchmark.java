@@ -0,0 +1,82 @@
+import java.awt.*;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Load test of the vertex and edge indexes of Graph: imports random text graphs of 10k, 100k
+ * and 1M edges, as GraphCanvas.importGraph does, then looks up and removes every edge by its
+ * endpoints. With the indexes each step takes time in proportion to the number of edges.
+ * <p>
+ * Usage: java GraphLoadBenchmark [edges...]
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class GraphLoadBenchmark {
+
+    /**
+     * Run the load test
+     *
+     * @param args numbers of edges to load, 10k, 100k and 1M if none
+     * @throws IOException if the temporary file cannot be written or read
+     */
+    public static void main(String[] args) throws IOException {
+        int[] sizes = {10_000, 100_000, 1_000_000};
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) {
+                sizes[i] = Integer.parseInt(args[i]);
+            }
+        }
+        System.out.printf("%10s %10s %12s %12s %12s%n", "edges", "vertices", "import ms", "lookup ms", "remove ms");
+        for (int edgeCount : sizes) {
+            int vertexCount = Math.max(edgeCount / 2, 2);
+            Path file = Files.createTempFile("load", ".txt");
+            try {
+                RandomGraphs.writeText(file, vertexCount, edgeCount, edgeCount);
+                run(file, vertexCount, edgeCount);
+            } finally {
+                Files.delete(file);
+            }
+        }
+    }
+
+    /**
+     * Import one file and time its lookups and removals
+     *
+     * @param file        text graph
+     * @param vertexCount number of vertices in file
+     * @param edgeCount   number of edges in file
+     * @throws IOException if the file cannot be read
+     */
+    private static void run(Path file, int vertexCount, int edgeCount) throws IOException {
+        Graph<VertexData, EdgeData> graph = new Graph<>();
+        long start = System.nanoTime();
+        new GraphImporter(Color.RED, Color.BLUE, ForkJoinPool.commonPool()).read(file.toString(), graph);
+        long imported = System.nanoTime();
+        if (graph.numVertex() != vertexCount || graph.numEdge() != edgeCount) {
+            throw new IllegalStateException("Imported " + graph.numVertex() + " vertices and "
+                    + graph.numEdge() + " edges");
+        }
+
+        ArrayList<Graph<VertexData, EdgeData>.Edge> edges = new ArrayList<>(graph.getEdges());
+        for (Graph<VertexData, EdgeData>.Edge e : edges) {
+            if (graph.getEdgeRef(e.getTargetVertex(), e.getSourceVertex()) != e) {
+                throw new IllegalStateException("Lost edge " + e);
+            }
+        }
+        long looked = System.nanoTime();
+        for (Graph<VertexData, EdgeData>.Edge e : edges) {
+            graph.removeEdge(e.getSourceVertex(), e.getTargetVertex());
+        }
+        long removed = System.nanoTime();
+        if (graph.numEdge() != 0) {
+            throw new IllegalStateException(graph.numEdge() + " edges left");
+        }
+        System.out.printf("%10d %10d %12.1f %12.1f %12.1f%n", edgeCount, vertexCount, (imported - start) / 1e6,
+                (looked - imported) / 1e6, (removed - looked) / 1e6);
+    }
+}
@@ -0,0 +1,121 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Scaling benchmark of ParallelBreadthFirstSearch: times the search on fork-join pools of 1, 4,
+ * 16 and 32 threads against the sequential breadth-first traversal of the same snapshot, and
+ * checks that every run visits the same vertices at the same levels as the sequential one.
+ * Speedup is limited by the cores of the machine it runs on, which are printed first.
+ * <p>
+ * Usage: java ParallelBfsBenchmark [vertices] [edges] [threads...]
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class ParallelBfsBenchmark {
+
+    /**
+     * Number of runs timed for each pool, the median is reported
+     */
+    private static final int RUNS = 5;
+
+    /**
+     * Run the benchmark
+     *
+     * @param args number of vertices and edges, 500k and 2M if missing, then numbers of threads,
+     *             1, 4, 16 and 32 if none
+     */
+    public static void main(String[] args) {
+        int vertexCount = RandomGraphs.intArg(args, 0, 500_000);
+        int edgeCount = RandomGraphs.intArg(args, 1, 2_000_000);
+        int[] threads = {1, 4, 16, 32};
+        if (args.length > 2) {
+            threads = new int[args.length - 2];
+            for (int i = 2; i < args.length; i++) {
+                threads[i - 2] = Integer.parseInt(args[i]);
+            }
+        }
+
+        FrozenGraph<VertexData, EdgeData> graph = RandomGraphs.build(vertexCount, edgeCount, 6).freeze();
+        int[] levels = sequentialLevels(graph);
+        long sequential = median(() -> graph.breadthFirstTraversal(0));
+        System.out.printf("%d cores, %d vertices, %d edges%n", Runtime.getRuntime().availableProcessors(),
+                graph.numVertex(), graph.numEdge());
+        System.out.printf("%10s %10s %10s%n", "threads", "ms", "speedup");
+        System.out.printf("%10s %10.1f %10.2f%n", "seq", sequential / 1e6, 1.0);
+
+        for (int t : threads) {
+            ForkJoinPool pool = new ForkJoinPool(t);
+            try {
+                ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(graph, pool);
+                long time = median(() -> search.run(0));
+                check(search, levels);
+                System.out.printf("%10d %10.1f %10.2f%n", t, time / 1e6, (double) sequential / time);
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Level of each vertex found by the sequential traversal
+     *
+     * @param graph snapshot
+     * @return level of each vertex, -1 if it is not reached
+     */
+    private static int[] sequentialLevels(FrozenGraph<VertexData, EdgeData> graph) {
+        int[] levels = new int[graph.numVertex()];
+        Arrays.fill(levels, -1);
+        levels[0] = 0;
+        for (int e : graph.breadthFirstTraversal(0)) {
+            int u = graph.edgeSource(e);
+            int v = graph.edgeTarget(e);
+            if (levels[u] < 0) {
+                levels[u] = levels[v] + 1;
+            } else {
+                levels[v] = levels[u] + 1;
+            }
+        }
+        return levels;
+    }
+
+    /**
+     * Check that a search visited the same vertices at the same levels as the sequential one
+     *
+     * @param search finished search
+     * @param levels levels of the sequential traversal
+     */
+    private static void check(ParallelBreadthFirstSearch search, int[] levels) {
+        int reached = 0;
+        for (int v = 0; v < levels.length; v++) {
+            if (search.getLevel(v) != levels[v]) {
+                throw new IllegalStateException("Vertex " + v + " at level " + search.getLevel(v)
+                        + " instead of " + levels[v]);
+            }
+            if (levels[v] >= 0) {
+                reached++;
+            }
+        }
+        if (search.getVisitedCount() != reached) {
+            throw new IllegalStateException(search.getVisitedCount() + " visited instead of " + reached);
+        }
+    }
+
+    /**
+     * Median time of a few runs, after one untimed run
+     *
+     * @param run work to time
+     * @return median nanoseconds
+     */
+    private static long median(Runnable run) {
+        run.run();
+        long[] times = new long[RUNS];
+        for (int i = 0; i < RUNS; i++) {
+            long start = System.nanoTime();
+            run.run();
+            times[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(times);
+        return times[RUNS / 2];
+    }
+}
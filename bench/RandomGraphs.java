@@ -0,0 +1,105 @@
+import java.awt.*;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Random;
+
+/**
+ * Builds random road-like graphs for the benchmarks: vertices on a jittered grid, each edge
+ * joining a vertex to one a few cells away, no shorter than the distance between them
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class RandomGraphs {
+
+    /**
+     * Distance between neighboring grid cells
+     */
+    public static final int CELL_SIZE = 20;
+
+    /**
+     * Furthest an edge reaches, in cells along each axis
+     */
+    private static final int REACH = 2;
+
+    /**
+     * Constructor, not used
+     */
+    private RandomGraphs() {
+    }
+
+    /**
+     * Build a random graph
+     *
+     * @param vertexCount number of vertices
+     * @param edgeCount   number of edges, at most about twelve times the vertices
+     * @param seed        seed of random numbers
+     * @return graph
+     */
+    public static Graph<VertexData, EdgeData> build(int vertexCount, int edgeCount, long seed) {
+        Random random = new Random(seed);
+        int side = (int) Math.ceil(Math.sqrt(vertexCount));
+        Graph<VertexData, EdgeData> graph = new Graph<>();
+        ArrayList<Graph<VertexData, EdgeData>.Vertex> vertices = new ArrayList<>(vertexCount);
+        for (int i = 0; i < vertexCount; i++) {
+            Point p = new Point((i % side) * CELL_SIZE + random.nextInt(CELL_SIZE / 2),
+                    (i / side) * CELL_SIZE + random.nextInt(CELL_SIZE / 2));
+            vertices.add(graph.addVertex(new VertexData(p, "v" + i, Color.RED)));
+        }
+        while (graph.getEdges().size() < edgeCount) {
+            int i = random.nextInt(vertexCount);
+            int x = i % side + random.nextInt(2 * REACH + 1) - REACH;
+            int y = i / side + random.nextInt(2 * REACH + 1) - REACH;
+            int j = y * side + x;
+            if (x < 0 || x >= side || y < 0 || j >= vertexCount || j == i) {
+                continue;
+            }
+            Graph<VertexData, EdgeData>.Vertex a = vertices.get(i);
+            Graph<VertexData, EdgeData>.Vertex b = vertices.get(j);
+            double distance = a.getData().getPoint().distance(b.getData().getPoint());
+            graph.addEdge(new EdgeData(Math.ceil(distance * (1 + random.nextDouble())), Color.BLUE), a, b);
+        }
+        return graph;
+    }
+
+    /**
+     * Write a random graph in the text format read by GraphImporter
+     *
+     * @param file        file to write
+     * @param vertexCount number of vertices
+     * @param edgeCount   number of edges
+     * @param seed        seed of random numbers
+     * @throws IOException if the file cannot be written
+     */
+    public static void writeText(Path file, int vertexCount, int edgeCount, long seed) throws IOException {
+        Graph<VertexData, EdgeData> graph = build(vertexCount, edgeCount, seed);
+        try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            for (Graph<VertexData, EdgeData>.Vertex v : graph.getVertices()) {
+                Point p = v.getData().getPoint();
+                out.write("v " + p.x + " " + p.y + " " + v.getData().getString());
+                out.newLine();
+            }
+            for (Graph<VertexData, EdgeData>.Edge e : graph.getEdges()) {
+                out.write("e " + e.getData().getLength() + " " + e.getSourceVertex().getData().getString()
+                        + " " + e.getTargetVertex().getData().getString());
+                out.newLine();
+            }
+        }
+    }
+
+    /**
+     * Read the number from a command line argument
+     *
+     * @param args     command line arguments
+     * @param index    position of argument
+     * @param fallback number if the argument is missing
+     * @return number
+     */
+    public static int intArg(String[] args, int index, int fallback) {
+        return args.length > index ? Integer.parseInt(args[index]) : fallback;
+    }
+}
@@ -0,0 +1,39 @@
+import java.util.concurrent.CancellationException;
+
+/**
+ * Receives progress reports from a long-running graph algorithm, such as a traversal of a
+ * FrozenGraph or an import, and decides whether it goes on. Algorithms report every
+ * INTERVAL steps or so, so that reporting costs little.
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public interface AlgorithmProgress {
+
+    /**
+     * Number of steps, such as vertices settled, between reports
+     */
+    int INTERVAL = 1 << 14;
+
+    /**
+     * Report how much of the work is done
+     *
+     * @param done  work done
+     * @param total total work, or 0 if unknown
+     * @return whether the algorithm should go on
+     */
+    boolean progress(long done, long total);
+
+    /**
+     * Report how much of the work is done, stopping the algorithm if it should not go on
+     *
+     * @param done  work done
+     * @param total total work, or 0 if unknown
+     * @throws CancellationException if the algorithm should not go on
+     */
+    default void report(long done, long total) {
+        if (!progress(done, total)) {
+            throw new CancellationException();
+        }
+    }
+}
@@ -0,0 +1,198 @@
+import javax.swing.*;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.function.Consumer;
+
+/**
+ * Runs long graph algorithms, such as shortest distances, traversals and imports, on a
+ * background thread so that the event dispatch thread keeps painting and answering the mouse.
+ * An algorithm works on a pinned version of the graph, which later edits do not change, and
+ * reports its progress to a status label. Its result is handed to a consumer on the event
+ * dispatch thread in one call, so that the graph is changed all at once and only there.
+ * <p>
+ * One algorithm runs at a time: starting another cancels the one running. A cancelled
+ * algorithm stops at its next progress report and its result is dropped.
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class AlgorithmService {
+
+    /**
+     * Label showing progress
+     */
+    private final JLabel status;
+
+    /**
+     * Algorithm running, null if none
+     */
+    private Worker<?> running;
+
+
+    /**
+     * Constructor
+     *
+     * @param status label showing progress
+     */
+    public AlgorithmService(JLabel status) {
+        this.status = status;
+    }
+
+    /**
+     * Start an algorithm, cancelling the one running. Must be called on the event dispatch
+     * thread.
+     *
+     * @param name    name of algorithm shown with its progress
+     * @param pin     pinned version of the graph for the algorithm, closed when it is done, or
+     *                null if it does not need one
+     * @param task    algorithm, run on a background thread
+     * @param publish receives the result on the event dispatch thread, before the pin is closed
+     * @param <R>     result of algorithm
+     */
+    public <R> void run(String name, VersionedGraph<VertexData, EdgeData>.Pin pin, Task<R> task,
+                        Consumer<R> publish) {
+        cancel();
+        running = new Worker<>(name, pin, task, publish);
+        status.setText(name + "...");
+        running.execute();
+    }
+
+    /**
+     * Cancel the algorithm running, if any
+     */
+    public void cancel() {
+        if (running != null) {
+            running.cancel(false);
+            running = null;
+        }
+    }
+
+    /**
+     * Whether an algorithm is running
+     *
+     * @return true if one is running
+     */
+    public boolean isBusy() {
+        return running != null;
+    }
+
+    /**
+     * An algorithm run by the service
+     *
+     * @param <R> result of algorithm
+     */
+    public interface Task<R> {
+
+        /**
+         * Run the algorithm on a background thread
+         *
+         * @param snapshot pinned version of the graph, null if none was pinned
+         * @param progress receives progress reports and stops the algorithm when cancelled
+         * @return result
+         * @throws Exception if the algorithm fails
+         */
+        R run(FrozenGraph<VertexData, EdgeData> snapshot, AlgorithmProgress progress) throws Exception;
+    }
+
+    /**
+     * Worker running one algorithm
+     *
+     * @param <R> result of algorithm
+     */
+    private class Worker<R> extends SwingWorker<R, String> {
+
+        /**
+         * Name of algorithm
+         */
+        private final String name;
+
+        /**
+         * Pinned version of the graph, or null
+         */
+        private final VersionedGraph<VertexData, EdgeData>.Pin pin;
+
+        /**
+         * Algorithm
+         */
+        private final Task<R> task;
+
+        /**
+         * Receives the result
+         */
+        private final Consumer<R> publish;
+
+        /**
+         * Constructor for Worker
+         *
+         * @param name    name of algorithm
+         * @param pin     pinned version of the graph, or null
+         * @param task    algorithm
+         * @param publish receives the result
+         */
+        private Worker(String name, VersionedGraph<VertexData, EdgeData>.Pin pin, Task<R> task, Consumer<R> publish) {
+            this.name = name;
+            this.pin = pin;
+            this.task = task;
+            this.publish = publish;
+        }
+
+        /**
+         * Run the algorithm, passing its progress on as status messages
+         *
+         * @return result
+         * @throws Exception if the algorithm fails or is cancelled
+         */
+        @Override
+        protected R doInBackground() throws Exception {
+            FrozenGraph<VertexData, EdgeData> snapshot = pin == null ? null : pin.getGraph();
+            return task.run(snapshot, (done, total) -> {
+                if (total > 0) {
+                    publish(name + ": " + done * 100 / total + "%");
+                } else {
+                    publish(name + ": " + done);
+                }
+                return !isCancelled();
+            });
+        }
+
+        /**
+         * Show the latest status message, unless another algorithm has taken over the label
+         *
+         * @param messages status messages since last shown
+         */
+        @Override
+        protected void process(List<String> messages) {
+            if (running == this) {
+                status.setText(messages.get(messages.size() - 1));
+            }
+        }
+
+        /**
+         * Hand over the result, or show why there is none, and close the pin
+         */
+        @Override
+        protected void done() {
+            try {
+                if (running == this) {
+                    running = null;
+                } else if (running != null) {
+                    return;  // replaced by another algorithm
+                }
+                R result = get();
+                status.setText(name + " done");
+                publish.accept(result);
+            } catch (CancellationException e) {
+                status.setText(name + " cancelled");
+            } catch (ExecutionException e) {
+                status.setText(name + " failed: " + e.getCause().getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            } finally {
+                if (pin != null) {
+                    pin.close();
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,160 @@
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.CRC32;
+import java.util.zip.CheckedOutputStream;
+
+/**
+ * Binary file format for graphs of VertexData and EdgeData, laid out so that MappedGraph can
+ * memory-map the file and answer queries without reading it into objects. All values are
+ * big-endian. A file is a 64 byte header
+ * <pre>
+ * int magic, int version, int vertex count n, int edge count m,
+ * long name bytes, long CRC32 of everything after the header, zero padding
+ * </pre>
+ * followed by these sections, with arcs stored in compressed sparse row form as in FrozenGraph:
+ * <pre>
+ * double[2m] arc weights
+ * int[n + 1] first arc of each vertex
+ * int[2m]    arc targets
+ * int[2m]    arc edges
+ * int[m]     edge sources
+ * int[m]     edge targets
+ * int[2n]    x and y of each vertex
+ * int[n + 1] start of each vertex name in the name bytes
+ * byte[]     vertex names in UTF-8
+ * </pre>
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class BinaryGraphFormat {
+
+    /**
+     * File name extension of binary graph files
+     */
+    public static final String EXTENSION = ".gbin";
+
+    /**
+     * First int of a binary graph file
+     */
+    static final int MAGIC = 0x47424e31; //"GBN1"
+
+    /**
+     * Version of the format
+     */
+    static final int VERSION = 1;
+
+    /**
+     * Size of the header in bytes
+     */
+    static final int HEADER_SIZE = 64;
+
+    /**
+     * Not instantiable
+     */
+    private BinaryGraphFormat() {
+    }
+
+    /**
+     * Check if a file name has the binary extension
+     *
+     * @param filename name of file
+     * @return true if binary
+     */
+    public static boolean isBinary(String filename) {
+        return filename.endsWith(EXTENSION);
+    }
+
+    /**
+     * Write a graph to a file
+     *
+     * @param graph    graph to write
+     * @param filename name of file
+     * @throws IOException if the file cannot be written
+     */
+    public static void write(Graph<VertexData, EdgeData> graph, String filename) throws IOException {
+        FrozenGraph<VertexData, EdgeData> frozen = graph.freeze();
+        int n = frozen.numVertex();
+        int m = frozen.numEdge();
+        int arcs = 2 * m;
+
+        byte[][] names = new byte[n][];
+        long nameBytes = 0;
+        for (int v = 0; v < n; v++) {
+            names[v] = frozen.getVertex(v).getData().getString().getBytes(StandardCharsets.UTF_8);
+            nameBytes += names[v].length;
+        }
+        if (nameBytes > Integer.MAX_VALUE) {
+            throw new IOException("Vertex names too long for binary graph file");
+        }
+
+        try (FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+            channel.position(HEADER_SIZE);
+            CheckedOutputStream checked = new CheckedOutputStream(Channels.newOutputStream(channel), new CRC32());
+            DataOutputStream out = new DataOutputStream(new BufferedOutputStream(checked, 1 << 16));
+
+            for (int arc = 0; arc < arcs; arc++) {
+                out.writeDouble(frozen.arcWeight(arc));
+            }
+            for (int v = 0; v < n; v++) {
+                out.writeInt(frozen.firstArc(v));
+            }
+            out.writeInt(arcs);
+            for (int arc = 0; arc < arcs; arc++) {
+                out.writeInt(frozen.arcTarget(arc));
+            }
+            for (int arc = 0; arc < arcs; arc++) {
+                out.writeInt(frozen.arcEdge(arc));
+            }
+            for (int e = 0; e < m; e++) {
+                out.writeInt(frozen.edgeSource(e));
+            }
+            for (int e = 0; e < m; e++) {
+                out.writeInt(frozen.edgeTarget(e));
+            }
+            for (int v = 0; v < n; v++) {
+                out.writeInt((int) frozen.getVertex(v).getData().getPoint().getX());
+                out.writeInt((int) frozen.getVertex(v).getData().getPoint().getY());
+            }
+            int nameStart = 0;
+            for (int v = 0; v < n; v++) {
+                out.writeInt(nameStart);
+                nameStart += names[v].length;
+            }
+            out.writeInt(nameStart);
+            for (int v = 0; v < n; v++) {
+                out.write(names[v]);
+            }
+            out.flush();
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(m).putLong(nameBytes)
+                    .putLong(checked.getChecksum().getValue());
+            header.clear();
+            channel.position(0);
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+        }
+    }
+
+    /**
+     * Get the size of a file with the given counts
+     *
+     * @param n         number of vertices
+     * @param m         number of edges
+     * @param nameBytes number of bytes of vertex names
+     * @return size in bytes
+     */
+    static long fileSize(int n, int m, long nameBytes) {
+        return HEADER_SIZE + 40L * m + 8L * (n + 1) + 8L * n + nameBytes;
+    }
+}
@@ -0,0 +1,393 @@
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Thread-safe view of a Graph for many reading threads and some writing threads. Queries take
+ * a shared read lock and run at the same time as each other; changes, including edge weight
+ * updates, take the exclusive write lock. Every query therefore sees the graph either entirely
+ * before or entirely after each change. Lists are returned as copies, never as the graph's own
+ * lists.
+ * <p>
+ * The wrapped graph must only be changed through this object. Vertices and edges handed out
+ * may be passed back in, but walking their neighbors or reading their data outside of read()
+ * is not protected. Changes made inside data objects must go through updateEdgeData,
+ * updateVertexData or write().
+ *
+ * @param <V> data in Vertices
+ * @param <E> data in Edges
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class ConcurrentGraph<V, E> {
+
+    /**
+     * Graph being guarded
+     */
+    private final Graph<V, E> graph;
+
+    /**
+     * Lock held shared by queries
+     */
+    private final Lock readLock;
+
+    /**
+     * Lock held exclusively by changes
+     */
+    private final Lock writeLock;
+
+
+    /**
+     * Constructor for an empty graph
+     */
+    public ConcurrentGraph() {
+        this(new Graph<>());
+    }
+
+    /**
+     * Constructor that takes over an existing graph, which must no longer be used directly
+     *
+     * @param graph graph to guard
+     */
+    public ConcurrentGraph(Graph<V, E> graph) {
+        this.graph = graph;
+        ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        readLock = lock.readLock();
+        writeLock = lock.writeLock();
+    }
+
+    /**
+     * Run a query on the graph under the read lock. The query must not change the graph.
+     *
+     * @param query query to run
+     * @param <R>   type of result
+     * @return result of query
+     */
+    public <R> R read(Function<Graph<V, E>, R> query) {
+        readLock.lock();
+        try {
+            return query.apply(graph);
+        } finally {
+            readLock.unlock();
+        }
+    }
+
+    /**
+     * Change the graph under the write lock
+     *
+     * @param change change to make
+     */
+    public void write(Consumer<Graph<V, E>> change) {
+        writeLock.lock();
+        try {
+            change.accept(graph);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adds a vertex, see Graph.addVertex
+     *
+     * @param data data of vertex
+     * @return new vertex, or null if a vertex already holds this data
+     */
+    public Graph<V, E>.Vertex addVertex(V data) {
+        writeLock.lock();
+        try {
+            return graph.addVertex(data);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Adds an edge, see Graph.addEdge
+     *
+     * @param data         data of edge
+     * @param sourceVertex start vertex
+     * @param targetVertex end vertex
+     * @return new edge, or null if the vertices are already joined or the same
+     */
+    public Graph<V, E>.Edge addEdge(E data, Graph<V, E>.Vertex sourceVertex, Graph<V, E>.Vertex targetVertex) {
+        writeLock.lock();
+        try {
+            return graph.addEdge(data, sourceVertex, targetVertex);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Remove a vertex and its edges
+     *
+     * @param vertex vertex to remove
+     */
+    public void removeVertex(Graph<V, E>.Vertex vertex) {
+        writeLock.lock();
+        try {
+            graph.removeVertex(vertex);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Remove a group of vertices and their edges
+     *
+     * @param group vertices to remove
+     */
+    public void removeVertices(Collection<Graph<V, E>.Vertex> group) {
+        writeLock.lock();
+        try {
+            graph.removeVertices(group);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Remove an edge
+     *
+     * @param edge edge to remove
+     */
+    public void removeEdge(Graph<V, E>.Edge edge) {
+        writeLock.lock();
+        try {
+            graph.removeEdge(edge);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replace the data of a vertex
+     *
+     * @param vertex vertex to change
+     * @param data   new data
+     * @return true if the data was replaced, false if another vertex holds equal data
+     */
+    public boolean setVertexData(Graph<V, E>.Vertex vertex, V data) {
+        writeLock.lock();
+        try {
+            return vertex.setData(data);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Change the data of a vertex in place and tell the graph's listeners
+     *
+     * @param vertex vertex to change
+     * @param change change to make to its data
+     */
+    public void updateVertexData(Graph<V, E>.Vertex vertex, Consumer<V> change) {
+        writeLock.lock();
+        try {
+            change.accept(vertex.getData());
+            vertex.dataChanged();
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Replace the data of an edge, such as its weight
+     *
+     * @param edge edge to change
+     * @param data new data
+     */
+    public void setEdgeData(Graph<V, E>.Edge edge, E data) {
+        writeLock.lock();
+        try {
+            edge.setData(data);
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Change the data of an edge in place, such as its weight, and tell the graph's listeners,
+     * unless the data is NotifyingData, which tells them itself
+     *
+     * @param edge   edge to change
+     * @param change change to make to its data
+     */
+    public void updateEdgeData(Graph<V, E>.Edge edge, Consumer<E> change) {
+        writeLock.lock();
+        try {
+            change.accept(edge.getData());
+            if (!(edge.getData() instanceof NotifyingData)) {
+                edge.dataChanged();
+            }
+        } finally {
+            writeLock.unlock();
+        }
+    }
+
+    /**
+     * Add a listener to be told about changes, on the writing thread under the write lock
+     *
+     * @param listener listener to add
+     */
+    public void addGraphListener(GraphListener<V, E> listener) {
+        write(g -> g.addGraphListener(listener));
+    }
+
+    /**
+     * Stop telling a listener about changes
+     *
+     * @param listener listener to remove
+     */
+    public void removeGraphListener(GraphListener<V, E> listener) {
+        write(g -> g.removeGraphListener(listener));
+    }
+
+    /**
+     * Get the number of vertices
+     *
+     * @return number of vertices
+     */
+    public int numVertex() {
+        return read(Graph::numVertex);
+    }
+
+    /**
+     * Get the number of edges
+     *
+     * @return number of edges
+     */
+    public int numEdge() {
+        return read(Graph::numEdge);
+    }
+
+    /**
+     * Returns true if the graph contains a vertex
+     *
+     * @param vertex vertex to check
+     * @return whether graph contains vertex
+     */
+    public boolean containsVertex(Graph<V, E>.Vertex vertex) {
+        return read(g -> g.containsVertex(vertex));
+    }
+
+    /**
+     * Get a copy of the list of vertices
+     *
+     * @return all the vertices
+     */
+    public ArrayList<Graph<V, E>.Vertex> getVertices() {
+        return read(g -> new ArrayList<>(g.getVertices()));
+    }
+
+    /**
+     * Get a copy of the list of edges
+     *
+     * @return all the edges
+     */
+    public ArrayList<Graph<V, E>.Edge> getEdges() {
+        return read(g -> new ArrayList<>(g.getEdges()));
+    }
+
+    /**
+     * Accessor for vertex by its data
+     *
+     * @param data data of vertex
+     * @return vertex, or null if no vertex holds this data
+     */
+    public Graph<V, E>.Vertex getVertex(V data) {
+        return read(g -> g.getVertex(data));
+    }
+
+    /**
+     * Get the edge between two vertices
+     *
+     * @param sourceVertex one vertex
+     * @param targetVertex other vertex
+     * @return edge, or null if there is none
+     */
+    public Graph<V, E>.Edge getEdgeRef(Graph<V, E>.Vertex sourceVertex, Graph<V, E>.Vertex targetVertex) {
+        return read(g -> g.getEdgeRef(sourceVertex, targetVertex));
+    }
+
+    /**
+     * Breadth-first traversal of graph
+     *
+     * @param start start
+     * @return all the edges traversed
+     */
+    public ArrayList<Graph<V, E>.Edge> breadthFirstTraversal(Graph<V, E>.Vertex start) {
+        return read(g -> g.breadthFirstTraversal(start));
+    }
+
+    /**
+     * Depth-first traversal of graph
+     *
+     * @param start start
+     * @return all the edges traversed
+     */
+    public ArrayList<Graph<V, E>.Edge> depthFirstTraversal(Graph<V, E>.Vertex start) {
+        return read(g -> g.depthFirstTraversal(start));
+    }
+
+    /**
+     * Dijkstra's algorithm from a start vertex
+     *
+     * @param startVertex start
+     * @return cost and home of each vertex
+     */
+    public HashMap<Graph<V, E>.Vertex, Graph<V, E>.CostHomePair> doDijkstra(Graph<V, E>.Vertex startVertex) {
+        return read(g -> g.doDijkstra(startVertex));
+    }
+
+    /**
+     * Dijkstra's algorithm that stops once a target is settled
+     *
+     * @param startVertex  start
+     * @param targetVertex target
+     * @return cost and home of each vertex reached
+     */
+    public HashMap<Graph<V, E>.Vertex, Graph<V, E>.CostHomePair> doDijkstra(Graph<V, E>.Vertex startVertex,
+                                                                          Graph<V, E>.Vertex targetVertex) {
+        return read(g -> g.doDijkstra(startVertex, targetVertex));
+    }
+
+    /**
+     * A* search between two vertices
+     *
+     * @param startVertex  start
+     * @param targetVertex target
+     * @param heuristic    estimate of the cost between two vertices' data
+     * @return cost and path
+     */
+    public Graph<V, E>.PathResult aStar(Graph<V, E>.Vertex startVertex, Graph<V, E>.Vertex targetVertex,
+                                       ToDoubleBiFunction<V, V> heuristic) {
+        return read(g -> g.aStar(startVertex, targetVertex, heuristic));
+    }
+
+    /**
+     * Bidirectional Dijkstra search between two vertices
+     *
+     * @param startVertex  start
+     * @param targetVertex target
+     * @return cost and path
+     */
+    public Graph<V, E>.PathResult bidirectionalDijkstra(Graph<V, E>.Vertex startVertex, Graph<V, E>.Vertex targetVertex) {
+        return read(g -> g.bidirectionalDijkstra(startVertex, targetVertex));
+    }
+
+    /**
+     * Make an immutable snapshot of the graph, which can then be searched without any lock
+     *
+     * @return snapshot of graph
+     */
+    public FrozenGraph<V, E> freeze() {
+        return read(Graph::freeze);
+    }
+}
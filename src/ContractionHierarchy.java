@@ -0,0 +1,997 @@
+import java.io.*;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+
+/**
+ * Contraction Hierarchies for fast point-to-point shortest paths on a graph that does not change.
+ * <p>
+ * Preprocessing contracts the vertices one at a time, cheapest first by edge difference (the
+ * shortcuts a contraction would add minus the edges it removes) plus the number of neighbors
+ * already contracted. When a vertex v is contracted, a shortcut u - w is added for each pair of
+ * its remaining neighbors unless a witness search finds a path from u to w avoiding v that is
+ * no longer than u - v - w. The position of a vertex in that order is its rank.
+ * <p>
+ * A query runs Dijkstra's algorithm from both ends using only edges that lead to higher-ranked
+ * vertices, and the shortcuts of the path found are unpacked back into edges of the graph.
+ * Edges and shortcuts together form the overlay; overlay edge ids below numEdge() of the graph
+ * are its edges, the rest are shortcuts.
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class ContractionHierarchy {
+
+    /**
+     * Tag at the start of a saved overlay file
+     */
+    private static final int MAGIC = 0x43484f56; //"CHOV"
+
+    /**
+     * Version of the saved overlay format
+     */
+    private static final int VERSION = 1;
+
+    /**
+     * Number of vertices a witness search may settle before giving up, in which case a shortcut
+     * is added even though a witness might exist
+     */
+    private static final int WITNESS_SETTLE_LIMIT = 500;
+
+    /**
+     * Smaller settle limit for the witness searches that only estimate the priority of a vertex
+     */
+    private static final int ESTIMATE_SETTLE_LIMIT = 50;
+
+    /**
+     * Graph the hierarchy was built for
+     */
+    private final Graph<VertexData, EdgeData> graph;
+
+    /**
+     * Vertices of the graph indexed by id
+     */
+    private final ArrayList<Graph<VertexData, EdgeData>.Vertex> vertices;
+
+    /**
+     * Edges of the graph indexed by id
+     */
+    private final ArrayList<Graph<VertexData, EdgeData>.Edge> edges;
+
+    /**
+     * Position of each vertex in the contraction order
+     */
+    private int[] ranks;
+
+    /**
+     * Number of overlay edges
+     */
+    private int overlaySize;
+
+    /**
+     * First endpoint of each overlay edge
+     */
+    private int[] overlayFrom;
+
+    /**
+     * Second endpoint of each overlay edge
+     */
+    private int[] overlayTo;
+
+    /**
+     * Weight of each overlay edge
+     */
+    private double[] overlayWeights;
+
+    /**
+     * Contracted vertex a shortcut bypasses, -1 for edges of the graph
+     */
+    private int[] overlayMiddles;
+
+    /**
+     * Overlay edge between overlayFrom and the middle vertex of a shortcut
+     */
+    private int[] overlayFirstHalves;
+
+    /**
+     * Overlay edge between the middle vertex and overlayTo of a shortcut
+     */
+    private int[] overlaySecondHalves;
+
+    /**
+     * First upward arc of each vertex in upTargets, upWeights and upEdges
+     */
+    private int[] upOffsets;
+
+    /**
+     * Higher-ranked vertex each upward arc leads to
+     */
+    private int[] upTargets;
+
+    /**
+     * Weight of each upward arc
+     */
+    private double[] upWeights;
+
+    /**
+     * Overlay edge of each upward arc
+     */
+    private int[] upEdges;
+
+    /**
+     * Per-thread search state, so that queries allocate nothing proportional to the graph
+     */
+    private final ThreadLocal<QueryWorkspace> workspaces = new ThreadLocal<QueryWorkspace>() {
+        @Override
+        protected QueryWorkspace initialValue() {
+            return new QueryWorkspace();
+        }
+    };
+
+
+    /**
+     * Constructor that takes the edges of the graph as the first part of the overlay
+     *
+     * @param graph graph to build the hierarchy for
+     */
+    private ContractionHierarchy(Graph<VertexData, EdgeData> graph) {
+        this.graph = graph;
+        this.vertices = new ArrayList<>(graph.getVertices());
+        this.edges = new ArrayList<>(graph.getEdges());
+
+        int m = edges.size();
+        overlayFrom = new int[Math.max(16, 2 * m)];
+        overlayTo = new int[overlayFrom.length];
+        overlayWeights = new double[overlayFrom.length];
+        overlayMiddles = new int[overlayFrom.length];
+        overlayFirstHalves = new int[overlayFrom.length];
+        overlaySecondHalves = new int[overlayFrom.length];
+        for (int i = 0; i < m; i++) {
+            Graph<VertexData, EdgeData>.Edge e = edges.get(i);
+            addOverlayEdge(e.getSourceVertex().getIndex(), e.getTargetVertex().getIndex(),
+                    e.getData().getLength(), -1, -1, -1);
+        }
+    }
+
+    /**
+     * Preprocess a graph. Later changes to the graph are not seen by the hierarchy, which must
+     * then be built again.
+     *
+     * @param graph graph to build the hierarchy for
+     * @return hierarchy
+     */
+    public static ContractionHierarchy build(Graph<VertexData, EdgeData> graph) {
+        ContractionHierarchy hierarchy = new ContractionHierarchy(graph);
+        hierarchy.contract();
+        hierarchy.buildUpwardGraph();
+        return hierarchy;
+    }
+
+    /**
+     * Load an overlay saved by save() for a graph. The graph must have the same vertex names and
+     * the same edges with the same lengths as the graph the overlay was built for.
+     *
+     * @param graph    graph the overlay was built for
+     * @param filename name of file
+     * @return hierarchy
+     * @throws IOException if the file cannot be read or does not match the graph
+     */
+    public static ContractionHierarchy load(Graph<VertexData, EdgeData> graph, String filename) throws IOException {
+        ContractionHierarchy hierarchy = new ContractionHierarchy(graph);
+        int n = hierarchy.vertices.size();
+        int m = hierarchy.edges.size();
+
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(filename)))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException(filename + " is not a contraction hierarchy overlay");
+            }
+            if (in.readInt() != n) {
+                throw new IOException("Overlay does not match graph: vertex count differs");
+            }
+
+            HashMap<String, Integer> ids = new HashMap<>();
+            for (int i = 0; i < n; i++) {
+                ids.put(hierarchy.vertices.get(i).getData().getString(), i);
+            }
+            int[] savedToCurrent = new int[n];
+            boolean[] named = new boolean[n];
+            hierarchy.ranks = new int[n];
+            for (int i = 0; i < n; i++) {
+                Integer id = ids.get(in.readUTF());
+                if (id == null || named[id]) {
+                    throw new IOException("Overlay does not match graph: unknown vertex");
+                }
+                named[id] = true;
+                savedToCurrent[i] = id;
+            }
+            boolean[] ranked = new boolean[n];
+            for (int i = 0; i < n; i++) {
+                int rank = readId(in, n, "rank");
+                if (ranked[rank]) {
+                    throw new IOException("Corrupt overlay: rank " + rank + " repeated");
+                }
+                ranked[rank] = true;
+                hierarchy.ranks[savedToCurrent[i]] = rank;
+            }
+
+            if (in.readInt() != m) {
+                throw new IOException("Overlay does not match graph: edge count differs");
+            }
+            HashMap<Graph<VertexData, EdgeData>.Edge, Integer> edgeIds = new HashMap<>();
+            for (int i = 0; i < m; i++) {
+                edgeIds.put(hierarchy.edges.get(i), i);
+            }
+            int[] savedEdgeToCurrent = new int[m];
+            for (int i = 0; i < m; i++) {
+                Graph<VertexData, EdgeData>.Edge e = graph.getEdgeRef(hierarchy.vertices.get(savedToCurrent[readId(in, n, "vertex")]),
+                        hierarchy.vertices.get(savedToCurrent[readId(in, n, "vertex")]));
+                double weight = in.readDouble();
+                if (e == null || e.getData().getLength() != weight) {
+                    throw new IOException("Overlay does not match graph: edges differ");
+                }
+                savedEdgeToCurrent[i] = edgeIds.get(e);
+            }
+
+            int shortcuts = in.readInt();
+            for (int i = 0; i < shortcuts; i++) {
+                int from = savedToCurrent[readId(in, n, "vertex")];
+                int to = savedToCurrent[readId(in, n, "vertex")];
+                double weight = in.readDouble();
+                int middle = savedToCurrent[readId(in, n, "vertex")];
+                // the halves of a shortcut were added before it
+                int firstHalf = readId(in, m + i, "shortcut half");
+                int secondHalf = readId(in, m + i, "shortcut half");
+                firstHalf = firstHalf < m ? savedEdgeToCurrent[firstHalf] : firstHalf;
+                secondHalf = secondHalf < m ? savedEdgeToCurrent[secondHalf] : secondHalf;
+                if (!hierarchy.joins(firstHalf, from, middle) || !hierarchy.joins(secondHalf, middle, to)) {
+                    throw new IOException("Corrupt overlay: shortcut halves do not meet at its middle vertex");
+                }
+                hierarchy.addOverlayEdge(from, to, weight, middle, firstHalf, secondHalf);
+            }
+        }
+
+        hierarchy.buildUpwardGraph();
+        return hierarchy;
+    }
+
+    /**
+     * Read an id from a saved overlay and check that it is in range
+     *
+     * @param in    saved overlay
+     * @param limit number of ids
+     * @param what  kind of id, for the error message
+     * @return id, at least 0 and less than limit
+     * @throws IOException if the id cannot be read or is out of range
+     */
+    private static int readId(DataInputStream in, int limit, String what) throws IOException {
+        int id = in.readInt();
+        if (id < 0 || id >= limit) {
+            throw new IOException("Corrupt overlay: " + what + " " + id + " out of range");
+        }
+        return id;
+    }
+
+    /**
+     * Check if an overlay edge joins two vertices, in either direction
+     *
+     * @param e overlay edge id
+     * @param u one vertex id
+     * @param v other vertex id
+     * @return true if e joins u and v
+     */
+    private boolean joins(int e, int u, int v) {
+        return overlayFrom[e] == u && overlayTo[e] == v || overlayFrom[e] == v && overlayTo[e] == u;
+    }
+
+    /**
+     * Save the overlay so that it can be loaded for the same graph without preprocessing again
+     *
+     * @param filename name of file
+     * @throws IOException if the file cannot be written
+     */
+    public void save(String filename) throws IOException {
+        int m = edges.size();
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(filename)))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeInt(vertices.size());
+            for (Graph<VertexData, EdgeData>.Vertex v : vertices) {
+                out.writeUTF(v.getData().getString());
+            }
+            for (int rank : ranks) {
+                out.writeInt(rank);
+            }
+
+            out.writeInt(m);
+            for (int i = 0; i < m; i++) {
+                out.writeInt(overlayFrom[i]);
+                out.writeInt(overlayTo[i]);
+                out.writeDouble(overlayWeights[i]);
+            }
+
+            out.writeInt(overlaySize - m);
+            for (int i = m; i < overlaySize; i++) {
+                out.writeInt(overlayFrom[i]);
+                out.writeInt(overlayTo[i]);
+                out.writeDouble(overlayWeights[i]);
+                out.writeInt(overlayMiddles[i]);
+                out.writeInt(overlayFirstHalves[i]);
+                out.writeInt(overlaySecondHalves[i]);
+            }
+        }
+    }
+
+    /**
+     * Get the number of shortcuts added by preprocessing
+     *
+     * @return number of shortcuts
+     */
+    public int getShortcutCount() {
+        return overlaySize - edges.size();
+    }
+
+    /**
+     * Get the rank of a vertex
+     *
+     * @param vertex vertex of graph
+     * @return position of vertex in contraction order
+     */
+    public int getRank(Graph<VertexData, EdgeData>.Vertex vertex) {
+        return ranks[idOf(vertex)];
+    }
+
+    /**
+     * Find the shortest path between two vertices
+     *
+     * @param start start of path
+     * @param end   end of path
+     * @return cost and vertices of the path from start to end, with the number of vertices settled
+     */
+    public Graph<VertexData, EdgeData>.PathResult shortestPath(Graph<VertexData, EdgeData>.Vertex start,
+                                                               Graph<VertexData, EdgeData>.Vertex end) {
+        QueryWorkspace ws = workspaces.get();
+        double cost = search(idOf(start), idOf(end), ws);
+
+        ArrayList<Graph<VertexData, EdgeData>.Vertex> path = new ArrayList<>();
+        if (cost != Double.POSITIVE_INFINITY) {
+            int current = idOf(start);
+            path.add(start);
+            for (int i = 0; i < ws.pathSize; i++) {
+                current = otherEnd(ws.path[i], current);
+                path.add(vertices.get(current));
+            }
+        }
+        return graph.new PathResult(cost, path, ws.settledCount);
+    }
+
+    /**
+     * Find the edges of the shortest path between two vertices
+     *
+     * @param start start of path
+     * @param end   end of path
+     * @return edges of the graph from start to end, empty if there is no path
+     */
+    public ArrayList<Graph<VertexData, EdgeData>.Edge> shortestPathEdges(Graph<VertexData, EdgeData>.Vertex start,
+                                                                         Graph<VertexData, EdgeData>.Vertex end) {
+        QueryWorkspace ws = workspaces.get();
+        double cost = search(idOf(start), idOf(end), ws);
+
+        ArrayList<Graph<VertexData, EdgeData>.Edge> pathEdges = new ArrayList<>();
+        if (cost != Double.POSITIVE_INFINITY) {
+            for (int i = 0; i < ws.pathSize; i++) {
+                pathEdges.add(edges.get(ws.path[i]));
+            }
+        }
+        return pathEdges;
+    }
+
+    /**
+     * Get the id of a vertex
+     *
+     * @param vertex vertex of graph
+     * @return vertex id
+     */
+    private int idOf(Graph<VertexData, EdgeData>.Vertex vertex) {
+        int id = vertex.getIndex();
+        if (id < 0 || id >= vertices.size() || vertices.get(id) != vertex) {
+            throw new IllegalArgumentException("Vertex " + vertex + " is not in the hierarchy");
+        }
+        return id;
+    }
+
+    /**
+     * Get the endpoint of an overlay edge opposite to a vertex
+     *
+     * @param e overlay edge
+     * @param v one endpoint
+     * @return other endpoint
+     */
+    private int otherEnd(int e, int v) {
+        return overlayFrom[e] == v ? overlayTo[e] : overlayFrom[e];
+    }
+
+    /**
+     * Add an edge or shortcut to the overlay
+     *
+     * @param from       first endpoint
+     * @param to         second endpoint
+     * @param weight     weight
+     * @param middle     vertex a shortcut bypasses, -1 for an edge of the graph
+     * @param firstHalf  overlay edge between from and middle, -1 for an edge of the graph
+     * @param secondHalf overlay edge between middle and to, -1 for an edge of the graph
+     * @return overlay edge id
+     */
+    private int addOverlayEdge(int from, int to, double weight, int middle, int firstHalf, int secondHalf) {
+        if (overlaySize == overlayFrom.length) {
+            int capacity = overlaySize * 2;
+            overlayFrom = Arrays.copyOf(overlayFrom, capacity);
+            overlayTo = Arrays.copyOf(overlayTo, capacity);
+            overlayWeights = Arrays.copyOf(overlayWeights, capacity);
+            overlayMiddles = Arrays.copyOf(overlayMiddles, capacity);
+            overlayFirstHalves = Arrays.copyOf(overlayFirstHalves, capacity);
+            overlaySecondHalves = Arrays.copyOf(overlaySecondHalves, capacity);
+        }
+        overlayFrom[overlaySize] = from;
+        overlayTo[overlaySize] = to;
+        overlayWeights[overlaySize] = weight;
+        overlayMiddles[overlaySize] = middle;
+        overlayFirstHalves[overlaySize] = firstHalf;
+        overlaySecondHalves[overlaySize] = secondHalf;
+        return overlaySize++;
+    }
+
+
+    /**
+     * Contract every vertex and record the contraction order in ranks
+     */
+    private void contract() {
+        new Contraction().run();
+    }
+
+    /**
+     * Build the upward arcs of every vertex from the overlay
+     */
+    private void buildUpwardGraph() {
+        int n = vertices.size();
+        upOffsets = new int[n + 1];
+        for (int e = 0; e < overlaySize; e++) {
+            upOffsets[lower(e) + 1]++;
+        }
+        for (int i = 0; i < n; i++) {
+            upOffsets[i + 1] += upOffsets[i];
+        }
+
+        int[] next = Arrays.copyOf(upOffsets, n);
+        upTargets = new int[overlaySize];
+        upWeights = new double[overlaySize];
+        upEdges = new int[overlaySize];
+        for (int e = 0; e < overlaySize; e++) {
+            int arc = next[lower(e)]++;
+            upTargets[arc] = otherEnd(e, lower(e));
+            upWeights[arc] = overlayWeights[e];
+            upEdges[arc] = e;
+        }
+    }
+
+    /**
+     * Get the lower-ranked endpoint of an overlay edge
+     *
+     * @param e overlay edge
+     * @return vertex id
+     */
+    private int lower(int e) {
+        return ranks[overlayFrom[e]] < ranks[overlayTo[e]] ? overlayFrom[e] : overlayTo[e];
+    }
+
+    /**
+     * Bidirectional upward search. The unpacked path is left in ws.path as edge ids of the graph.
+     *
+     * @param start start vertex id
+     * @param end   end vertex id
+     * @param ws    search state of this thread
+     * @return cost of the shortest path, positive infinity if there is none
+     */
+    private double search(int start, int end, QueryWorkspace ws) {
+        ws.reset();
+        ws.reach(ws.forwardCosts, ws.forwardParents, ws.forwardHeap, start, 0, -1);
+        ws.reach(ws.backwardCosts, ws.backwardParents, ws.backwardHeap, end, 0, -1);
+
+        double bestCost = Double.POSITIVE_INFINITY;
+        int meeting = -1;
+
+        while (Math.min(ws.forwardHeap.minKey(), ws.backwardHeap.minKey()) < bestCost) {
+            boolean forward = ws.forwardHeap.minKey() <= ws.backwardHeap.minKey();
+            IndexedMinHeap heap = forward ? ws.forwardHeap : ws.backwardHeap;
+            double[] costs = forward ? ws.forwardCosts : ws.backwardCosts;
+            double[] otherCosts = forward ? ws.backwardCosts : ws.forwardCosts;
+            int[] parents = forward ? ws.forwardParents : ws.backwardParents;
+
+            int u = heap.pollMin();
+            ws.settledCount++;
+            if (costs[u] + otherCosts[u] < bestCost) {
+                bestCost = costs[u] + otherCosts[u];
+                meeting = u;
+            }
+
+            for (int arc = upOffsets[u]; arc < upOffsets[u + 1]; arc++) {
+                int v = upTargets[arc];
+                double alt = costs[u] + upWeights[arc];
+                if (alt < costs[v]) {
+                    ws.reach(costs, parents, heap, v, alt, upEdges[arc]);
+                }
+            }
+        }
+
+        if (meeting >= 0) {
+            unpackPath(start, end, meeting, ws);
+        }
+        return bestCost;
+    }
+
+    /**
+     * Unpack the overlay path through the meeting vertex into edges of the graph from start to end
+     *
+     * @param start   start vertex id
+     * @param end     end vertex id
+     * @param meeting vertex where the searches met
+     * @param ws      search state of this thread
+     */
+    private void unpackPath(int start, int end, int meeting, QueryWorkspace ws) {
+        //overlay edges from start up to meeting, collected backwards and then reversed
+        int count = 0;
+        for (int v = meeting; v != start; v = otherEnd(ws.forwardParents[v], v)) {
+            ws.overlayPath = ensureCapacity(ws.overlayPath, count + 1);
+            ws.overlayPath[count++] = ws.forwardParents[v];
+        }
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int swap = ws.overlayPath[i];
+            ws.overlayPath[i] = ws.overlayPath[j];
+            ws.overlayPath[j] = swap;
+        }
+        for (int v = meeting; v != end; v = otherEnd(ws.backwardParents[v], v)) {
+            ws.overlayPath = ensureCapacity(ws.overlayPath, count + 1);
+            ws.overlayPath[count++] = ws.backwardParents[v];
+        }
+
+        int current = start;
+        for (int i = 0; i < count; i++) {
+            current = unpack(ws.overlayPath[i], current, ws);
+        }
+    }
+
+    /**
+     * Append the edges of the graph that an overlay edge stands for to ws.path
+     *
+     * @param e    overlay edge
+     * @param from endpoint the path enters the overlay edge at
+     * @param ws   search state of this thread
+     * @return endpoint the path leaves the overlay edge at
+     */
+    private int unpack(int e, int from, QueryWorkspace ws) {
+        int top = 0;
+        ws.unpackStack = ensureCapacity(ws.unpackStack, 2);
+        ws.unpackStack[top++] = e;
+        ws.unpackStack[top++] = from;
+
+        while (top > 0) {
+            int v = ws.unpackStack[--top];
+            int edge = ws.unpackStack[--top];
+            if (overlayMiddles[edge] < 0) {
+                ws.path = ensureCapacity(ws.path, ws.pathSize + 1);
+                ws.path[ws.pathSize++] = edge;
+                continue;
+            }
+            int first = v == overlayFrom[edge] ? overlayFirstHalves[edge] : overlaySecondHalves[edge];
+            int second = v == overlayFrom[edge] ? overlaySecondHalves[edge] : overlayFirstHalves[edge];
+            ws.unpackStack = ensureCapacity(ws.unpackStack, top + 4);
+            ws.unpackStack[top++] = second;
+            ws.unpackStack[top++] = overlayMiddles[edge];
+            ws.unpackStack[top++] = first;
+            ws.unpackStack[top++] = v;
+        }
+        return otherEnd(e, from);
+    }
+
+    /**
+     * Grow an array so that it holds at least a given number of elements
+     *
+     * @param array    array to grow
+     * @param capacity needed length
+     * @return array, or a larger copy of it
+     */
+    private static int[] ensureCapacity(int[] array, int capacity) {
+        return array.length >= capacity ? array : Arrays.copyOf(array, Math.max(capacity, array.length * 2));
+    }
+
+
+    /**
+     * State of a query on one thread. Costs are reset only for the vertices the last query reached.
+     */
+    private class QueryWorkspace {
+
+        /**
+         * Costs from the start
+         */
+        private final double[] forwardCosts;
+
+        /**
+         * Costs from the end
+         */
+        private final double[] backwardCosts;
+
+        /**
+         * Overlay edge leading to each vertex in the forward search
+         */
+        private final int[] forwardParents;
+
+        /**
+         * Overlay edge leading to each vertex in the backward search
+         */
+        private final int[] backwardParents;
+
+        /**
+         * Queue of the forward search
+         */
+        private final IndexedMinHeap forwardHeap;
+
+        /**
+         * Queue of the backward search
+         */
+        private final IndexedMinHeap backwardHeap;
+
+        /**
+         * Vertices reached by the last query
+         */
+        private int[] touched = new int[64];
+
+        /**
+         * Number of vertices reached by the last query
+         */
+        private int touchedCount;
+
+        /**
+         * Unpacked path as edge ids of the graph
+         */
+        private int[] path = new int[64];
+
+        /**
+         * Length of unpacked path
+         */
+        private int pathSize;
+
+        /**
+         * Overlay edges of the path before unpacking
+         */
+        private int[] overlayPath = new int[64];
+
+        /**
+         * Pairs of overlay edge and entry vertex still to unpack
+         */
+        private int[] unpackStack = new int[64];
+
+        /**
+         * Number of vertices settled by the last query
+         */
+        private int settledCount;
+
+        /**
+         * Constructor for QueryWorkspace
+         */
+        private QueryWorkspace() {
+            int n = vertices.size();
+            forwardCosts = new double[n];
+            backwardCosts = new double[n];
+            forwardParents = new int[n];
+            backwardParents = new int[n];
+            forwardHeap = new IndexedMinHeap(n);
+            backwardHeap = new IndexedMinHeap(n);
+            Arrays.fill(forwardCosts, Double.POSITIVE_INFINITY);
+            Arrays.fill(backwardCosts, Double.POSITIVE_INFINITY);
+        }
+
+        /**
+         * Forget the last query
+         */
+        private void reset() {
+            for (int i = 0; i < touchedCount; i++) {
+                forwardCosts[touched[i]] = Double.POSITIVE_INFINITY;
+                backwardCosts[touched[i]] = Double.POSITIVE_INFINITY;
+            }
+            touchedCount = 0;
+            pathSize = 0;
+            settledCount = 0;
+            forwardHeap.clear();
+            backwardHeap.clear();
+        }
+
+        /**
+         * Give a vertex a new cost in one direction and queue it
+         *
+         * @param costs   costs of the direction
+         * @param parents overlay edge leading to each vertex in the direction
+         * @param heap    queue of the direction
+         * @param v       vertex id
+         * @param cost    new cost
+         * @param parent  overlay edge leading to v, -1 for the start of the direction
+         */
+        private void reach(double[] costs, int[] parents, IndexedMinHeap heap, int v, double cost, int parent) {
+            if (forwardCosts[v] == Double.POSITIVE_INFINITY && backwardCosts[v] == Double.POSITIVE_INFINITY) {
+                touched = ensureCapacity(touched, touchedCount + 1);
+                touched[touchedCount++] = v;
+            }
+            costs[v] = cost;
+            parents[v] = parent;
+            heap.insertOrDecrease(v, cost);
+        }
+    }
+
+
+    /**
+     * State of preprocessing
+     */
+    private class Contraction {
+
+        /**
+         * Overlay edges at each vertex
+         */
+        private int[][] incident;
+
+        /**
+         * Number of overlay edges at each vertex
+         */
+        private int[] incidentCount;
+
+        /**
+         * Whether each vertex has been contracted
+         */
+        private boolean[] contracted;
+
+        /**
+         * Number of contracted neighbors of each vertex
+         */
+        private int[] contractedNeighbors;
+
+        /**
+         * Vertices ordered by contraction priority
+         */
+        private IndexedMinHeap order;
+
+        /**
+         * Costs of the witness search
+         */
+        private double[] witnessCosts;
+
+        /**
+         * Vertices reached by the witness search
+         */
+        private int[] witnessTouched;
+
+        /**
+         * Number of vertices reached by the witness search
+         */
+        private int witnessTouchedCount;
+
+        /**
+         * Queue of the witness search
+         */
+        private IndexedMinHeap witnessHeap;
+
+        /**
+         * Cheapest overlay edge to each remaining neighbor of the vertex being contracted
+         */
+        private int[] neighborEdges;
+
+        /**
+         * Remaining neighbors of the vertex being contracted
+         */
+        private int[] neighbors;
+
+        /**
+         * Number of remaining neighbors found by the last call to contractVertex
+         */
+        private int neighborCount;
+
+        /**
+         * Constructor for Contraction
+         */
+        private Contraction() {
+            int n = vertices.size();
+            incident = new int[n][];
+            incidentCount = new int[n];
+            for (int v = 0; v < n; v++) {
+                incident[v] = new int[Math.max(4, vertices.get(v).degree())];
+            }
+            for (int e = 0; e < overlaySize; e++) {
+                addIncident(overlayFrom[e], e);
+                addIncident(overlayTo[e], e);
+            }
+            contracted = new boolean[n];
+            contractedNeighbors = new int[n];
+            order = new IndexedMinHeap(n);
+            witnessCosts = new double[n];
+            Arrays.fill(witnessCosts, Double.POSITIVE_INFINITY);
+            witnessTouched = new int[64];
+            witnessHeap = new IndexedMinHeap(n);
+            neighborEdges = new int[n];
+            Arrays.fill(neighborEdges, -1);
+            neighbors = new int[64];
+            ranks = new int[n];
+        }
+
+        /**
+         * Contract every vertex
+         */
+        private void run() {
+            int n = vertices.size();
+            for (int v = 0; v < n; v++) {
+                order.insertOrDecrease(v, priority(v));
+            }
+
+            int rank = 0;
+            while (!order.isEmpty()) {
+                int v = order.pollMin();
+                double priority = priority(v);
+                if (priority > order.minKey()) {
+                    order.insertOrDecrease(v, priority); //lazy update, another vertex is now cheaper
+                    continue;
+                }
+
+                contractVertex(v, true);
+                contracted[v] = true;
+                ranks[v] = rank++;
+                for (int i = 0; i < neighborCount; i++) {
+                    contractedNeighbors[neighbors[i]]++; //their priorities are refreshed lazily
+                }
+            }
+        }
+
+        /**
+         * Priority of a vertex, lower is contracted first
+         *
+         * @param v vertex id
+         * @return edge difference plus contracted neighbors
+         */
+        private double priority(int v) {
+            int shortcuts = contractVertex(v, false);
+            return shortcuts - neighborCount + contractedNeighbors[v];
+        }
+
+        /**
+         * Add the shortcuts needed to contract a vertex, or only count them. The remaining
+         * neighbors of the vertex are left in neighbors and neighborCount.
+         *
+         * @param v     vertex id
+         * @param apply true to add the shortcuts
+         * @return number of shortcuts needed
+         */
+        private int contractVertex(int v, boolean apply) {
+            neighborCount = collectNeighbors(v);
+            int shortcuts = 0;
+
+            for (int i = 0; i < neighborCount; i++) {
+                int u = neighbors[i];
+                double toU = overlayWeights[neighborEdges[u]];
+                double limit = 0;
+                for (int j = i + 1; j < neighborCount; j++) {
+                    limit = Math.max(limit, toU + overlayWeights[neighborEdges[neighbors[j]]]);
+                }
+                if (i + 1 == neighborCount) {
+                    break;
+                }
+
+                witnessSearch(u, v, limit, apply ? WITNESS_SETTLE_LIMIT : ESTIMATE_SETTLE_LIMIT);
+                for (int j = i + 1; j < neighborCount; j++) {
+                    int w = neighbors[j];
+                    double via = toU + overlayWeights[neighborEdges[w]];
+                    if (witnessCosts[w] > via) {
+                        shortcuts++;
+                        if (apply) {
+                            int e = addOverlayEdge(u, w, via, v, neighborEdges[u], neighborEdges[w]);
+                            addIncident(u, e);
+                            addIncident(w, e);
+                        }
+                    }
+                }
+            }
+
+            for (int i = 0; i < neighborCount; i++) {
+                neighborEdges[neighbors[i]] = -1;
+            }
+            return shortcuts;
+        }
+
+        /**
+         * Put the remaining neighbors of a vertex in neighbors and the cheapest overlay edge
+         * to each of them in neighborEdges. Edges to contracted vertices and edges that are not
+         * the cheapest to their neighbor are dropped from the vertex's incident edges, since
+         * no later witness search or contraction can use them.
+         *
+         * @param v vertex id
+         * @return number of remaining neighbors
+         */
+        private int collectNeighbors(int v) {
+            int count = 0;
+            for (int i = 0; i < incidentCount[v]; i++) {
+                int e = incident[v][i];
+                int u = otherEnd(e, v);
+                if (contracted[u]) {
+                    continue;
+                }
+                if (neighborEdges[u] < 0) {
+                    neighbors = ensureCapacity(neighbors, count + 1);
+                    neighbors[count++] = u;
+                    neighborEdges[u] = e;
+                } else if (overlayWeights[e] < overlayWeights[neighborEdges[u]]) {
+                    neighborEdges[u] = e;
+                }
+            }
+
+            for (int i = 0; i < count; i++) {
+                incident[v][i] = neighborEdges[neighbors[i]];
+            }
+            incidentCount[v] = count;
+            return count;
+        }
+
+        /**
+         * Dijkstra's algorithm from a vertex over the remaining vertices except one, stopping
+         * once costs exceed a limit or enough vertices are settled
+         *
+         * @param start      start vertex id
+         * @param excluded   vertex being contracted
+         * @param limit      largest cost of interest
+         * @param maxSettled number of vertices to settle before giving up
+         */
+        private void witnessSearch(int start, int excluded, double limit, int maxSettled) {
+            for (int i = 0; i < witnessTouchedCount; i++) {
+                witnessCosts[witnessTouched[i]] = Double.POSITIVE_INFINITY;
+            }
+            witnessTouchedCount = 0;
+            witnessHeap.clear();
+
+            reachWitness(start, 0);
+            int settled = 0;
+            while (!witnessHeap.isEmpty() && witnessHeap.minKey() <= limit && settled < maxSettled) {
+                int u = witnessHeap.pollMin();
+                settled++;
+                for (int i = 0; i < incidentCount[u]; i++) {
+                    int e = incident[u][i];
+                    int w = otherEnd(e, u);
+                    if (contracted[w] || w == excluded) {
+                        continue;
+                    }
+                    double alt = witnessCosts[u] + overlayWeights[e];
+                    if (alt < witnessCosts[w]) {
+                        reachWitness(w, alt);
+                    }
+                }
+            }
+        }
+
+        /**
+         * Give a vertex a new cost in the witness search and queue it
+         *
+         * @param v    vertex id
+         * @param cost new cost
+         */
+        private void reachWitness(int v, double cost) {
+            if (witnessCosts[v] == Double.POSITIVE_INFINITY) {
+                witnessTouched = ensureCapacity(witnessTouched, witnessTouchedCount + 1);
+                witnessTouched[witnessTouchedCount++] = v;
+            }
+            witnessCosts[v] = cost;
+            witnessHeap.insertOrDecrease(v, cost);
+        }
+
+        /**
+         * Record an overlay edge at a vertex
+         *
+         * @param v vertex id
+         * @param e overlay edge
+         */
+        private void addIncident(int v, int e) {
+            incident[v] = ensureCapacity(incident[v], incidentCount[v] + 1);
+            incident[v][incidentCount[v]++] = e;
+        }
+    }
+}
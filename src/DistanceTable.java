@@ -0,0 +1,326 @@
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.channels.FileChannel;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Table of shortest path costs from a set of source vertices to a set of target vertices of a
+ * FrozenGraph, computed with one Dijkstra search per source spread over a thread pool.
+ * <p>
+ * Costs are stored row by row in one flat array of doubles, a row per source and a column per
+ * target. A table larger than the heap limit it is computed with is written to a memory-mapped
+ * file instead, so that only the pages in use take memory.
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class DistanceTable implements Closeable {
+
+    /**
+     * Number of doubles in each mapped segment of a spilled table, 1 GiB per segment
+     */
+    private static final int SEGMENT_SIZE = 1 << 27;
+
+    /**
+     * Number of sources each task searches from before taking more
+     */
+    private static final int SOURCES_PER_TASK = 16;
+
+    /**
+     * Vertex id of each row
+     */
+    private final int[] sources;
+
+    /**
+     * Vertex id of each column
+     */
+    private final int[] targets;
+
+    /**
+     * Row of each vertex id, -1 if not a source
+     */
+    private final int[] rows;
+
+    /**
+     * Column of each vertex id, -1 if not a target
+     */
+    private final int[] columns;
+
+    /**
+     * Costs when kept on the heap, else null
+     */
+    private double[] values;
+
+    /**
+     * Costs when spilled to a file, else null
+     */
+    private DoubleBuffer[] segments;
+
+    /**
+     * File holding a spilled table
+     */
+    private RandomAccessFile file;
+
+
+    /**
+     * Constructor
+     *
+     * @param vertexCount number of vertices of the graph
+     * @param sources     vertex id of each row
+     * @param targets     vertex id of each column
+     */
+    private DistanceTable(int vertexCount, int[] sources, int[] targets) {
+        this.sources = sources.clone();
+        this.targets = targets.clone();
+        rows = new int[vertexCount];
+        columns = new int[vertexCount];
+        Arrays.fill(rows, -1);
+        Arrays.fill(columns, -1);
+        for (int i = 0; i < sources.length; i++) {
+            rows[sources[i]] = i;
+        }
+        for (int i = 0; i < targets.length; i++) {
+            columns[targets[i]] = i;
+        }
+    }
+
+    /**
+     * Compute the costs between every pair of vertices
+     *
+     * @param graph        graph to search
+     * @param threads      number of threads to search with
+     * @param maxHeapBytes largest table to keep on the heap
+     * @param spillFile    file for a larger table, or null for a temporary file
+     * @return table
+     * @throws IOException if a spilled table cannot be written
+     */
+    public static DistanceTable allPairs(FrozenGraph<?, ?> graph, int threads, long maxHeapBytes, File spillFile)
+            throws IOException {
+        int[] ids = new int[graph.numVertex()];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i;
+        }
+        return compute(graph, ids, ids, threads, maxHeapBytes, spillFile);
+    }
+
+    /**
+     * Compute the costs from each source to each target
+     *
+     * @param graph        graph to search
+     * @param sources      vertex ids of the rows
+     * @param targets      vertex ids of the columns
+     * @param threads      number of threads to search with
+     * @param maxHeapBytes largest table to keep on the heap
+     * @param spillFile    file for a larger table, or null for a temporary file
+     * @return table
+     * @throws IOException if a spilled table cannot be written
+     */
+    public static DistanceTable compute(FrozenGraph<?, ?> graph, int[] sources, int[] targets, int threads,
+                                        long maxHeapBytes, File spillFile) throws IOException {
+        DistanceTable table = new DistanceTable(graph.numVertex(), sources, targets);
+        long size = (long) sources.length * targets.length;
+        if (size * 8 <= maxHeapBytes && size <= Integer.MAX_VALUE - 8) {
+            table.values = new double[(int) size];
+        } else {
+            table.spill(size, spillFile);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        try {
+            ArrayList<Future<Void>> results = new ArrayList<>();
+            for (int from = 0; from < sources.length; from += SOURCES_PER_TASK) {
+                results.add(pool.submit(table.new RowTask(graph, from, Math.min(from + SOURCES_PER_TASK, sources.length))));
+            }
+            for (Future<Void> result : results) {
+                result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            table.close();
+            throw new IOException("Interrupted while computing distance table", e);
+        } catch (ExecutionException e) {
+            table.close();
+            throw new IllegalStateException("Distance table search failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+        }
+        return table;
+    }
+
+    /**
+     * Map the table to a file
+     *
+     * @param size      number of costs
+     * @param spillFile file, or null for a temporary file
+     * @throws IOException if the file cannot be mapped
+     */
+    private void spill(long size, File spillFile) throws IOException {
+        File target = spillFile;
+        if (target == null) {
+            target = File.createTempFile("distances", ".bin");
+            target.deleteOnExit();
+        }
+        file = new RandomAccessFile(target, "rw");
+        file.setLength(size * 8);
+
+        FileChannel channel = file.getChannel();
+        segments = new DoubleBuffer[(int) ((size + SEGMENT_SIZE - 1) / SEGMENT_SIZE)];
+        for (int i = 0; i < segments.length; i++) {
+            long start = (long) i * SEGMENT_SIZE;
+            long length = Math.min(SEGMENT_SIZE, size - start);
+            segments[i] = channel.map(FileChannel.MapMode.READ_WRITE, start * 8, length * 8)
+                    .order(ByteOrder.nativeOrder()).asDoubleBuffer();
+        }
+    }
+
+    /**
+     * Get the number of rows
+     *
+     * @return number of sources
+     */
+    public int numSources() {
+        return sources.length;
+    }
+
+    /**
+     * Get the number of columns
+     *
+     * @return number of targets
+     */
+    public int numTargets() {
+        return targets.length;
+    }
+
+    /**
+     * Check if the table was spilled to a file
+     *
+     * @return true if memory-mapped
+     */
+    public boolean isSpilled() {
+        return segments != null;
+    }
+
+    /**
+     * Get the cost at a row and column
+     *
+     * @param row    row of source
+     * @param column column of target
+     * @return cost, positive infinity if the target cannot be reached
+     */
+    public double get(int row, int column) {
+        long i = (long) row * targets.length + column;
+        if (values != null) {
+            return values[(int) i];
+        }
+        return segments[(int) (i / SEGMENT_SIZE)].get((int) (i % SEGMENT_SIZE));
+    }
+
+    /**
+     * Get the cost between two vertices
+     *
+     * @param source vertex id of a source
+     * @param target vertex id of a target
+     * @return cost, positive infinity if the target cannot be reached
+     */
+    public double getCost(int source, int target) {
+        if (rows[source] < 0 || columns[target] < 0) {
+            throw new IllegalArgumentException("Vertex " + source + " or " + target + " is not in the table");
+        }
+        return get(rows[source], columns[target]);
+    }
+
+    /**
+     * Store a cost
+     *
+     * @param i    position in table
+     * @param cost cost
+     */
+    private void set(long i, double cost) {
+        if (values != null) {
+            values[(int) i] = cost;
+        } else {
+            segments[(int) (i / SEGMENT_SIZE)].put((int) (i % SEGMENT_SIZE), cost);
+        }
+    }
+
+    /**
+     * Release the file of a spilled table
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        segments = null;
+        if (file != null) {
+            file.close();
+            file = null;
+        }
+    }
+
+
+    /**
+     * Fills the rows of a range of sources, reusing one set of search arrays
+     */
+    private class RowTask implements Callable<Void> {
+
+        /**
+         * Graph to search
+         */
+        private final FrozenGraph<?, ?> graph;
+
+        /**
+         * First row of this task
+         */
+        private final int from;
+
+        /**
+         * Row after the last one of this task
+         */
+        private final int to;
+
+        /**
+         * Constructor for RowTask
+         *
+         * @param graph graph to search
+         * @param from  first row
+         * @param to    row after the last one
+         */
+        private RowTask(FrozenGraph<?, ?> graph, int from, int to) {
+            this.graph = graph;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Search from each source of the range and store the costs of the targets
+         *
+         * @return nothing
+         */
+        @Override
+        public Void call() {
+            int n = graph.numVertex();
+            double[] dist = new double[n];
+            int[] parentEdges = new int[n];
+            IndexedMinHeap heap = new IndexedMinHeap(n);
+
+            for (int row = from; row < to; row++) {
+                graph.doDijkstra(sources[row], -1, dist, parentEdges, heap);
+                long start = (long) row * targets.length;
+                for (int column = 0; column < targets.length; column++) {
+                    set(start + column, dist[targets[column]]);
+                }
+            }
+            return null;
+        }
+    }
+}
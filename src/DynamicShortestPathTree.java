@@ -0,0 +1,367 @@
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.HashSet;
+
+/**
+ * Shortest path tree from one source that is repaired, rather than recomputed, when the weight
+ * of an edge changes, in the manner of Ramalingam and Reps. The tree is kept as the cost and
+ * homeward vertex of every vertex, as returned by Graph.doDijkstra.
+ * <p>
+ * When an edge gets cheaper, Dijkstra's algorithm is run from the endpoint whose cost drops,
+ * visiting only vertices whose cost drops too. When a tree edge gets dearer, the costs of the
+ * subtree below it are thrown away and found again from the rest of the tree, visiting only the
+ * subtree. Dearer edges outside the tree change nothing.
+ * <p>
+ * As a GraphListener the tree repairs itself whenever Edge.dataChanged() is called and collects
+ * the vertices changed for takeChangedVertices(). Adding or removing vertices or edges marks the
+ * tree stale, and it is rebuilt from scratch when it is next used.
+ *
+ * @param <V> data in Vertices
+ * @param <E> data in Edges
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class DynamicShortestPathTree<V, E> implements GraphListener<V, E> {
+
+    /**
+     * Graph the tree spans
+     */
+    private final Graph<V, E> graph;
+
+    /**
+     * Root of the tree
+     */
+    private final Graph<V, E>.Vertex source;
+
+    /**
+     * Cost and homeward vertex of each vertex
+     */
+    private HashMap<Graph<V, E>.Vertex, Graph<V, E>.CostHomePair> tree;
+
+    /**
+     * Whether vertices or edges were added or removed since the tree was built
+     */
+    private boolean stale;
+
+    /**
+     * Vertices changed by repairs made as a listener, not yet taken
+     */
+    private HashSet<Graph<V, E>.Vertex> changedVertices;
+
+    /**
+     * Heap reused by repairs, indexed by vertex index
+     */
+    private IndexedMinHeap heap;
+
+
+    /**
+     * Constructor, which builds the tree. Call graph.addGraphListener(tree) to have it
+     * repaired as the graph changes.
+     *
+     * @param graph  graph to span
+     * @param source root of the tree
+     */
+    public DynamicShortestPathTree(Graph<V, E> graph, Graph<V, E>.Vertex source) {
+        this.graph = graph;
+        this.source = source;
+        this.changedVertices = new HashSet<>();
+        rebuild();
+    }
+
+    /**
+     * Constructor that takes the tree found by a search on a snapshot of the graph instead of
+     * searching again. The snapshot must have the same vertices, edges and weights as the graph
+     * has now. Call graph.addGraphListener(tree) to have it repaired as the graph changes.
+     *
+     * @param graph       graph to span
+     * @param source      root of the tree
+     * @param snapshot    snapshot searched
+     * @param dist        cost of each vertex id, as filled by FrozenGraph.doDijkstra
+     * @param parentEdges edge id leading home from each vertex id, as filled by FrozenGraph.doDijkstra
+     */
+    public DynamicShortestPathTree(Graph<V, E> graph, Graph<V, E>.Vertex source, FrozenGraph<V, E> snapshot,
+                                   double[] dist, int[] parentEdges) {
+        this.graph = graph;
+        this.source = source;
+        this.changedVertices = new HashSet<>();
+        this.tree = new HashMap<>();
+        for (int v = 0; v < snapshot.numVertex(); v++) {
+            Graph<V, E>.Vertex home = null;
+            if (parentEdges[v] >= 0) {
+                home = snapshot.getVertex(snapshot.oppositeTo(parentEdges[v], v));
+            } else if (snapshot.getVertex(v) == source) {
+                home = source;
+            }
+            tree.put(snapshot.getVertex(v), graph.new CostHomePair(dist[v], home));
+        }
+    }
+
+    /**
+     * Get the root of the tree
+     *
+     * @return source vertex
+     */
+    public Graph<V, E>.Vertex getSource() {
+        return source;
+    }
+
+    /**
+     * Get the cost of the shortest path from the source to a vertex
+     *
+     * @param vertex vertex in graph
+     * @return cost, positive infinity if unreachable
+     */
+    public double getCost(Graph<V, E>.Vertex vertex) {
+        Graph<V, E>.CostHomePair pair = getTree().get(vertex);
+        return pair == null ? Double.POSITIVE_INFINITY : pair.getCost();
+    }
+
+    /**
+     * Get the next vertex on the shortest path from a vertex back to the source
+     *
+     * @param vertex vertex in graph
+     * @return homeward vertex, the source itself for the source, null if unreachable
+     */
+    public Graph<V, E>.Vertex getHome(Graph<V, E>.Vertex vertex) {
+        Graph<V, E>.CostHomePair pair = getTree().get(vertex);
+        return pair == null ? null : pair.getHome();
+    }
+
+    /**
+     * Get the cost and homeward vertex of each vertex, in the form returned by Graph.doDijkstra.
+     * The map is updated in place by repairs and must not be changed.
+     *
+     * @return cost and home of each vertex
+     */
+    public HashMap<Graph<V, E>.Vertex, Graph<V, E>.CostHomePair> getTree() {
+        if (stale) {
+            rebuild();
+        }
+        return tree;
+    }
+
+    /**
+     * Check if vertices or edges were added or removed since the tree was built, so that it
+     * will be built again from scratch when next used
+     *
+     * @return true if stale
+     */
+    public boolean isStale() {
+        return stale;
+    }
+
+    /**
+     * Get and forget the vertices changed by repairs made as a listener
+     *
+     * @return changed vertices
+     */
+    public HashSet<Graph<V, E>.Vertex> takeChangedVertices() {
+        HashSet<Graph<V, E>.Vertex> taken = changedVertices;
+        changedVertices = new HashSet<>();
+        return taken;
+    }
+
+    /**
+     * Repair the tree after the weight of an edge changed. Calling it again for the same
+     * change finds nothing to repair.
+     *
+     * @param edge edge whose weight changed
+     * @return vertices whose cost or homeward vertex changed
+     */
+    public HashSet<Graph<V, E>.Vertex> update(Graph<V, E>.Edge edge) {
+        HashSet<Graph<V, E>.Vertex> changed = new HashSet<>();
+        if (stale) {
+            rebuild();
+            return changed;
+        }
+
+        Graph<V, E>.Vertex a = edge.getSourceVertex();
+        Graph<V, E>.Vertex b = edge.getTargetVertex();
+        double weight = edge.getNumData();
+        Graph<V, E>.CostHomePair pairA = tree.get(a);
+        Graph<V, E>.CostHomePair pairB = tree.get(b);
+        if (pairA == null || pairB == null) {
+            return changed;
+        }
+
+        if (pairB.getHome() == a && b != source && pairA.getCost() + weight > pairB.getCost()) {
+            repairIncrease(b, changed);
+        } else if (pairA.getHome() == b && a != source && pairB.getCost() + weight > pairA.getCost()) {
+            repairIncrease(a, changed);
+        } else if (pairA.getCost() + weight < pairB.getCost()) {
+            pairB.setCostHome(pairA.getCost() + weight, a);
+            repairDecrease(b, changed);
+        } else if (pairB.getCost() + weight < pairA.getCost()) {
+            pairA.setCostHome(pairB.getCost() + weight, b);
+            repairDecrease(a, changed);
+        }
+        return changed;
+    }
+
+    /**
+     * Spread a lower cost from a vertex to every vertex it now gives a cheaper path
+     *
+     * @param start   vertex whose cost was lowered
+     * @param changed collects the vertices changed
+     */
+    private void repairDecrease(Graph<V, E>.Vertex start, HashSet<Graph<V, E>.Vertex> changed) {
+        IndexedMinHeap queue = heap();
+        queue.insertOrDecrease(start.getIndex(), tree.get(start).getCost());
+
+        while (!queue.isEmpty()) {
+            Graph<V, E>.Vertex u = graph.getVertex(queue.pollMin());
+            changed.add(u);
+            double uCost = tree.get(u).getCost();
+            for (int i = 0; i < u.degree(); i++) {
+                Graph<V, E>.Vertex v = u.getNeighbor(i);
+                double alt = uCost + u.getEdge(i).getNumData();
+                Graph<V, E>.CostHomePair pair = tree.get(v);
+                if (alt < pair.getCost()) {
+                    pair.setCostHome(alt, u);
+                    queue.insertOrDecrease(v.getIndex(), alt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Find new paths for the subtree below a vertex whose tree edge got dearer
+     *
+     * @param root    vertex whose tree edge got dearer
+     * @param changed collects the vertices changed
+     */
+    private void repairIncrease(Graph<V, E>.Vertex root, HashSet<Graph<V, E>.Vertex> changed) {
+        HashMap<Graph<V, E>.Vertex, Graph<V, E>.CostHomePair> before = new HashMap<>();
+        ArrayDeque<Graph<V, E>.Vertex> queue = new ArrayDeque<>();
+        queue.add(root);
+        before.put(root, graph.new CostHomePair(tree.get(root).getCost(), tree.get(root).getHome()));
+        while (!queue.isEmpty()) {
+            Graph<V, E>.Vertex u = queue.poll();
+            for (int i = 0; i < u.degree(); i++) {
+                Graph<V, E>.Vertex v = u.getNeighbor(i);
+                Graph<V, E>.CostHomePair pair = tree.get(v);
+                if (pair.getHome() == u && !before.containsKey(v)) {
+                    before.put(v, graph.new CostHomePair(pair.getCost(), u));
+                    queue.add(v);
+                }
+            }
+        }
+
+        IndexedMinHeap frontier = heap();
+        for (Graph<V, E>.Vertex u : before.keySet()) {
+            tree.get(u).setCostHome(Double.POSITIVE_INFINITY, null);
+        }
+        for (Graph<V, E>.Vertex u : before.keySet()) {
+            Graph<V, E>.CostHomePair pair = tree.get(u);
+            for (int i = 0; i < u.degree(); i++) {
+                Graph<V, E>.Vertex v = u.getNeighbor(i);
+                if (!before.containsKey(v)) {
+                    double alt = tree.get(v).getCost() + u.getEdge(i).getNumData();
+                    if (alt < pair.getCost()) {
+                        pair.setCostHome(alt, v);
+                    }
+                }
+            }
+            if (pair.getCost() != Double.POSITIVE_INFINITY) {
+                frontier.insertOrDecrease(u.getIndex(), pair.getCost());
+            }
+        }
+
+        while (!frontier.isEmpty()) {
+            Graph<V, E>.Vertex u = graph.getVertex(frontier.pollMin());
+            double uCost = tree.get(u).getCost();
+            for (int i = 0; i < u.degree(); i++) {
+                Graph<V, E>.Vertex v = u.getNeighbor(i);
+                if (before.containsKey(v)) {
+                    double alt = uCost + u.getEdge(i).getNumData();
+                    Graph<V, E>.CostHomePair pair = tree.get(v);
+                    if (alt < pair.getCost()) {
+                        pair.setCostHome(alt, u);
+                        frontier.insertOrDecrease(v.getIndex(), alt);
+                    }
+                }
+            }
+        }
+
+        for (Graph<V, E>.Vertex u : before.keySet()) {
+            Graph<V, E>.CostHomePair old = before.get(u);
+            Graph<V, E>.CostHomePair now = tree.get(u);
+            if (old.getCost() != now.getCost() || old.getHome() != now.getHome()) {
+                changed.add(u);
+            }
+        }
+    }
+
+    /**
+     * Get the reusable heap, empty and large enough for the graph
+     *
+     * @return heap
+     */
+    private IndexedMinHeap heap() {
+        if (heap == null || heap.capacity() < graph.numVertex()) {
+            heap = new IndexedMinHeap(graph.numVertex());
+        }
+        heap.clear();
+        return heap;
+    }
+
+    /**
+     * Build the tree from scratch
+     */
+    private void rebuild() {
+        tree = graph.containsVertex(source) ? graph.doDijkstra(source) : new HashMap<>();
+        stale = false;
+    }
+
+    /**
+     * A vertex was added
+     *
+     * @param vertex new vertex
+     */
+    @Override
+    public void vertexAdded(Graph<V, E>.Vertex vertex) {
+        stale = true;
+    }
+
+    /**
+     * A vertex was removed
+     *
+     * @param vertex removed vertex
+     */
+    @Override
+    public void vertexRemoved(Graph<V, E>.Vertex vertex) {
+        stale = true;
+    }
+
+    /**
+     * An edge was added
+     *
+     * @param edge new edge
+     */
+    @Override
+    public void edgeAdded(Graph<V, E>.Edge edge) {
+        stale = true;
+    }
+
+    /**
+     * An edge was removed
+     *
+     * @param edge removed edge
+     */
+    @Override
+    public void edgeRemoved(Graph<V, E>.Edge edge) {
+        stale = true;
+    }
+
+    /**
+     * The data of an edge was replaced or changed, so repair the tree
+     *
+     * @param edge changed edge
+     */
+    @Override
+    public void edgeChanged(Graph<V, E>.Edge edge) {
+        if (!stale) {
+            changedVertices.addAll(update(edge));
+        }
+    }
+}
@@ -1,11 +1,12 @@
 import java.awt.*;
 
 /**
- * Data class that keeps a color and the length of an edge
+ * Data class that keeps a color and the length of an edge. A change of length is reported to
+ * the graph holding the edge; a change of color is not, since it changes no path.
  * @author Karen Santamaria
  * @version 14 December 2017
  */
-public class EdgeData extends Number {
+public class EdgeData extends Number implements NotifyingData {
 
     /**
      * Length of edge
@@ -17,6 +18,11 @@ public class EdgeData extends Number {
      */
     private Color edgeColor;
 
+    /**
+     * Run after the length changes, null if the edge is in no graph
+     */
+    private transient Runnable onChange;
+
     /**
      * Constructor for new EdgeData
      * @param edgeLength length of edge
@@ -52,11 +58,23 @@ public class EdgeData extends Number {
     }
 
     /**
-     * Set the length of an edge
+     * Set the length of an edge and tell the graph holding it
      * @param edgeLength new length
      */
     public void setLength(Double edgeLength){
         this.edgeLength = edgeLength;
+        if (onChange != null) {
+            onChange.run();
+        }
+    }
+
+    /**
+     * Set what to run after the length changes
+     * @param onChange run after each change, or null
+     */
+    @Override
+    public void setOnChange(Runnable onChange) {
+        this.onChange = onChange;
     }
 
     public String toString(){
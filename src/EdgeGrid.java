@@ -0,0 +1,274 @@
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+
+/**
+ * Uniform grid over the edges of a graph drawn as straight lines, for finding the edges that
+ * cross a rectangle such as the part of the canvas being repainted. Each edge is filed under
+ * every cell its bounding box overlaps. An edge whose bounding box covers more than
+ * MAX_CELLS cells is instead kept on a separate list of long edges that every query checks, so
+ * that a few long edges do not fill the grid.
+ * <p>
+ * Like VertexGrid, the grid listens to the graph and refiles the edges of a vertex when the
+ * vertex is reported moved with Vertex.dataChanged().
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class EdgeGrid implements GraphListener<VertexData, EdgeData> {
+
+    /**
+     * Most cells an edge is filed under before it is kept on the list of long edges
+     */
+    public static final int MAX_CELLS = 64;
+
+    /**
+     * Graph whose edges are indexed
+     */
+    private final Graph<VertexData, EdgeData> graph;
+
+    /**
+     * Width and height of a cell
+     */
+    private final int cellSize;
+
+    /**
+     * Edges of each occupied cell
+     */
+    private final HashMap<Long, ArrayList<Graph<VertexData, EdgeData>.Edge>> cells;
+
+    /**
+     * Cells each edge is filed under, empty for long edges
+     */
+    private final HashMap<Graph<VertexData, EdgeData>.Edge, long[]> cellsOf;
+
+    /**
+     * Edges covering too many cells to be filed under them
+     */
+    private final HashSet<Graph<VertexData, EdgeData>.Edge> longEdges;
+
+
+    /**
+     * Constructor, which indexes the edges already in the graph and starts listening to it
+     *
+     * @param graph    graph to index
+     * @param cellSize width and height of a cell
+     */
+    public EdgeGrid(Graph<VertexData, EdgeData> graph, int cellSize) {
+        this.graph = graph;
+        this.cellSize = cellSize;
+        this.cells = new HashMap<>();
+        this.cellsOf = new HashMap<>();
+        this.longEdges = new HashSet<>();
+        for (Graph<VertexData, EdgeData>.Edge e : graph.getEdges()) {
+            add(e);
+        }
+        graph.addGraphListener(this);
+    }
+
+    /**
+     * Stop listening to the graph
+     */
+    public void detach() {
+        graph.removeGraphListener(this);
+    }
+
+    /**
+     * Get the number of edges indexed
+     *
+     * @return number of edges
+     */
+    public int size() {
+        return cellsOf.size();
+    }
+
+    /**
+     * Find the edges whose lines cross a rectangle
+     *
+     * @param area rectangle to search
+     * @return edges crossing the rectangle, each once
+     */
+    public ArrayList<Graph<VertexData, EdgeData>.Edge> crossing(Rectangle area) {
+        ArrayList<Graph<VertexData, EdgeData>.Edge> found = new ArrayList<>();
+        if (area.isEmpty()) {
+            return found;
+        }
+        int minX = cell(area.x);
+        int maxX = cell(area.x + area.width - 1);
+        int minY = cell(area.y);
+        int maxY = cell(area.y + area.height - 1);
+
+        if ((long) (maxX - minX + 1) * (maxY - minY + 1) > cells.size()) {
+            for (Map.Entry<Long, ArrayList<Graph<VertexData, EdgeData>.Edge>> cell : cells.entrySet()) {
+                int cx = (int) (cell.getKey() >> 32);
+                int cy = (int) (long) cell.getKey() ^ cx * 0x9e3779b9;
+                addCrossing(cell.getValue(), cx, cy, area, found);
+            }
+        } else {
+            for (int cx = minX; cx <= maxX; cx++) {
+                for (int cy = minY; cy <= maxY; cy++) {
+                    ArrayList<Graph<VertexData, EdgeData>.Edge> cell = cells.get(key(cx, cy));
+                    if (cell != null) {
+                        addCrossing(cell, cx, cy, area, found);
+                    }
+                }
+            }
+        }
+        for (Graph<VertexData, EdgeData>.Edge e : longEdges) {
+            Point p1 = e.getSourceVertex().getData().getPoint();
+            Point p2 = e.getTargetVertex().getData().getPoint();
+            if (area.intersectsLine(p1.x, p1.y, p2.x, p2.y)) {
+                found.add(e);
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Add the edges of a cell that cross a rectangle to a list. An edge filed under several
+     * cells is only added from the cell holding the top left corner of the part of its bounding
+     * box inside the rectangle, so that it is added once without remembering which edges have
+     * been seen.
+     *
+     * @param cell  edges of a cell
+     * @param cx    column of cell
+     * @param cy    row of cell
+     * @param area  rectangle
+     * @param found list to add to
+     */
+    private void addCrossing(ArrayList<Graph<VertexData, EdgeData>.Edge> cell, int cx, int cy, Rectangle area,
+                             ArrayList<Graph<VertexData, EdgeData>.Edge> found) {
+        for (Graph<VertexData, EdgeData>.Edge e : cell) {
+            Point p1 = e.getSourceVertex().getData().getPoint();
+            Point p2 = e.getTargetVertex().getData().getPoint();
+            if (cell(Math.max(Math.min(p1.x, p2.x), area.x)) == cx
+                    && cell(Math.max(Math.min(p1.y, p2.y), area.y)) == cy
+                    && area.intersectsLine(p1.x, p1.y, p2.x, p2.y)) {
+                found.add(e);
+            }
+        }
+    }
+
+    /**
+     * File an edge under the cells of its bounding box, or on the list of long edges
+     *
+     * @param edge edge to add
+     */
+    private void add(Graph<VertexData, EdgeData>.Edge edge) {
+        Point p1 = edge.getSourceVertex().getData().getPoint();
+        Point p2 = edge.getTargetVertex().getData().getPoint();
+        int minX = cell(Math.min(p1.x, p2.x));
+        int maxX = cell(Math.max(p1.x, p2.x));
+        int minY = cell(Math.min(p1.y, p2.y));
+        int maxY = cell(Math.max(p1.y, p2.y));
+
+        long count = (long) (maxX - minX + 1) * (maxY - minY + 1);
+        if (count > MAX_CELLS) {
+            longEdges.add(edge);
+            cellsOf.put(edge, new long[0]);
+            return;
+        }
+        long[] keys = new long[(int) count];
+        int i = 0;
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                keys[i] = key(cx, cy);
+                cells.computeIfAbsent(keys[i], k -> new ArrayList<>()).add(edge);
+                i++;
+            }
+        }
+        cellsOf.put(edge, keys);
+    }
+
+    /**
+     * Take an edge out of its cells
+     *
+     * @param edge edge to remove
+     */
+    private void remove(Graph<VertexData, EdgeData>.Edge edge) {
+        long[] keys = cellsOf.remove(edge);
+        if (keys == null) {
+            return;
+        }
+        if (keys.length == 0) {
+            longEdges.remove(edge);
+        }
+        for (long key : keys) {
+            ArrayList<Graph<VertexData, EdgeData>.Edge> cell = cells.get(key);
+            cell.remove(edge);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Get the cell column or row of a coordinate
+     *
+     * @param coordinate x or y coordinate
+     * @return column or row
+     */
+    private int cell(int coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    /**
+     * Combine a cell column and row into one key. The row is mixed with the column so that
+     * Long.hashCode, which folds the two halves together, spreads neighboring cells.
+     *
+     * @param cx column
+     * @param cy row
+     * @return key of cell
+     */
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | ((cy ^ cx * 0x9e3779b9) & 0xffffffffL);
+    }
+
+    /**
+     * The data of a vertex changed, so refile its edges in case it moved
+     *
+     * @param vertex changed vertex
+     */
+    @Override
+    public void vertexChanged(Graph<VertexData, EdgeData>.Vertex vertex) {
+        for (int i = 0; i < vertex.degree(); i++) {
+            Graph<VertexData, EdgeData>.Edge e = vertex.getEdge(i);
+            remove(e);
+            add(e);
+        }
+    }
+
+    /**
+     * An edge was added
+     *
+     * @param edge new edge
+     */
+    @Override
+    public void edgeAdded(Graph<VertexData, EdgeData>.Edge edge) {
+        add(edge);
+    }
+
+    /**
+     * An edge was removed
+     *
+     * @param edge removed edge
+     */
+    @Override
+    public void edgeRemoved(Graph<VertexData, EdgeData>.Edge edge) {
+        remove(edge);
+    }
+
+    /**
+     * Summary of size of grid
+     *
+     * @return grid as string
+     */
+    @Override
+    public String toString() {
+        return "EdgeGrid: " + size() + " edges in " + cells.size() + " cells of " + cellSize + ", "
+                + longEdges.size() + " long edges";
+    }
+}
@@ -0,0 +1,77 @@
+import java.awt.*;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * A* heuristic that estimates the cost between two vertices as the straight-line distance
+ * between their points times a scale factor
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class EuclideanHeuristic implements ToDoubleBiFunction<VertexData, VertexData> {
+
+    /**
+     * Factor the distance is multiplied by
+     */
+    private double scale;
+
+    /**
+     * Constructor for a heuristic for graphs whose edges are at least as long as the
+     * distance between their endpoints
+     */
+    public EuclideanHeuristic() {
+        this(1);
+    }
+
+    /**
+     * Constructor for EuclideanHeuristic
+     *
+     * @param scale factor the distance is multiplied by
+     */
+    public EuclideanHeuristic(double scale) {
+        this.scale = scale;
+    }
+
+    /**
+     * Largest scale factor that keeps the heuristic from overestimating on a graph: the smallest
+     * ratio of edge length to the distance between the edge's endpoints. Every edge is looked
+     * at, so this is for graphs with edges shorter than that distance, computed once and not
+     * for each search.
+     *
+     * @param graph graph to search
+     * @return scale factor, 0 if some edge is not longer than zero
+     */
+    public static double admissibleScale(Graph<VertexData, EdgeData> graph) {
+        double scale = Double.POSITIVE_INFINITY;
+        for (Graph<VertexData, EdgeData>.Edge e : graph.getEdges()) {
+            double distance = e.getSourceVertex().getData().getPoint().distance(e.getTargetVertex().getData().getPoint());
+            if (distance > 0) {
+                scale = Math.min(scale, Math.max(0, e.getData().getLength()) / distance);
+            }
+        }
+        return scale == Double.POSITIVE_INFINITY ? 1 : scale;
+    }
+
+    /**
+     * Accessor for scale
+     *
+     * @return factor the distance is multiplied by
+     */
+    public double getScale() {
+        return scale;
+    }
+
+    /**
+     * Estimate the cost between two vertices
+     *
+     * @param from data of vertex
+     * @param to   data of target
+     * @return scaled distance between their points
+     */
+    @Override
+    public double applyAsDouble(VertexData from, VertexData to) {
+        Point p1 = from.getPoint();
+        Point p2 = to.getPoint();
+        return scale * p1.distance(p2);
+    }
+}
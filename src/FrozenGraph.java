@@ -0,0 +1,551 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.function.ToDoubleBiFunction;
+
+/**
+ * Immutable snapshot of a Graph stored in compressed sparse row (CSR) form.
+ * Vertices are numbered 0 to numVertex() - 1 in the order of Graph.getVertices() at the time of
+ * freezing and edges 0 to numEdge() - 1 in the order of Graph.getEdges(). Every edge is stored
+ * as two arcs, one leaving each endpoint, and the arcs of vertex v are the positions
+ * firstArc(v) to endArc(v) - 1 of the targets, weights and arc edge arrays, in the order of the
+ * vertex's edges in the graph.
+ * <p>
+ * Traversals over the snapshot work on these arrays only and allocate nothing per edge.
+ *
+ * @param <V> data in Vertices
+ * @param <E> data in Edges
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class FrozenGraph<V, E> {
+
+    /**
+     * Vertices of the graph indexed by id
+     */
+    private final ArrayList<Graph<V, E>.Vertex> vertices;
+
+    /**
+     * Edges of the graph indexed by id
+     */
+    private final ArrayList<Graph<V, E>.Edge> edges;
+
+    /**
+     * First arc of each vertex; offsets[numVertex()] is the number of arcs
+     */
+    private final int[] offsets;
+
+    /**
+     * Vertex each arc leads to
+     */
+    private final int[] targets;
+
+    /**
+     * Weight of each arc
+     */
+    private final double[] weights;
+
+    /**
+     * Edge each arc was built from
+     */
+    private final int[] arcEdges;
+
+    /**
+     * Source vertex of each edge
+     */
+    private final int[] edgeSources;
+
+    /**
+     * Target vertex of each edge
+     */
+    private final int[] edgeTargets;
+
+    /**
+     * Id of each vertex, built the first time a vertex is looked up that the graph has moved
+     * or removed since freezing, or null
+     */
+    private volatile IdentityHashMap<Graph<V, E>.Vertex, Integer> ids;
+
+
+    /**
+     * Constructor, see Graph.freeze()
+     */
+    FrozenGraph(ArrayList<Graph<V, E>.Vertex> vertices, ArrayList<Graph<V, E>.Edge> edges,
+                int[] offsets, int[] targets, double[] weights, int[] arcEdges, int[] edgeSources,
+                int[] edgeTargets) {
+        this.vertices = vertices;
+        this.edges = edges;
+        this.offsets = offsets;
+        this.targets = targets;
+        this.weights = weights;
+        this.arcEdges = arcEdges;
+        this.edgeSources = edgeSources;
+        this.edgeTargets = edgeTargets;
+    }
+
+    /**
+     * Get the number of vertices
+     *
+     * @return number of vertices
+     */
+    public int numVertex() {
+        return vertices.size();
+    }
+
+    /**
+     * Get the number of edges
+     *
+     * @return number of edges
+     */
+    public int numEdge() {
+        return edges.size();
+    }
+
+    /**
+     * Accessor for vertex by id
+     *
+     * @param id id of vertex
+     * @return vertex
+     */
+    public Graph<V, E>.Vertex getVertex(int id) {
+        return vertices.get(id);
+    }
+
+    /**
+     * Accessor for edge by id
+     *
+     * @param edgeId id of edge
+     * @return edge
+     */
+    public Graph<V, E>.Edge getEdge(int edgeId) {
+        return edges.get(edgeId);
+    }
+
+    /**
+     * Get the id of a vertex. Ids are fixed when the graph is frozen, so a vertex keeps its id
+     * in this snapshot when the graph later moves it to another index or removes it.
+     *
+     * @param vertex vertex in snapshot
+     * @return id, or -1 if the vertex was not in the graph when it was frozen
+     */
+    public int getId(Graph<V, E>.Vertex vertex) {
+        int id = vertex.getIndex();
+        if (id >= 0 && id < vertices.size() && vertices.get(id) == vertex) {
+            return id;
+        }
+        IdentityHashMap<Graph<V, E>.Vertex, Integer> map = ids;
+        if (map == null) {
+            map = new IdentityHashMap<>(vertices.size());
+            for (int i = 0; i < vertices.size(); i++) {
+                map.put(vertices.get(i), i);
+            }
+            ids = map;
+        }
+        Integer found = map.get(vertex);
+        return found == null ? -1 : found;
+    }
+
+    /**
+     * Get the number of edges at a vertex
+     *
+     * @param v vertex id
+     * @return degree
+     */
+    public int degree(int v) {
+        return offsets[v + 1] - offsets[v];
+    }
+
+    /**
+     * Get the first arc of a vertex
+     *
+     * @param v vertex id
+     * @return first arc
+     */
+    public int firstArc(int v) {
+        return offsets[v];
+    }
+
+    /**
+     * Get the position after the last arc of a vertex
+     *
+     * @param v vertex id
+     * @return end of arcs
+     */
+    public int endArc(int v) {
+        return offsets[v + 1];
+    }
+
+    /**
+     * Get the vertex an arc leads to
+     *
+     * @param arc arc
+     * @return vertex id
+     */
+    public int arcTarget(int arc) {
+        return targets[arc];
+    }
+
+    /**
+     * Get the weight of an arc
+     *
+     * @param arc arc
+     * @return weight
+     */
+    public double arcWeight(int arc) {
+        return weights[arc];
+    }
+
+    /**
+     * Get the edge an arc was built from
+     *
+     * @param arc arc
+     * @return edge id
+     */
+    public int arcEdge(int arc) {
+        return arcEdges[arc];
+    }
+
+    /**
+     * Get the source vertex of an edge
+     *
+     * @param edgeId edge id
+     * @return vertex id
+     */
+    public int edgeSource(int edgeId) {
+        return edgeSources[edgeId];
+    }
+
+    /**
+     * Get the target vertex of an edge
+     *
+     * @param edgeId edge id
+     * @return vertex id
+     */
+    public int edgeTarget(int edgeId) {
+        return edgeTargets[edgeId];
+    }
+
+    /**
+     * Get the endpoint of an edge opposite to a vertex
+     *
+     * @param edgeId edge id
+     * @param v      one endpoint
+     * @return other endpoint
+     */
+    public int oppositeTo(int edgeId, int v) {
+        return edgeSources[edgeId] == v ? edgeTargets[edgeId] : edgeSources[edgeId];
+    }
+
+
+    /**
+     * Breadth-first traversal of snapshot
+     *
+     * @param start start vertex id
+     * @return ids of the edges traversed, in the order they were traversed
+     */
+    public int[] breadthFirstTraversal(int start) {
+        return breadthFirstTraversal(start, null);
+    }
+
+    /**
+     * Breadth-first traversal of snapshot, reporting the number of vertices visited
+     *
+     * @param start    start vertex id
+     * @param progress receives progress reports, or null
+     * @return ids of the edges traversed, in the order they were traversed
+     * @throws java.util.concurrent.CancellationException if progress stops the traversal
+     */
+    public int[] breadthFirstTraversal(int start, AlgorithmProgress progress) {
+        int[] queue = new int[numVertex()];
+        int[] traversedEdges = new int[numVertex()];
+        boolean[] visited = new boolean[numVertex()];
+        int head = 0;
+        int tail = 0;
+        int count = 0;
+
+        queue[tail++] = start;
+        visited[start] = true;
+
+        while (head < tail) {
+            if (progress != null && head % AlgorithmProgress.INTERVAL == 0) {
+                progress.report(head, numVertex());
+            }
+            int u = queue[head++];
+            for (int arc = offsets[u]; arc < offsets[u + 1]; arc++) {
+                int v = targets[arc];
+                if (!visited[v]) {
+                    visited[v] = true;
+                    queue[tail++] = v;
+                    traversedEdges[count++] = arcEdges[arc];
+                }
+            }
+        }
+
+        return Arrays.copyOf(traversedEdges, count);
+    }
+
+    /**
+     * Depth-first traversal of snapshot using an explicit stack
+     *
+     * @param start start vertex id
+     * @return ids of the edges traversed, in the order of Graph.depthFirstTraversal(Vertex)
+     */
+    public int[] depthFirstTraversal(int start) {
+        return depthFirstTraversal(start, null);
+    }
+
+    /**
+     * Depth-first traversal of snapshot using an explicit stack, reporting the number of
+     * vertices visited
+     *
+     * @param start    start vertex id
+     * @param progress receives progress reports, or null
+     * @return ids of the edges traversed, in the order of Graph.depthFirstTraversal(Vertex):
+     * the reverse of the order the traversal comes back up them
+     * @throws java.util.concurrent.CancellationException if progress stops the traversal
+     */
+    public int[] depthFirstTraversal(int start, AlgorithmProgress progress) {
+        int[] stack = new int[numVertex()];
+        int[] stackEdges = new int[numVertex()]; //edge that led to each vertex on the stack
+        int[] nextArc = new int[numVertex()];
+        int[] traversedEdges = new int[numVertex()];
+        boolean[] visited = new boolean[numVertex()];
+        int top = 0;
+        int discovered = 0;
+        int count = 0;
+
+        stack[top] = start;
+        stackEdges[top++] = -1;
+        nextArc[start] = offsets[start];
+        visited[start] = true;
+
+        while (top > 0) {
+            int u = stack[top - 1];
+            if (nextArc[u] == offsets[u + 1]) {
+                int e = stackEdges[--top];
+                if (e >= 0) {
+                    traversedEdges[count++] = e;
+                }
+                continue;
+            }
+            int arc = nextArc[u]++;
+            int v = targets[arc];
+            if (!visited[v]) {
+                visited[v] = true;
+                nextArc[v] = offsets[v];
+                stack[top] = v;
+                stackEdges[top++] = arcEdges[arc];
+                if (progress != null && ++discovered % AlgorithmProgress.INTERVAL == 0) {
+                    progress.report(discovered, numVertex());
+                }
+            }
+        }
+
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            int e = traversedEdges[i];
+            traversedEdges[i] = traversedEdges[j];
+            traversedEdges[j] = e;
+        }
+        return Arrays.copyOf(traversedEdges, count);
+    }
+
+    /**
+     * Dijkstra's algorithm from a start vertex to every other vertex
+     *
+     * @param start start vertex id
+     * @return cost of each vertex, positive infinity if unreachable
+     */
+    public double[] doDijkstra(int start) {
+        return doDijkstra(start, (AlgorithmProgress) null);
+    }
+
+    /**
+     * Dijkstra's algorithm from a start vertex to every other vertex, reporting the number of
+     * vertices settled
+     *
+     * @param start    start vertex id
+     * @param progress receives progress reports, or null
+     * @return cost of each vertex, positive infinity if unreachable
+     * @throws java.util.concurrent.CancellationException if progress stops the search
+     */
+    public double[] doDijkstra(int start, AlgorithmProgress progress) {
+        double[] dist = new double[numVertex()];
+        SearchWorkspace workspace = SearchWorkspace.forThread(numVertex());
+        doDijkstra(start, -1, dist, workspace.getParentEdges(), workspace.getHeap(), progress);
+        return dist;
+    }
+
+    /**
+     * Dijkstra's algorithm into caller-supplied arrays, so that repeated searches can reuse them.
+     * When a target is given the search stops once the target is settled and only the costs of
+     * settled vertices are final.
+     *
+     * @param start       start vertex id
+     * @param target      vertex id to stop at, or -1 to settle every vertex
+     * @param dist        filled with the cost of each vertex
+     * @param parentEdges filled with the edge id leading home to the start, -1 for the start and
+     *                    unreached vertices
+     * @param heap        heap with capacity of at least numVertex(); it is cleared first
+     * @return number of vertices settled
+     */
+    public int doDijkstra(int start, int target, double[] dist, int[] parentEdges, IndexedMinHeap heap) {
+        return doDijkstra(start, target, dist, parentEdges, heap, null);
+    }
+
+    /**
+     * Dijkstra's algorithm into caller-supplied arrays, reporting the number of vertices
+     * settled. When a target is given the search stops once the target is settled.
+     *
+     * @param start       start vertex id
+     * @param target      vertex id to stop at, or -1 to settle every vertex
+     * @param dist        filled with the cost of each vertex
+     * @param parentEdges filled with the edge id leading home to the start, -1 for the start and
+     *                    unreached vertices
+     * @param heap        heap with capacity of at least numVertex(); it is cleared first
+     * @param progress    receives progress reports, or null
+     * @return number of vertices settled
+     * @throws java.util.concurrent.CancellationException if progress stops the search
+     */
+    public int doDijkstra(int start, int target, double[] dist, int[] parentEdges, IndexedMinHeap heap,
+                          AlgorithmProgress progress) {
+        return search(start, target, null, dist, parentEdges, heap, progress);
+    }
+
+    /**
+     * A* search for the shortest path between two vertices into caller-supplied arrays,
+     * reporting the number of vertices settled. The heuristic estimates the cost from the data
+     * of a vertex to the data of the target, as in Graph.aStar; it must never overestimate.
+     * Only the costs of settled vertices are final.
+     *
+     * @param start       start vertex id
+     * @param target      vertex id to stop at
+     * @param heuristic   estimated cost from the data of a vertex to the data of the target
+     * @param dist        filled with the cost of each vertex
+     * @param parentEdges filled with the edge id leading home to the start, -1 for the start and
+     *                    unreached vertices
+     * @param heap        heap with capacity of at least numVertex(); it is cleared first
+     * @param progress    receives progress reports, or null
+     * @return number of vertices settled
+     * @throws java.util.concurrent.CancellationException if progress stops the search
+     */
+    public int aStar(int start, int target, ToDoubleBiFunction<V, V> heuristic, double[] dist, int[] parentEdges,
+                     IndexedMinHeap heap, AlgorithmProgress progress) {
+        return search(start, target, heuristic, dist, parentEdges, heap, progress);
+    }
+
+    /**
+     * Dijkstra's algorithm, or A* search when given a heuristic, into caller-supplied arrays
+     *
+     * @param start       start vertex id
+     * @param target      vertex id to stop at, or -1 to settle every vertex
+     * @param heuristic   estimated cost from the data of a vertex to the data of the target,
+     *                    or null for none
+     * @param dist        filled with the cost of each vertex
+     * @param parentEdges filled with the edge id leading home to the start
+     * @param heap        heap with capacity of at least numVertex(); it is cleared first
+     * @param progress    receives progress reports, or null
+     * @return number of vertices settled
+     */
+    private int search(int start, int target, ToDoubleBiFunction<V, V> heuristic, double[] dist, int[] parentEdges,
+                       IndexedMinHeap heap, AlgorithmProgress progress) {
+        V targetData = heuristic == null ? null : vertices.get(target).getData();
+        Arrays.fill(dist, 0, numVertex(), Double.POSITIVE_INFINITY);
+        Arrays.fill(parentEdges, 0, numVertex(), -1);
+        heap.clear();
+
+        dist[start] = 0;
+        heap.insertOrDecrease(start, heuristic == null ? 0
+                : heuristic.applyAsDouble(vertices.get(start).getData(), targetData));
+        int settled = 0;
+
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            settled++;
+            if (u == target) {
+                break;
+            }
+            if (progress != null && settled % AlgorithmProgress.INTERVAL == 0) {
+                progress.report(settled, numVertex());
+            }
+            double uCost = dist[u];
+            for (int arc = offsets[u]; arc < offsets[u + 1]; arc++) {
+                int v = targets[arc];
+                double alt = uCost + weights[arc];
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    parentEdges[v] = arcEdges[arc];
+                    heap.insertOrDecrease(v, heuristic == null ? alt
+                            : alt + heuristic.applyAsDouble(vertices.get(v).getData(), targetData));
+                }
+            }
+        }
+
+        heap.clear();
+        return settled;
+    }
+
+    /**
+     * Make a snapshot with new weights for some edges. Everything except the weights is shared
+     * with this snapshot, so the graph must not have gained or lost vertices or edges since.
+     *
+     * @param edgeIds    ids of changed edges
+     * @param newWeights new weight of each changed edge
+     * @param count      number of changed edges
+     * @return new snapshot
+     */
+    FrozenGraph<V, E> withEdgeWeights(int[] edgeIds, double[] newWeights, int count) {
+        double[] copy = weights.clone();
+        for (int i = 0; i < count; i++) {
+            int edgeId = edgeIds[i];
+            setArcWeights(copy, edgeSources[edgeId], edgeId, newWeights[i]);
+            setArcWeights(copy, edgeTargets[edgeId], edgeId, newWeights[i]);
+        }
+        return new FrozenGraph<>(vertices, edges, offsets, targets, copy, arcEdges, edgeSources, edgeTargets);
+    }
+
+    /**
+     * Set the weight of the arc of an edge that leaves a vertex
+     *
+     * @param weights weights to change
+     * @param v       vertex id
+     * @param edgeId  edge id
+     * @param weight  new weight
+     */
+    private void setArcWeights(double[] weights, int v, int edgeId, double weight) {
+        for (int arc = offsets[v]; arc < offsets[v + 1]; arc++) {
+            if (arcEdges[arc] == edgeId) {
+                weights[arc] = weight;
+            }
+        }
+    }
+
+    /**
+     * Estimated heap size of this snapshot, assuming compressed references.
+     * Vertex and edge data objects are shared with the graph and not counted.
+     *
+     * @return size in bytes
+     */
+    public long memoryFootprint() {
+        long bytes = 0;
+        bytes += Graph.arrayBytes(offsets.length, 4);
+        bytes += Graph.arrayBytes(targets.length, 4);
+        bytes += Graph.arrayBytes(weights.length, 8);
+        bytes += Graph.arrayBytes(arcEdges.length, 4);
+        bytes += Graph.arrayBytes(edgeSources.length, 4);
+        bytes += Graph.arrayBytes(edgeTargets.length, 4);
+        bytes += Graph.listBytes(vertices.size());
+        bytes += Graph.listBytes(edges.size());
+        return bytes;
+    }
+
+    /**
+     * Summary of size of snapshot
+     *
+     * @return snapshot as string
+     */
+    @Override
+    public String toString() {
+        return "FrozenGraph: " + numVertex() + " vertices, " + numEdge() + " edges, "
+                + memoryFootprint() + " bytes";
+    }
+}
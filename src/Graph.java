@@ -1,7 +1,14 @@
+import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Set;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.ToDoubleBiFunction;
 
 /**
  * Implements a directed graph with Vertices containing data V and edges containing data E
@@ -13,6 +20,11 @@ import java.util.Set;
  */
 public class Graph<V, E> {
 
+    /**
+     * Heap of each thread reused by shortestPathTree, grown to the largest graph searched
+     */
+    private static final ThreadLocal<IndexedMinHeap> HEAP = ThreadLocal.withInitial(() -> new IndexedMinHeap(0));
+
     /**
      * List of edges in graph
      */
@@ -23,6 +35,27 @@ public class Graph<V, E> {
      */
     private ArrayList<Vertex> vertices;
 
+    /**
+     * Index from vertex data to vertex, kept in sync with vertices
+     */
+    private HashMap<V, Vertex> vertexIndex;
+
+    /**
+     * Index of edges by their (unordered) pair of endpoints, kept in sync with edges
+     */
+    private HashMap<Edge, Edge> edgeIndex;
+
+    /**
+     * Listeners told about changes
+     */
+    private ArrayList<GraphListener<V, E>> listeners;
+
+    /**
+     * Number of changes that can affect paths: vertices or edges added or removed, and edge
+     * data changed
+     */
+    private long modificationCount;
+
 
     /**
      * Constructor
@@ -30,6 +63,10 @@ public class Graph<V, E> {
     Graph() {
         vertices = new ArrayList<>();
         edges = new ArrayList<>();
+        vertexIndex = new HashMap<>();
+        edgeIndex = new HashMap<>();
+        listeners = new ArrayList<>();
+        modificationCount = 0;
     }
 
     /**
@@ -47,15 +84,20 @@ public class Graph<V, E> {
 
         Edge newEdge = new Edge(data, sourceVertex, targetVertex);
 
-        for (Edge e : edges) {
-            if (e.equals(newEdge)) {
-                return null;
-            }
+        if (edgeIndex.containsKey(newEdge)) {
+            return null;
         }
 
+        newEdge.index = edges.size();
         edges.add(newEdge);
+        edgeIndex.put(newEdge, newEdge);
+        newEdge.attachData();
         sourceVertex.addEdgeRef(newEdge);
         targetVertex.addEdgeRef(newEdge);
+        modificationCount++;
+        for (GraphListener<V, E> listener : listeners) {
+            listener.edgeAdded(newEdge);
+        }
         return newEdge;
     }
 
@@ -67,14 +109,17 @@ public class Graph<V, E> {
      */
     public Vertex addVertex(V data) {
 
-        for (Vertex v : vertices) {
-            if (v.getData().equals(data)) {
-                return null;
-            }
+        if (vertexIndex.containsKey(data)) {
+            return null;
         }
 
-        Vertex newVertex = new Vertex(data);
+        Vertex newVertex = new Vertex(data, vertices.size());
         vertices.add(newVertex);
+        vertexIndex.put(data, newVertex);
+        modificationCount++;
+        for (GraphListener<V, E> listener : listeners) {
+            listener.vertexAdded(newVertex);
+        }
         return newVertex;
     }
 
@@ -86,7 +131,7 @@ public class Graph<V, E> {
      * @return whether graph contains specified vertex
      */
     public boolean containsVertex(Vertex vertex) {
-        return vertices.contains(vertex);
+        return vertex != null && vertexIndex.get(vertex.getData()) == vertex;
     }
 
     /**
@@ -107,6 +152,17 @@ public class Graph<V, E> {
         return this.edges.size();
     }
 
+    /**
+     * Get the number of changes made that can affect paths, so that results computed from the
+     * graph can tell whether they are out of date. Vertices or edges added or removed and
+     * Edge.dataChanged() count; changes to vertex data do not, since they cannot change costs.
+     *
+     * @return modification count
+     */
+    public long getModificationCount() {
+        return modificationCount;
+    }
+
     /**
      * Access vertices
      */
@@ -126,18 +182,10 @@ public class Graph<V, E> {
      * @return edge reference
      */
     public Edge getEdgeRef(Vertex sourceVertex, Vertex targetVertex) {
-        for (Edge e : edges) {
-            if (e.getSourceVertex() == sourceVertex &&
-                    e.getTargetVertex() == targetVertex) {
-                return e;
-            }
-
-            if (e.getSourceVertex() == targetVertex &&
-                    e.getTargetVertex() == sourceVertex) {
-                return e;
-            }
+        if (sourceVertex == null || targetVertex == null) {
+            return null;
         }
-        return null;
+        return edgeIndex.get(new Edge(null, sourceVertex, targetVertex));
     }
 
     /**
@@ -160,13 +208,14 @@ public class Graph<V, E> {
         return vertices.get(i);
     }
 
+    /**
+     * Accessor for vertex by its data
+     *
+     * @param data data of vertex
+     * @return vertex, or null if no vertex holds this data
+     */
     public Vertex getVertex(V data) {
-        for (Vertex v : vertices) {
-            if (v.getData().equals(data)) {
-                return v;
-            }
-        }
-        return null;
+        return vertexIndex.get(data);
     }
 
 
@@ -177,48 +226,81 @@ public class Graph<V, E> {
      * @return all the edges traversed
      */
     public ArrayList<Edge> breadthFirstTraversal(Vertex start) {
-        ArrayList<Vertex> queue = new ArrayList<>();
         ArrayList<Edge> traversedEdges = new ArrayList<>();
-        HashSet<Vertex> visitedVertices = new HashSet<>();
+        breadthFirstTraversal(start, traversedEdges::add);
+        return traversedEdges;
+    }
+
+    /**
+     * Breadth-first traversal of graph that hands each traversed edge to a visitor
+     * instead of collecting them
+     *
+     * @param start   start
+     * @param visitor receives the edges traversed, in the same order as breadthFirstTraversal(start)
+     */
+    public void breadthFirstTraversal(Vertex start, Consumer<Edge> visitor) {
+        ArrayDeque<Vertex> queue = new ArrayDeque<>();
+        boolean[] visitedVertices = new boolean[vertices.size()];
 
         queue.add(start);
-        visitedVertices.add(start);
+        visitedVertices[start.index] = true;
 
         while (!queue.isEmpty()) {
-            Vertex currentVertex = queue.get(0);
-            queue.remove(0);
+            Vertex currentVertex = queue.poll();
 
-            for (Vertex v : currentVertex.getNeighbors()) {
-                if (!visitedVertices.contains(v)) {
+            for (int i = 0; i < currentVertex.degree(); i++) {
+                Vertex v = currentVertex.getNeighbor(i);
+                if (!visitedVertices[v.index]) {
 
                     queue.add(v); //add to queue
-                    visitedVertices.add(v); //mark v
-                    traversedEdges.add(currentVertex.edgeTo(v));
+                    visitedVertices[v.index] = true; //mark v
+                    visitor.accept(currentVertex.getEdge(i));
                 }
             }
         }
+    }
+
+
+    /**
+     * Breadth-first traversal of graph on a fork-join pool, see ParallelBreadthFirstSearch.
+     * Edges are returned level by level like breadthFirstTraversal(start), but the order
+     * within a level and the parent chosen for a vertex with several parents on the previous
+     * level may differ from the sequential traversal.
+     *
+     * @param start start
+     * @param pool  pool that runs the search
+     * @return all the edges traversed
+     */
+    public ArrayList<Edge> parallelBreadthFirstTraversal(Vertex start, ForkJoinPool pool) {
+        FrozenGraph<V, E> snapshot = freeze();
+        ParallelBreadthFirstSearch search = new ParallelBreadthFirstSearch(snapshot, pool);
+        search.run(start.index);
 
+        ArrayList<Edge> traversedEdges = new ArrayList<>();
+        int[] order = search.getOrder();
+        for (int i = 1; i < search.getVisitedCount(); i++) {
+            traversedEdges.add(snapshot.getEdge(search.getParentEdge(order[i])));
+        }
         return traversedEdges;
     }
 
 
     /**
-     * Depth-first traversal of graph
+     * Depth-first traversal of graph. The edges of the traversal are put in front of
+     * traversedEdges, ordered so that each edge comes after the edges of the subtrees
+     * explored later from the same vertex.
      *
-     * @param currentVertex current place
+     * @param currentVertex   current place
+     * @param traversedEdges  edges visited so far
+     * @param visitedVertices vertices visited so far
      * @return edges visited
      */
     public ArrayList<Edge> depthFirstTraversal(Vertex currentVertex, ArrayList<Edge> traversedEdges, HashSet<Vertex> visitedVertices) {
 
-        visitedVertices.add(currentVertex);
-
-        for (Vertex v : currentVertex.getNeighbors()) {
-            if (!visitedVertices.contains(v)) {
-
-                depthFirstTraversal(v, traversedEdges, visitedVertices);
-                traversedEdges.add(0, currentVertex.edgeTo(v));
-            }
-        }
+        ArrayList<Edge> finishedEdges = new ArrayList<>();
+        depthFirstTraversal(currentVertex, visitedVertices, null, finishedEdges::add);
+        Collections.reverse(finishedEdges);
+        traversedEdges.addAll(0, finishedEdges);
 
         return traversedEdges;
     }
@@ -238,45 +320,143 @@ public class Graph<V, E> {
         return traversedEdges;
     }
 
-    public HashMap<Vertex, CostHomePair> doDijkstra(Vertex startVertex) {
-        HashSet<Vertex> queue = new HashSet<>();
-        HashMap<Vertex, CostHomePair> vertexCostHome = new HashMap<>();
-
-        for (Vertex v : getVertices()) {
-            queue.add(v);
-            vertexCostHome.put(v, new CostHomePair(Double.POSITIVE_INFINITY, null));
-        }
-        vertexCostHome.put(startVertex, new CostHomePair(0, startVertex));
+    /**
+     * Depth-first traversal of graph that hands each traversed edge to a visitor as soon as it
+     * is discovered, instead of collecting them
+     *
+     * @param startVertex starting node
+     * @param visitor     receives the edges traversed, in the order they are discovered
+     */
+    public void depthFirstTraversal(Vertex startVertex, Consumer<Edge> visitor) {
+        depthFirstTraversal(startVertex, new HashSet<>(), visitor, null);
+    }
 
-        while (!queue.isEmpty()) {
-            Vertex u = getClosest(vertexCostHome, queue);
-            queue.remove(u);
-            for (Vertex uNeighbor : u.getNeighbors()) {
-                if (queue.contains(uNeighbor)) {
-                    double alt = vertexCostHome.get(u).getCost() + u.edgeTo(uNeighbor).getNumData();
-                    if (alt < vertexCostHome.get(uNeighbor).getCost()) {
-                        CostHomePair currentCostHomePair = vertexCostHome.get(uNeighbor);
-                        currentCostHomePair.setCostHome(alt, u);
+    /**
+     * Depth-first traversal with an explicit stack, so that long paths cannot overflow the call stack
+     *
+     * @param startVertex     starting node
+     * @param visitedVertices vertices visited so far
+     * @param discovered      receives each edge when the traversal goes down it, may be null
+     * @param finished        receives each edge when the traversal comes back up it, may be null
+     */
+    private void depthFirstTraversal(Vertex startVertex, HashSet<Vertex> visitedVertices,
+                                     Consumer<Edge> discovered, Consumer<Edge> finished) {
+        ArrayList<Vertex> stack = new ArrayList<>();
+        ArrayList<Edge> stackEdges = new ArrayList<>(); //edge that led to each vertex on the stack
+        int[] nextEdge = new int[vertices.size()];
+
+        visitedVertices.add(startVertex);
+        stack.add(startVertex);
+        stackEdges.add(null);
+
+        while (!stack.isEmpty()) {
+            Vertex currentVertex = stack.get(stack.size() - 1);
+            int i = nextEdge[currentVertex.index];
+
+            if (i < currentVertex.degree()) {
+                nextEdge[currentVertex.index]++;
+                Vertex v = currentVertex.getNeighbor(i);
+                if (visitedVertices.add(v)) {
+                    nextEdge[v.index] = 0;
+                    stack.add(v);
+                    stackEdges.add(currentVertex.getEdge(i));
+                    if (discovered != null) {
+                        discovered.accept(currentVertex.getEdge(i));
                     }
                 }
+            } else {
+                stack.remove(stack.size() - 1);
+                Edge e = stackEdges.remove(stackEdges.size() - 1);
+                if (e != null && finished != null) {
+                    finished.accept(e);
+                }
             }
         }
+    }
+
+    /**
+     * Dijkstra's algorithm from a start vertex to every other vertex
+     *
+     * @param startVertex start of every path
+     * @return cost and homeward vertex of each vertex
+     */
+    public HashMap<Vertex, CostHomePair> doDijkstra(Vertex startVertex) {
+        return doDijkstra(startVertex, null);
+    }
 
+    /**
+     * Dijkstra's algorithm that stops once the target vertex is settled. Vertices that were not
+     * settled before the target keep their tentative cost, so only the target's cost and the
+     * homeward chain from the target back to the start are final.
+     *
+     * @param startVertex  start of every path
+     * @param targetVertex vertex to stop at, or null to settle every vertex
+     * @return cost and homeward vertex of each vertex
+     */
+    public HashMap<Vertex, CostHomePair> doDijkstra(Vertex startVertex, Vertex targetVertex) {
+        return shortestPathTree(startVertex, targetVertex, new ShortestPathTree<>()).toCostHomeMap();
+    }
 
-        return vertexCostHome;
+    /**
+     * Dijkstra's algorithm from a start vertex to every other vertex, with the result in arrays
+     *
+     * @param startVertex start of every path
+     * @return cost and homeward vertex of each vertex
+     */
+    public ShortestPathTree<V, E> shortestPathTree(Vertex startVertex) {
+        return shortestPathTree(startVertex, null, new ShortestPathTree<>());
     }
 
-    private Vertex getClosest(HashMap<Vertex, CostHomePair> dijkstraMap, HashSet<Vertex> queue) {
-        Vertex closestVertex = null;
-        double minValue = Double.POSITIVE_INFINITY;
-        for (Vertex v : queue) {
-            double value = dijkstraMap.get(v).getCost();
-            if (value < minValue || value == minValue) {
-                minValue = value;
-                closestVertex = v;
+    /**
+     * Dijkstra's algorithm into a caller-supplied tree, so that repeated searches can reuse its
+     * arrays. The heap is kept per thread, so searches allocate nothing once the tree and heap
+     * are large enough. When a target is given the search stops once it is settled, with the
+     * same meaning as doDijkstra(startVertex, targetVertex).
+     *
+     * @param startVertex  start of every path
+     * @param targetVertex vertex to stop at, or null to settle every vertex
+     * @param tree         tree to fill
+     * @return the tree
+     */
+    public ShortestPathTree<V, E> shortestPathTree(Vertex startVertex, Vertex targetVertex, ShortestPathTree<V, E> tree) {
+        int n = vertices.size();
+        tree.reset(this, startVertex, n);
+        double[] dist = tree.dist;
+        int[] parent = tree.parent;
+        IndexedMinHeap queue = HEAP.get();
+        if (queue.capacity() < n) {
+            queue = new IndexedMinHeap(n);
+            HEAP.set(queue);
+        }
+        queue.clear();
+
+        int target = targetVertex == null ? -1 : targetVertex.index;
+        dist[startVertex.index] = 0;
+        parent[startVertex.index] = startVertex.index;
+        queue.insertOrDecrease(startVertex.index, 0);
+
+        while (!queue.isEmpty()) {
+            int u = queue.pollMin();
+            if (u == target) {
+                break;
+            }
+
+            Vertex uVertex = vertices.get(u);
+            double uCost = dist[u];
+            for (int i = 0; i < uVertex.edges.size(); i++) {
+                Edge e = uVertex.edges.get(i);
+                int v = e.oppositeTo(uVertex).index;
+                double alt = uCost + e.getNumData();
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    parent[v] = u;
+                    queue.insertOrDecrease(v, alt);
+                }
             }
         }
-        return closestVertex;
+
+        queue.clear();
+        return tree;
     }
 
 
@@ -301,6 +481,149 @@ public class Graph<V, E> {
     }
 
 
+    /**
+     * A* search for the shortest path between two vertices. The heuristic estimates the cost
+     * from a vertex to the target from their data; it must never overestimate, and if it is also
+     * consistent (h(u) <= cost of edge uv + h(v)) every vertex is settled at most once.
+     * With a heuristic that is always 0 this is Dijkstra's algorithm.
+     *
+     * @param startVertex  start of path
+     * @param targetVertex end of path
+     * @param heuristic    estimated cost from the data of a vertex to the data of the target
+     * @return cost and vertices of the path from start to target, with the number of vertices settled
+     */
+    public PathResult aStar(Vertex startVertex, Vertex targetVertex, ToDoubleBiFunction<V, V> heuristic) {
+        int n = vertices.size();
+        IndexedMinHeap queue = new IndexedMinHeap(n);
+        double[] costs = new double[n];
+        double[] estimates = new double[n];
+        int[] homes = new int[n];
+        Arrays.fill(costs, Double.POSITIVE_INFINITY);
+        Arrays.fill(estimates, Double.NaN);
+
+        costs[startVertex.index] = 0;
+        homes[startVertex.index] = startVertex.index;
+        queue.insertOrDecrease(startVertex.index, heuristic.applyAsDouble(startVertex.getData(), targetVertex.getData()));
+        int settledCount = 0;
+
+        while (!queue.isEmpty()) {
+            Vertex u = vertices.get(queue.pollMin());
+            settledCount++;
+            if (u == targetVertex) {
+                break;
+            }
+
+            for (int i = 0; i < u.degree(); i++) {
+                Vertex v = u.getNeighbor(i);
+                double alt = costs[u.index] + u.getEdge(i).getNumData();
+                if (alt < costs[v.index]) {
+                    if (Double.isNaN(estimates[v.index])) {
+                        estimates[v.index] = heuristic.applyAsDouble(v.getData(), targetVertex.getData());
+                    }
+                    costs[v.index] = alt;
+                    homes[v.index] = u.index;
+                    queue.insertOrDecrease(v.index, alt + estimates[v.index]);
+                }
+            }
+        }
+
+        return new PathResult(costs[targetVertex.index], pathTo(homes, startVertex, targetVertex, costs), settledCount);
+    }
+
+    /**
+     * Bidirectional Dijkstra's algorithm for the shortest path between two vertices. One search
+     * grows from the start and one from the target, always advancing the one whose next vertex
+     * is closer, and they stop once the two smallest queued costs add up to at least the
+     * cheapest path found through a vertex reached by both.
+     *
+     * @param startVertex  start of path
+     * @param targetVertex end of path
+     * @return cost and vertices of the path from start to target, with the number of vertices settled
+     */
+    public PathResult bidirectionalDijkstra(Vertex startVertex, Vertex targetVertex) {
+        int n = vertices.size();
+        IndexedMinHeap forwardQueue = new IndexedMinHeap(n);
+        IndexedMinHeap backwardQueue = new IndexedMinHeap(n);
+        double[] forwardCosts = new double[n];
+        double[] backwardCosts = new double[n];
+        int[] forwardHomes = new int[n];
+        int[] backwardHomes = new int[n];
+        Arrays.fill(forwardCosts, Double.POSITIVE_INFINITY);
+        Arrays.fill(backwardCosts, Double.POSITIVE_INFINITY);
+
+        forwardCosts[startVertex.index] = 0;
+        forwardHomes[startVertex.index] = startVertex.index;
+        forwardQueue.insertOrDecrease(startVertex.index, 0);
+        backwardCosts[targetVertex.index] = 0;
+        backwardHomes[targetVertex.index] = targetVertex.index;
+        backwardQueue.insertOrDecrease(targetVertex.index, 0);
+
+        double bestCost = startVertex == targetVertex ? 0 : Double.POSITIVE_INFINITY;
+        Vertex meeting = startVertex;
+        int settledCount = 0;
+
+        while (forwardQueue.minKey() + backwardQueue.minKey() < bestCost) {
+            boolean forward = forwardQueue.minKey() <= backwardQueue.minKey();
+            IndexedMinHeap queue = forward ? forwardQueue : backwardQueue;
+            double[] costs = forward ? forwardCosts : backwardCosts;
+            double[] otherCosts = forward ? backwardCosts : forwardCosts;
+            int[] homes = forward ? forwardHomes : backwardHomes;
+
+            Vertex u = vertices.get(queue.pollMin());
+            settledCount++;
+
+            for (int i = 0; i < u.degree(); i++) {
+                Vertex v = u.getNeighbor(i);
+                double alt = costs[u.index] + u.getEdge(i).getNumData();
+                if (alt < costs[v.index]) {
+                    costs[v.index] = alt;
+                    homes[v.index] = u.index;
+                    queue.insertOrDecrease(v.index, alt);
+                }
+                if (costs[v.index] + otherCosts[v.index] < bestCost) {
+                    bestCost = costs[v.index] + otherCosts[v.index];
+                    meeting = v;
+                }
+            }
+        }
+
+        ArrayList<Vertex> path = new ArrayList<>();
+        if (bestCost != Double.POSITIVE_INFINITY) {
+            path = pathTo(forwardHomes, startVertex, meeting, forwardCosts);
+            Vertex current = meeting;
+            while (current != targetVertex) {
+                current = vertices.get(backwardHomes[current.index]);
+                path.add(current);
+            }
+        }
+        return new PathResult(bestCost, path, settledCount);
+    }
+
+    /**
+     * Follow homeward vertices back from the target to the start
+     *
+     * @param homes        index of the homeward vertex of each vertex
+     * @param startVertex  start of path
+     * @param targetVertex end of path
+     * @param costs        cost of each vertex, positive infinity if unreached
+     * @return vertices from start to target, empty if the target was not reached
+     */
+    private ArrayList<Vertex> pathTo(int[] homes, Vertex startVertex, Vertex targetVertex, double[] costs) {
+        ArrayList<Vertex> path = new ArrayList<>();
+        if (costs[targetVertex.index] == Double.POSITIVE_INFINITY) {
+            return path;
+        }
+        Vertex current = targetVertex;
+        while (current != startVertex) {
+            path.add(current);
+            current = vertices.get(homes[current.index]);
+        }
+        path.add(startVertex);
+        Collections.reverse(path);
+        return path;
+    }
+
+
 
 
     /**
@@ -359,36 +682,111 @@ public class Graph<V, E> {
 
 
     /**
-     * Remove a vertex
+     * Remove a vertex and its edges, in time proportional to the edges of the vertex and of its
+     * neighbors. The last vertex and the last edges of the graph's lists are moved into the
+     * freed positions, so the order of getVertices() and getEdges() changes.
      *
      * @param vertex vertex to remove
      */
     public void removeVertex(Vertex vertex) {
-        ArrayList<Edge> forRemove = new ArrayList<>(); //prevent concurrent modification
-        for (Edge e : edges) {
-            if (e.getSourceVertex() == vertex || e.getTargetVertex() == vertex) {
-                forRemove.add(e);
-                e.getSourceVertex().removeEdgeRef(e);
-                e.getTargetVertex().removeEdgeRef(e);
+        removeVertices(Collections.singletonList(vertex));
+    }
+
+    /**
+     * Remove a group of vertices and their edges, in time proportional to the edges of the
+     * removed vertices and of their neighbors
+     *
+     * @param group vertices to remove
+     */
+    public void removeVertices(Collection<Vertex> group) {
+        ArrayList<Vertex> removedVertices = new ArrayList<>();
+        HashSet<Edge> removedEdges = new HashSet<>();
+        HashSet<Vertex> affectedNeighbors = new HashSet<>();
+        for (Vertex vertex : group) {
+            if (!containsVertex(vertex)) {
+                continue;
+            }
+            for (Edge e : vertex.edges) {
+                if (removedEdges.add(e)) {
+                    affectedNeighbors.add(e.oppositeTo(vertex));
+                    edgeIndex.remove(e);
+                    removeFromEdgeList(e);
+                }
             }
+            vertexIndex.remove(vertex.getData());
+            removeFromVertexList(vertex);
+            removedVertices.add(vertex);
+            modificationCount++;
+        }
 
+        for (Vertex neighbor : affectedNeighbors) {
+            if (neighbor.index >= 0) {
+                neighbor.edges.removeIf(removedEdges::contains);
+            }
+        }
+        for (Vertex vertex : removedVertices) {
+            ArrayList<Edge> unreported = new ArrayList<>();
+            for (Edge e : vertex.edges) {
+                if (removedEdges.remove(e)) {
+                    unreported.add(e);
+                }
+            }
+            vertex.edges.clear();
+            for (GraphListener<V, E> listener : listeners) {
+                for (Edge e : unreported) {
+                    listener.edgeRemoved(e);
+                }
+                listener.vertexRemoved(vertex);
+            }
         }
-        vertices.remove(vertex);
-        edges.removeAll(forRemove);
     }
 
-
     /**
      * Remove an edge
      *
      * @param edge edge to remove
      */
     public void removeEdge(Edge edge) {
+        if (edge.index < 0 || edgeIndex.get(edge) != edge) {
+            return;
+        }
         edge.getSourceVertex().removeEdgeRef(edge);
         edge.getTargetVertex().removeEdgeRef(edge);
+        edgeIndex.remove(edge);
+        removeFromEdgeList(edge);
+        modificationCount++;
+        for (GraphListener<V, E> listener : listeners) {
+            listener.edgeRemoved(edge);
+        }
+    }
 
+    /**
+     * Take a vertex out of the list of vertices by moving the last vertex into its position
+     *
+     * @param vertex vertex in list
+     */
+    private void removeFromVertexList(Vertex vertex) {
+        Vertex last = vertices.remove(vertices.size() - 1);
+        if (last != vertex) {
+            vertices.set(vertex.index, last);
+            last.index = vertex.index;
+        }
+        vertex.index = -1;
+    }
 
-        edges.remove(edge);
+    /**
+     * Take an edge out of the list of edges by moving the last edge into its position
+     *
+     * @param edge edge in list
+     */
+    private void removeFromEdgeList(Edge edge) {
+        Edge last = edges.remove(edges.size() - 1);
+        if (last != edge) {
+            edges.set(edge.index, last);
+            last.index = edge.index;
+        }
+        edge.index = -1;
+        edge.detachData();
     }
 
     /**
@@ -405,6 +803,145 @@ public class Graph<V, E> {
     }
 
 
+    /**
+     * Add a listener to be told about changes to the graph
+     *
+     * @param listener listener to add
+     */
+    public void addGraphListener(GraphListener<V, E> listener) {
+        listeners.add(listener);
+    }
+
+    /**
+     * Stop telling a listener about changes to the graph
+     *
+     * @param listener listener to remove
+     */
+    public void removeGraphListener(GraphListener<V, E> listener) {
+        listeners.remove(listener);
+    }
+
+
+    /**
+     * Make an immutable compressed sparse row snapshot of the graph for read-heavy use.
+     * Later changes to the graph are not seen by the snapshot, except changes made inside
+     * vertex or edge data objects, which are shared.
+     *
+     * @return snapshot of graph
+     */
+    public FrozenGraph<V, E> freeze() {
+        int n = vertices.size();
+        int m = edges.size();
+
+        int[] edgeSources = new int[m];
+        int[] edgeTargets = new int[m];
+        for (int i = 0; i < m; i++) {
+            Edge e = edges.get(i);
+            edgeSources[i] = e.getSourceVertex().index;
+            edgeTargets[i] = e.getTargetVertex().index;
+        }
+
+        // arcs of each vertex in the order of its own edges, so traversals of the snapshot
+        // meet neighbors in the same order as traversals of the graph
+        int[] offsets = new int[n + 1];
+        for (int i = 0; i < n; i++) {
+            offsets[i + 1] = offsets[i] + vertices.get(i).degree();
+        }
+        int[] targets = new int[2 * m];
+        double[] weights = new double[2 * m];
+        int[] arcEdges = new int[2 * m];
+        for (int v = 0; v < n; v++) {
+            Vertex vertex = vertices.get(v);
+            for (int i = 0; i < vertex.degree(); i++) {
+                int arc = offsets[v] + i;
+                targets[arc] = vertex.getNeighbor(i).index;
+                weights[arc] = vertex.getEdge(i).getNumData();
+                arcEdges[arc] = vertex.getEdge(i).index;
+            }
+        }
+
+        return new FrozenGraph<>(new ArrayList<>(vertices), new ArrayList<>(edges), offsets, targets,
+                weights, arcEdges, edgeSources, edgeTargets);
+    }
+
+    /**
+     * Make a snapshot when only the data of some edges has changed since an earlier snapshot.
+     * The new snapshot shares everything but the weights with the earlier one.
+     *
+     * @param previous     earlier snapshot of this graph, made with no vertices or edges added
+     *                     or removed since
+     * @param changedEdges edges whose data has changed
+     * @return snapshot of graph
+     */
+    FrozenGraph<V, E> freeze(FrozenGraph<V, E> previous, Collection<Edge> changedEdges) {
+        int[] edgeIds = new int[changedEdges.size()];
+        double[] newWeights = new double[changedEdges.size()];
+        int count = 0;
+        for (Edge e : changedEdges) {
+            if (e.index >= 0) {
+                edgeIds[count] = e.index;
+                newWeights[count] = e.getNumData();
+                count++;
+            }
+        }
+        return previous.withEdgeWeights(edgeIds, newWeights, count);
+    }
+
+    /**
+     * Estimated heap size of the vertex, edge and index objects of the graph, assuming
+     * compressed references. Vertex and edge data objects are not counted.
+     *
+     * @return size in bytes
+     */
+    public long estimateMemoryFootprint() {
+        long bytes = listBytes(vertices.size()) + listBytes(edges.size());
+        bytes += hashMapBytes(vertexIndex.size()) + hashMapBytes(edgeIndex.size());
+        for (Vertex v : vertices) {
+            bytes += 24 + listBytes(v.edges.size()); //vertex and its edge list
+        }
+        bytes += 32L * edges.size();
+        return bytes;
+    }
+
+    /**
+     * Estimated heap size of an array
+     *
+     * @param length      number of elements
+     * @param elementSize size of one element in bytes
+     * @return size in bytes
+     */
+    static long arrayBytes(long length, int elementSize) {
+        return (16 + length * elementSize + 7) & ~7L;
+    }
+
+    /**
+     * Estimated heap size of an ArrayList, not counting its elements
+     *
+     * @param size number of elements
+     * @return size in bytes
+     */
+    static long listBytes(int size) {
+        return 24 + arrayBytes(size, 4);
+    }
+
+    /**
+     * Estimated heap size of a HashMap, not counting its keys and values
+     *
+     * @param size number of entries
+     * @return size in bytes
+     */
+    static long hashMapBytes(int size) {
+        long tableLength = 0;
+        if (size > 0) {
+            tableLength = 16;
+            while (tableLength * 3 / 4 < size) {
+                tableLength *= 2;
+            }
+        }
+        return 48 + (size > 0 ? arrayBytes(tableLength, 4) : 0) + 32L * size;
+    }
+
+
     /**
      * Prints a representation of the graph
      */
@@ -427,17 +964,24 @@ public class Graph<V, E> {
         /**
          * List of edges that the vertex contains
          */
-        private HashSet<Edge> edges;
+        private ArrayList<Edge> edges;
+
+        /**
+         * Position of vertex in the graph's list of vertices, -1 once removed
+         */
+        private int index;
 
 
         /**
          * Constructor for Vertex
          *
-         * @param data V
+         * @param data  V
+         * @param index position in list of vertices
          */
-        private Vertex(V data) {
+        private Vertex(V data, int index) {
             this.data = data;
-            this.edges = new HashSet<>();
+            this.index = index;
+            this.edges = new ArrayList<>();
         }
 
 
@@ -449,10 +993,41 @@ public class Graph<V, E> {
         }
 
         /**
+         * Replace the data of the vertex, unless another vertex of the graph already holds
+         * equal data. A removed vertex only has its field replaced, the graph is not touched.
+         *
          * @param data V
+         * @return true if the data was replaced, false if another vertex holds equal data
          */
-        public void setData(V data) {
+        public boolean setData(V data) {
+            if (index < 0) {
+                this.data = data;
+                return true;
+            }
+            Vertex holder = vertexIndex.get(data);
+            if (holder != null && holder != this) {
+                return false;
+            }
+            if (vertexIndex.get(this.data) == this) {
+                vertexIndex.remove(this.data);
+            }
+            vertexIndex.put(data, this);
             this.data = data;
+            dataChanged();
+            return true;
+        }
+
+        /**
+         * Tell the graph's listeners that the data of this vertex was changed in place. Nothing
+         * is told once the vertex has been removed.
+         */
+        public void dataChanged() {
+            if (index < 0) {
+                return;
+            }
+            for (GraphListener<V, E> listener : listeners) {
+                listener.vertexChanged(this);
+            }
         }
 
         /**
@@ -478,17 +1053,55 @@ public class Graph<V, E> {
          * @return edge containing neighbor
          */
         public Edge edgeTo(Vertex vertex) {
-            for (Edge e : edges) {
-                if (e.getTargetVertex() == vertex) {
-                    return e;
-                }
-                if (e.getSourceVertex() == vertex) {
+            for (int i = 0; i < edges.size(); i++) {
+                Edge e = edges.get(i);
+                if (e.getTargetVertex() == vertex || e.getSourceVertex() == vertex) {
                     return e;
                 }
             }
             return null;
         }
 
+        /**
+         * Get the position of the vertex in the graph's list of vertices. Removing another
+         * vertex may move this one into the removed vertex's position.
+         *
+         * @return index of vertex, -1 once removed
+         */
+        public int getIndex() {
+            return index;
+        }
+
+        /**
+         * Get the number of edges of a vertex. Together with getEdge(i) and getNeighbor(i) this
+         * walks the neighbors of a vertex without allocating anything.
+         *
+         * @return number of edges
+         */
+        public int degree() {
+            return edges.size();
+        }
+
+        /**
+         * Accessor for edge of vertex by index
+         *
+         * @param i index between 0 and degree() - 1
+         * @return i-th edge of vertex
+         */
+        public Edge getEdge(int i) {
+            return edges.get(i);
+        }
+
+        /**
+         * Accessor for neighbor of vertex by index
+         *
+         * @param i index between 0 and degree() - 1
+         * @return vertex at the other end of the i-th edge
+         */
+        public Vertex getNeighbor(int i) {
+            return edges.get(i).oppositeTo(this);
+        }
+
         /**
          * Get the neighbors of a vertex
          *
@@ -496,12 +1109,8 @@ public class Graph<V, E> {
          */
         public HashSet<Vertex> getNeighbors() {
             HashSet<Vertex> neighbors = new HashSet<>();
-            for (Edge e : edges) {
-                if (e.getTargetVertex().getData() != data) {
-                    neighbors.add(e.getTargetVertex());
-                } else if (e.getSourceVertex().getData() != data) {
-                    neighbors.add(e.getSourceVertex());
-                }
+            for (int i = 0; i < edges.size(); i++) {
+                neighbors.add(getNeighbor(i));
             }
 
 
@@ -551,6 +1160,11 @@ public class Graph<V, E> {
          */
         private E data;
 
+        /**
+         * Position of edge in the graph's list of edges, -1 if not in the graph
+         */
+        private int index;
+
         /**
          * Constructor for new edge
          *
@@ -561,6 +1175,7 @@ public class Graph<V, E> {
             this.data = data;
             this.sourceVertex = sourceVertex;
             this.targetVertex = targetVertex;
+            this.index = -1;
         }
 
 
@@ -583,6 +1198,16 @@ public class Graph<V, E> {
             return targetVertex;
         }
 
+        /**
+         * Get the position of the edge in the graph's list of edges. Removing another edge may
+         * move this one into the removed edge's position.
+         *
+         * @return index of edge, -1 once removed
+         */
+        public int getIndex() {
+            return index;
+        }
+
 
         /**
          * Get the opposite of a vertex on an edge
@@ -613,7 +1238,7 @@ public class Graph<V, E> {
          *
          * @return numerical edge data
          */
-        private double getNumData() {
+        double getNumData() {
             double numData = 0;
             if (data instanceof Number) {
                 numData = ((Number) data).doubleValue();
@@ -627,7 +1252,44 @@ public class Graph<V, E> {
          * @param data information for edge
          */
         public void setData(E data) {
+            detachData();
             this.data = data;
+            if (index >= 0) {
+                attachData();
+            }
+            dataChanged();
+        }
+
+        /**
+         * Have the data of this edge report its changes made in place, if it can
+         */
+        private void attachData() {
+            if (data instanceof NotifyingData) {
+                ((NotifyingData) data).setOnChange(this::dataChanged);
+            }
+        }
+
+        /**
+         * Stop the data of this edge from reporting its changes to this edge
+         */
+        private void detachData() {
+            if (data instanceof NotifyingData) {
+                ((NotifyingData) data).setOnChange(null);
+            }
+        }
+
+        /**
+         * Tell the graph's listeners that the data of this edge was changed in place. Data that
+         * is NotifyingData calls this itself. Nothing is told once the edge has been removed.
+         */
+        public void dataChanged() {
+            if (index < 0) {
+                return;
+            }
+            modificationCount++;
+            for (GraphListener<V, E> listener : listeners) {
+                listener.edgeChanged(this);
+            }
         }
 
 
@@ -730,11 +1392,71 @@ public class Graph<V, E> {
          * @param newCost new cost
          * @param newHome new homeward vertex
          */
-        private void setCostHome(double newCost, Vertex newHome) {
+        void setCostHome(double newCost, Vertex newHome) {
             home = newHome;
             cost = newCost;
         }
 
 
     }
+
+
+    /**
+     * PathResult keeps the cost and vertices of a path together with the number of vertices
+     * the search settled to find it
+     */
+    public class PathResult {
+
+        /**
+         * Cost of the path
+         */
+        private double cost;
+
+        /**
+         * Vertices of the path from start to end
+         */
+        private ArrayList<Vertex> path;
+
+        /**
+         * Number of vertices settled by the search
+         */
+        private int settledCount;
+
+
+        /**
+         * Constructor for PathResult
+         * @param cost cost of the path, positive infinity if there is none
+         * @param path vertices from start to end, empty if there is no path
+         * @param settledCount number of vertices settled by the search
+         */
+        public PathResult(double cost, ArrayList<Vertex> path, int settledCount) {
+            this.cost = cost;
+            this.path = path;
+            this.settledCount = settledCount;
+        }
+
+        /**
+         * Accessor for cost
+         * @return cost, positive infinity if there is no path
+         */
+        public double getCost() {
+            return cost;
+        }
+
+        /**
+         * Accessor for path
+         * @return vertices from start to end, empty if there is no path
+         */
+        public ArrayList<Vertex> getPath() {
+            return path;
+        }
+
+        /**
+         * Accessor for number of vertices settled
+         * @return settled count
+         */
+        public int getSettledCount() {
+            return settledCount;
+        }
+    }
 }
@@ -1,8 +1,21 @@
 import javax.swing.*;
 import java.awt.*;
+import java.awt.image.BufferedImage;
 import java.io.*;
+import java.util.AbstractMap;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Consumer;
+import java.util.function.DoubleConsumer;
+import java.util.function.IntFunction;
+import java.util.function.IntToDoubleFunction;
 
 /**
  * Implements a graphical canvas that displays a list of points.
@@ -18,6 +31,180 @@ class GraphCanvas extends JComponent {
      **/
     private Graph<VertexData, EdgeData> graph;
 
+    /**
+     * Vertex of each name in the graph
+     */
+    private HashMap<String, Graph<VertexData, EdgeData>.Vertex> names;
+
+    /**
+     * Versions of the graph for queries that run on a snapshot
+     */
+    private VersionedGraph<VertexData, EdgeData> versions;
+
+    /**
+     * Shortest path trees kept up to date for registered sources, least recently used first
+     */
+    private LinkedHashMap<Graph<VertexData, EdgeData>.Vertex, DynamicShortestPathTree<VertexData, EdgeData>> trees;
+
+    /**
+     * Distances from recently used start vertices, indexed by vertex index
+     */
+    private QueryCache<Graph<VertexData, EdgeData>.Vertex, double[]> distanceCache;
+
+    /**
+     * Recently found shortest paths by start and end vertex
+     */
+    private QueryCache<Map.Entry<Graph<VertexData, EdgeData>.Vertex, Graph<VertexData, EdgeData>.Vertex>,
+            Graph<VertexData, EdgeData>.PathResult> pathCache;
+
+    /**
+     * Heuristic of shortest path searches, the straight-line distance scaled so that it never
+     * overestimates on the graph, or null if a vertex has moved since it was scaled
+     */
+    private EuclideanHeuristic heuristic;
+
+    /**
+     * Modification count of the graph when the heuristic was scaled
+     */
+    private long heuristicCount;
+
+    /**
+     * Index of vertex locations for hit-testing
+     */
+    private VertexGrid grid;
+
+    /**
+     * Index of edge lines for culling
+     */
+    private EdgeGrid edgeGrid;
+
+    /**
+     * Rendered tiles of the graph at each zoom level
+     */
+    private TileCache tiles;
+
+    /**
+     * Level of detail the tiles of each zoom level were drawn with
+     */
+    private final HashMap<Integer, Integer> tileDetail = new HashMap<>();
+
+    /**
+     * Zoom level, the scale being ZOOM_STEP to this power
+     */
+    private int zoomLevel;
+
+    /**
+     * Screen x coordinate of the world origin, negated
+     */
+    private int panX;
+
+    /**
+     * Screen y coordinate of the world origin, negated
+     */
+    private int panY;
+
+    /**
+     * Number of beginBatch calls not yet matched by endBatch
+     */
+    private int batchDepth;
+
+    /**
+     * Area of the screen waiting to be repainted, null if none
+     */
+    private Rectangle dirty;
+
+    /**
+     * Whether a repaint of the dirty area has been scheduled
+     */
+    private boolean flushScheduled;
+
+    /**
+     * x coordinates of the polygon being drawn
+     */
+    private final int[] polygonX = new int[4];
+
+    /**
+     * y coordinates of the polygon being drawn
+     */
+    private final int[] polygonY = new int[4];
+
+    /**
+     * Font of labels
+     */
+    private static final Font LABEL_FONT = new Font("TimesRoman", Font.BOLD, 12);
+
+    /**
+     * Distance around the clip rectangle within which elements are drawn, so that labels and
+     * circles reaching into it are not cut
+     */
+    private static final int CULL_MARGIN = 100;
+
+    /**
+     * Width and height of a cell of the edge grid
+     */
+    private static final int EDGE_CELL_SIZE = 64;
+
+    /**
+     * Most elements visible for labels to be drawn
+     */
+    private static final int LABEL_LIMIT = 2000;
+
+    /**
+     * Most elements visible for edges to be drawn as bars and every vertex to be drawn
+     */
+    private static final int CLUSTER_LIMIT = 50000;
+
+    /**
+     * Width and height in pixels of the squares whose elements are drawn once when clustered
+     */
+    private static final int CLUSTER_SIZE = 3;
+
+    /**
+     * Level of detail with edges as bars, vertices as circles and labels
+     */
+    private static final int DETAIL_LABELS = 0;
+
+    /**
+     * Level of detail with edges as bars and vertices as circles
+     */
+    private static final int DETAIL_SHAPES = 1;
+
+    /**
+     * Level of detail with edges as thin lines and vertices clustered
+     */
+    private static final int DETAIL_CLUSTERED = 2;
+
+    /**
+     * Most rendered tiles held
+     */
+    private static final int MAX_TILES = 128;
+
+    /**
+     * Scale between neighboring zoom levels
+     */
+    public static final double ZOOM_STEP = 1.25;
+
+    /**
+     * Lowest zoom level
+     */
+    public static final int MIN_ZOOM_LEVEL = -16;
+
+    /**
+     * Highest zoom level
+     */
+    public static final int MAX_ZOOM_LEVEL = 8;
+
+    /**
+     * Most shortest path trees kept up to date for the start vertices of distance queries
+     */
+    private static final int MAX_TREES = 4;
+
+
+    /**
+     * Memory budget of each query cache in bytes
+     */
+    public static final long QUERY_CACHE_BYTES = 32L << 20;
+
     /**
      * Diameter of vertex
      */
@@ -39,6 +226,15 @@ class GraphCanvas extends JComponent {
      */
     public GraphCanvas() {
         graph = new Graph<>();
+        names = new HashMap<>();
+        versions = new VersionedGraph<>(graph);
+        trees = new LinkedHashMap<>(16, 0.75f, true);
+        distanceCache = new QueryCache<>(graph, QUERY_CACHE_BYTES);
+        pathCache = new QueryCache<>(graph, QUERY_CACHE_BYTES);
+        heuristic = null;
+        grid = new VertexGrid(graph, DIAMETER);
+        edgeGrid = new EdgeGrid(graph, EDGE_CELL_SIZE);
+        tiles = new TileCache(MAX_TILES);
         setMinimumSize(new Dimension(700, 600));
         setPreferredSize(new Dimension(700, 600));
 
@@ -46,69 +242,52 @@ class GraphCanvas extends JComponent {
 
 
     /**
-     * Imports a graph from file
+     * Imports a graph from file, repainting once when done. Files with the binary extension
+     * are read as BinaryGraphFormat, others as text.
      *
      * @param filename name of file
      */
     public void importGraph(String filename) {
+        beginBatch();
         try {
-            BufferedReader buff = new BufferedReader(new FileReader(filename));
-            String currentLine;
-            while ((currentLine = buff.readLine()) != null) {
-                String[] currentSplit = currentLine.split("\\s");
-                if (currentLine.startsWith("v")) {
-                    addVertex(new Point(Integer.parseInt(currentSplit[1]), Integer.parseInt(currentSplit[2])), currentSplit[3]);
-                } else if (currentLine.startsWith("e")) {
-                    VertexData v1 = getVertexData(currentSplit[2]);
-                    VertexData v2 = getVertexData(currentSplit[3]);
-                    if (v1 != null && v2 != null) {
-                        EdgeData newEdgeData = new EdgeData(Double.parseDouble(currentSplit[1]), DEFAULT_E_COLOR);
-                        addEdge(newEdgeData, graph.getVertex(v1), graph.getVertex(v2));
-
-                    }
+            if (BinaryGraphFormat.isBinary(filename)) {
+                try (MappedGraph mapped = MappedGraph.open(filename, true)) {
+                    mapped.addTo(graph, names, DEFAULT_V_COLOR, DEFAULT_E_COLOR);
+                } catch (IOException e) {
+                    System.out.println("Problem loading file");
                 }
+                return;
             }
 
-        } catch (IOException e) {
-            System.out.println("Problem loading file");
+            try {
+                new GraphImporter(DEFAULT_V_COLOR, DEFAULT_E_COLOR, ForkJoinPool.commonPool()).read(filename, graph, names);
+            } catch (IOException e) {
+                System.out.println("Problem loading file");
+            }
+        } finally {
+            damageAll();
+            endBatch();
         }
     }
 
     /**
-     * Exports graph in canvas
+     * Exports graph in canvas. Files with the binary extension are written as
+     * BinaryGraphFormat, others as text, gzip-compressed if the name ends in .gz.
      *
      * @param filename new file to write
      */
     public void exportGraph(String filename) {
-
-        StringBuilder builder = new StringBuilder();
-
-        for (Graph<VertexData, EdgeData>.Vertex v : graph.getVertices()) {
-            builder.append("v");
-            builder.append(" ");
-            builder.append((int) v.getData().getPoint().getX());
-            builder.append(" ");
-            builder.append((int) v.getData().getPoint().getY());
-            builder.append(" ");
-            builder.append(v.getData().getString());
-            builder.append("\n");
-        }
-
-        for (Graph<VertexData, EdgeData>.Edge e : graph.getEdges()) {
-            builder.append("e");
-            builder.append(" ");
-            builder.append(e.getData().getLength());
-            builder.append(" ");
-            builder.append(e.getSourceVertex().getData().getString());
-            builder.append(" ");
-            builder.append(e.getTargetVertex().getData().getString());
-            builder.append("\n");
+        if (BinaryGraphFormat.isBinary(filename)) {
+            try {
+                BinaryGraphFormat.write(graph, filename);
+            } catch (IOException e) {
+                System.out.println("Problem writing file");
+            }
+            return;
         }
 
         try {
-            BufferedWriter writer = new BufferedWriter(new FileWriter(filename));
-            writer.write(builder.toString());
-            writer.close();
+            new GraphExporter(ForkJoinPool.commonPool()).write(graph, filename);
         } catch (IOException e) {
             System.out.println("Problem writing file");
         }
@@ -140,12 +319,8 @@ class GraphCanvas extends JComponent {
      * @return vertex data
      */
     private VertexData getVertexData(String name) {
-        for (Graph<VertexData, EdgeData>.Vertex v : getVertices()) {
-            if (v.getData().getString().equals(name)) {
-                return v.getData();
-            }
-        }
-        return null;
+        Graph<VertexData, EdgeData>.Vertex v = names.get(name);
+        return v == null ? null : v.getData();
     }
 
 
@@ -157,8 +332,9 @@ class GraphCanvas extends JComponent {
     public void addVertex(Point p, String name) {
         VertexData newData = new VertexData(p, name, DEFAULT_V_COLOR);
         if (getVertexData(newData.getString()) == null) { //make sure no shared name
-            graph.addVertex(newData);
-            repaint();
+            Graph<VertexData, EdgeData>.Vertex vertex = graph.addVertex(newData);
+            names.put(name, vertex);
+            damage(vertexBounds(vertex));
         } else {
             Toolkit.getDefaultToolkit().beep();
         }
@@ -170,8 +346,32 @@ class GraphCanvas extends JComponent {
      * @param vertex vertex to remove
      */
     public void removeVertex(Graph<VertexData, EdgeData>.Vertex vertex) {
+        names.remove(vertex.getData().getString());
+        unregisterSource(vertex);
+        Rectangle reach = reachBounds(vertex);
         graph.removeVertex(vertex);
-        repaint();
+        damage(reach);
+    }
+
+    /**
+     * Find the vertex drawn at a location
+     *
+     * @param x x coordinate
+     * @param y y coordinate
+     * @return nearest vertex closer than DIAMETER, or null if there is none
+     */
+    public Graph<VertexData, EdgeData>.Vertex findVertex(int x, int y) {
+        return grid.nearest(x, y, DIAMETER);
+    }
+
+    /**
+     * Find the vertices located inside a rectangle
+     *
+     * @param area rectangle to search
+     * @return vertices inside the rectangle
+     */
+    public ArrayList<Graph<VertexData, EdgeData>.Vertex> getVerticesIn(Rectangle area) {
+        return grid.inside(area);
     }
 
     /**
@@ -182,8 +382,10 @@ class GraphCanvas extends JComponent {
      * @param v2   ending vertex
      */
     public void addEdge(EdgeData data, Graph<VertexData, EdgeData>.Vertex v1, Graph<VertexData, EdgeData>.Vertex v2) {
-        graph.addEdge(data, v1, v2);
-        repaint();
+        Graph<VertexData, EdgeData>.Edge edge = graph.addEdge(data, v1, v2);
+        if (edge != null) {
+            damage(edgeBounds(edge));
+        }
     }
 
     /**
@@ -193,8 +395,11 @@ class GraphCanvas extends JComponent {
      * @param v2 ending vertex
      */
     public void removeEdge(Graph<VertexData, EdgeData>.Vertex v1, Graph<VertexData, EdgeData>.Vertex v2) {
-        graph.removeEdge(v1, v2);
-        repaint();
+        Graph<VertexData, EdgeData>.Edge edge = graph.getEdgeRef(v1, v2);
+        if (edge != null) {
+            graph.removeEdge(edge);
+            damage(edgeBounds(edge));
+        }
     }
 
 
@@ -209,8 +414,11 @@ class GraphCanvas extends JComponent {
      * @param p      position to move to
      */
     public void moveVertex(Graph<VertexData, EdgeData>.Vertex vertex, Point p) {
+        damage(reachBounds(vertex));
         vertex.getData().setPoint(p);
-        repaint();
+        vertex.dataChanged();
+        heuristic = null;
+        damage(reachBounds(vertex));
     }
 
 
@@ -223,8 +431,11 @@ class GraphCanvas extends JComponent {
     public void changeVertexName(Graph<VertexData, EdgeData>.Vertex vertex, String s) {
 
         if (getVertexData(s) == null) {
+            names.remove(vertex.getData().getString());
             vertex.getData().setName(s);
-            repaint();
+            vertex.dataChanged();
+            names.put(s, vertex);
+            damage(vertexBounds(vertex));
         } else {
             Toolkit.getDefaultToolkit().beep();
         }
@@ -241,167 +452,827 @@ class GraphCanvas extends JComponent {
         Graph<VertexData, EdgeData>.Edge edgeChanged = graph.getEdgeRef(v1, v2);
         if (edgeChanged != null) {
             edgeChanged.getData().setLength(Double.parseDouble(s));
+            damage(edgeBounds(edgeChanged));
         }
-        repaint();
     }
 
     /**
-     * Traverse through the graph depth-first
+     * Change color of edge when traversing
      *
-     * @param start beginning point for traversal
+     * @param e edge to color
+     */
+    private void colorTraversal(Graph<VertexData, EdgeData>.Edge e) {
+        e.getData().setColor(Color.white);
+        e.getSourceVertex().getData().setColor(Color.white);
+        e.getTargetVertex().getData().setColor(Color.white);
+        damage(edgeBounds(e));
+
+    }
+
+    /**
+     * Set colors back to original color after traversing
      */
-    public void depthFirstTraversal(Graph<VertexData, EdgeData>.Vertex start) {
-        ArrayList<Graph<VertexData, EdgeData>.Edge> traversedEdges = graph.depthFirstTraversal(start);
-        System.out.println("---Depth First Traversal---");
-        for (Graph<VertexData, EdgeData>.Edge e : traversedEdges) {
-            System.out.println(e);
-            colorTraversal(e);
+    public void clearTraversal() {
+        for (Graph<VertexData, EdgeData>.Edge e : getEdges()) {
+            e.getData().setColor(DEFAULT_E_COLOR);
         }
-        System.out.println("\n");
 
+        for (Graph<VertexData, EdgeData>.Vertex v : getVertices()) {
+            v.getData().setColor(DEFAULT_V_COLOR);
+        }
+        damageAll();
+    }
 
+    /**
+     * Keep a shortest path tree from a source up to date as edge costs change, instead of
+     * running doDijkstra again after every change
+     *
+     * @param source source vertex
+     * @return tree from the source, shared by every caller registering it
+     */
+    public DynamicShortestPathTree<VertexData, EdgeData> registerSource(Graph<VertexData, EdgeData>.Vertex source) {
+        DynamicShortestPathTree<VertexData, EdgeData> tree = trees.get(source);
+        if (tree == null) {
+            tree = new DynamicShortestPathTree<>(graph, source);
+            keepTree(tree);
+        }
+        return tree;
     }
 
     /**
-     * Traverse through the graph breadth-first
+     * Keep a shortest path tree up to date, dropping the least recently used trees beyond
+     * MAX_TREES
      *
-     * @param start beginning point for traversal
+     * @param tree tree spanning the graph
      */
-    public void breadFirstTraversal(Graph<VertexData, EdgeData>.Vertex start) {
-        ArrayList<Graph<VertexData, EdgeData>.Edge> traversedEdges = graph.breadthFirstTraversal(start);
-        System.out.println("---Breadth First Traversal---");
-        for (Graph<VertexData, EdgeData>.Edge e : traversedEdges) {
-            System.out.println(e);
-            colorTraversal(e);
+    private void keepTree(DynamicShortestPathTree<VertexData, EdgeData> tree) {
+        unregisterSource(tree.getSource());
+        graph.addGraphListener(tree);
+        trees.put(tree.getSource(), tree);
+        Iterator<DynamicShortestPathTree<VertexData, EdgeData>> it = trees.values().iterator();
+        while (trees.size() > MAX_TREES && it.hasNext()) {
+            graph.removeGraphListener(it.next());
+            it.remove();
         }
-        System.out.println("\n");
     }
 
     /**
-     * Change color of edge when doing breadFirstTraversal and depthFirstTraversal
+     * Stop keeping the shortest path tree from a source
      *
-     * @param e edge to color
+     * @param source source vertex
      */
-    private void colorTraversal(Graph<VertexData, EdgeData>.Edge e) {
-        e.getData().setColor(Color.white);
-        e.getSourceVertex().getData().setColor(Color.white);
-        e.getTargetVertex().getData().setColor(Color.white);
-        repaint();
+    public void unregisterSource(Graph<VertexData, EdgeData>.Vertex source) {
+        DynamicShortestPathTree<VertexData, EdgeData> tree = trees.remove(source);
+        if (tree != null) {
+            graph.removeGraphListener(tree);
+        }
+    }
 
+    /**
+     * Get the hit, miss and eviction statistics of the query caches
+     *
+     * @return statistics as string
+     */
+    public String getCacheStatistics() {
+        return "distances " + distanceCache + "\npaths " + pathCache;
     }
 
     /**
-     * Set colors back to original color after traversing
+     * Pin the current version of the graph, for queries that run while the graph is edited
+     *
+     * @return pin, to be closed when done
      */
-    public void clearTraversal() {
-        for (Graph<VertexData, EdgeData>.Edge e : getEdges()) {
-            e.getData().setColor(DEFAULT_E_COLOR);
+    public VersionedGraph<VertexData, EdgeData>.Pin pinGraph() {
+        return versions.pin();
+    }
+
+    /**
+     * Color the vertices of a path and the edges between them. Vertices and edges removed
+     * since the path was found are skipped.
+     *
+     * @param path vertices of path in order
+     */
+    private void colorPath(ArrayList<Graph<VertexData, EdgeData>.Vertex> path) {
+        beginBatch();
+        try {
+            for (int i = 0; i < path.size(); i++) {
+                Graph<VertexData, EdgeData>.Vertex v = path.get(i);
+                if (v.getIndex() < 0) {
+                    continue;
+                }
+                v.getData().setColor(Color.white);
+                damage(vertexBounds(v));
+                Graph<VertexData, EdgeData>.Edge e = i == 0 ? null : getEdgeRef(path.get(i - 1), v);
+                if (e != null) {
+                    e.getData().setColor(Color.white);
+                    damage(edgeBounds(e));
+                }
+            }
+        } finally {
+            endBatch();
         }
+    }
 
-        for (Graph<VertexData, EdgeData>.Vertex v : getVertices()) {
-            v.getData().setColor(DEFAULT_V_COLOR);
+    /**
+     * Find the shortest distances from a vertex to every other, then color every vertex. The
+     * last few start vertices keep a shortest path tree that is repaired as edge lengths
+     * change, and are answered from it at once, and distances found since the graph last
+     * changed are answered from the distance cache. Otherwise the search runs on a background
+     * thread, on the current version of the graph, and if the graph has not changed meanwhile
+     * its result is cached and becomes the tree of the start vertex. The distances are printed
+     * from the thread that finds them.
+     *
+     * @param start   starting vertex
+     * @param service service running the search
+     */
+    public void shortestDistances(Graph<VertexData, EdgeData>.Vertex start, AlgorithmService service) {
+        DynamicShortestPathTree<VertexData, EdgeData> tree = trees.get(start);
+        if (tree != null && !tree.isStale()) {
+            service.cancel();
+            System.out.println(distanceReport(graph.numVertex(), graph::getVertex, v -> tree.getCost(graph.getVertex(v))));
+            colorDistances(graph.numVertex(), graph::getVertex);
+            return;
+        }
+        double[] cached = distanceCache.getIfPresent(start);
+        if (cached != null) {
+            service.cancel();
+            System.out.println(distanceReport(cached.length, graph::getVertex, v -> cached[v]));
+            colorDistances(cached.length, graph::getVertex);
+            return;
+        }
+        unregisterSource(start);
+
+        Graph<VertexData, EdgeData> searchedGraph = graph;
+        QueryCache<Graph<VertexData, EdgeData>.Vertex, double[]> cache = distanceCache;
+        long modificationCount = graph.getModificationCount();
+        VersionedGraph<VertexData, EdgeData>.Pin pin = versions.pin();
+        FrozenGraph<VertexData, EdgeData> searched = pin.getGraph();
+        double[] dist = new double[searched.numVertex()];
+        int[] parentEdges = new int[searched.numVertex()];
+        int id = searched.getId(start);
+        service.run("Shortest distances", pin, (snapshot, progress) -> {
+            IndexedMinHeap heap = SearchWorkspace.forThread(dist.length).getHeap();
+            snapshot.doDijkstra(id, -1, dist, parentEdges, heap, progress);
+            System.out.println(distanceReport(dist.length, snapshot::getVertex, v -> dist[v]));
+            return dist;
+        }, distances -> {
+            cache.put(start, distances, d -> Graph.arrayBytes(d.length, 8), modificationCount);
+            if (graph == searchedGraph && graph.getModificationCount() == modificationCount && start.getIndex() >= 0) {
+                keepTree(new DynamicShortestPathTree<>(graph, start, searched, dist, parentEdges));
+            }
+            colorDistances(distances.length, searched::getVertex);
+        });
+    }
+
+    /**
+     * List the distance of every vertex as printed by shortestDistances
+     *
+     * @param count    number of vertices
+     * @param vertex   vertex of each id
+     * @param distance distance of each id
+     * @return distances, one vertex a line
+     */
+    private static String distanceReport(int count, IntFunction<Graph<VertexData, EdgeData>.Vertex> vertex,
+                                         IntToDoubleFunction distance) {
+        StringBuilder out = new StringBuilder("---Distances---\n");
+        for (int v = 0; v < count; v++) {
+            out.append(vertex.apply(v)).append(' ').append(distance.applyAsDouble(v)).append('\n');
         }
-        repaint();
+        return out.toString();
     }
 
     /**
-     * Use doDijkstra algorithm to find shortest shortestDistances from each vertex to the start
+     * Color the vertices found by shortestDistances that are still in the graph
      *
-     * @param start starting vertex
+     * @param count  number of vertices
+     * @param vertex vertex of each id
      */
-    public void shortestDistances(Graph<VertexData, EdgeData>.Vertex start) {
+    private void colorDistances(int count, IntFunction<Graph<VertexData, EdgeData>.Vertex> vertex) {
+        beginBatch();
+        try {
+            for (int v = 0; v < count; v++) {
+                if (vertex.apply(v).getIndex() >= 0) {
+                    vertex.apply(v).getData().setColor(Color.white);
+                }
+            }
+            damageAll();
+        } finally {
+            endBatch();
+        }
+    }
 
-        HashMap<Graph<VertexData, EdgeData>.Vertex, Graph<VertexData, EdgeData>.CostHomePair> dijkstra = graph.doDijkstra(start);
-        HashMap<Graph<VertexData, EdgeData>.Vertex, Double> distances = graph.getDistances(dijkstra);
+    /**
+     * Find the shortest path between two vertices, then color it. Paths found since the graph
+     * last changed are answered from the path cache. Otherwise an A* search, with the
+     * straight-line distance scaled by getHeuristic() as heuristic, runs on a background thread
+     * on the current version of the graph, and its path is cached if the graph has not changed
+     * meanwhile.
+     *
+     * @param start   starting point
+     * @param end     ending point
+     * @param service service running the search
+     * @param cost    receives the cost of the path on the event dispatch thread, positive
+     *                infinity if there is none
+     */
+    public void shortestPath(Graph<VertexData, EdgeData>.Vertex start, Graph<VertexData, EdgeData>.Vertex end,
+                             AlgorithmService service, DoubleConsumer cost) {
+        Map.Entry<Graph<VertexData, EdgeData>.Vertex, Graph<VertexData, EdgeData>.Vertex> key =
+                new AbstractMap.SimpleImmutableEntry<>(start, end);
+        Graph<VertexData, EdgeData>.PathResult cached = pathCache.getIfPresent(key);
+        if (cached != null) {
+            service.cancel();
+            colorPath(cached.getPath());
+            cost.accept(cached.getCost());
+            return;
+        }
 
-        System.out.println("---Distances---");
+        Graph<VertexData, EdgeData> searched = graph;
+        QueryCache<Map.Entry<Graph<VertexData, EdgeData>.Vertex, Graph<VertexData, EdgeData>.Vertex>,
+                Graph<VertexData, EdgeData>.PathResult> cache = pathCache;
+        long modificationCount = graph.getModificationCount();
+        EuclideanHeuristic scaled = getHeuristic();
+        VersionedGraph<VertexData, EdgeData>.Pin pin = versions.pin();
+        int source = pin.getGraph().getId(start);
+        int target = pin.getGraph().getId(end);
+        service.run("Shortest path", pin, (snapshot, progress) -> {
+            SearchWorkspace workspace = SearchWorkspace.forThread(snapshot.numVertex());
+            double[] dist = workspace.getDist();
+            int[] parentEdges = workspace.getParentEdges();
+            int settled = snapshot.aStar(source, target, scaled, dist, parentEdges,
+                    workspace.getHeap(), progress);
+
+            ArrayList<Graph<VertexData, EdgeData>.Vertex> path = new ArrayList<>();
+            if (dist[target] != Double.POSITIVE_INFINITY) {
+                for (int v = target; v >= 0; v = parentEdges[v] < 0 ? -1 : snapshot.oppositeTo(parentEdges[v], v)) {
+                    path.add(snapshot.getVertex(v));
+                }
+                Collections.reverse(path);
+            }
+            return searched.new PathResult(dist[target], path, settled);
+        }, result -> {
+            cache.put(key, result, r -> 32 + Graph.listBytes(r.getPath().size()), modificationCount);
+            colorPath(result.getPath());
+            cost.accept(result.getCost());
+        });
+    }
 
-        for (Graph<VertexData, EdgeData>.Vertex v : distances.keySet()) {
-            System.out.println(v + " " + dijkstra.get(v).getCost());
-            v.getData().setColor(Color.white);
+    /**
+     * Get the heuristic of shortest path searches, scaling it again if the graph has changed
+     * or a vertex has moved since it was last scaled. With edges shorter than the distance
+     * between their endpoints, such as the new edges of length 0, the scale drops below 1, down
+     * to 0 where the search is Dijkstra's algorithm.
+     *
+     * @return heuristic that never overestimates on the current graph
+     */
+    private EuclideanHeuristic getHeuristic() {
+        if (heuristic == null || heuristicCount != graph.getModificationCount()) {
+            heuristic = new EuclideanHeuristic(EuclideanHeuristic.admissibleScale(graph));
+            heuristicCount = graph.getModificationCount();
         }
+        return heuristic;
+    }
 
-        System.out.println("\n");
+    /**
+     * Traverse the graph from a vertex on a background thread, on the current version of the
+     * graph, then color the traversed edges. The edges are printed from the background thread.
+     *
+     * @param start      beginning point for traversal
+     * @param depthFirst whether to traverse depth-first rather than breadth-first
+     * @param service    service running the traversal
+     */
+    public void traverse(Graph<VertexData, EdgeData>.Vertex start, boolean depthFirst, AlgorithmService service) {
+        VersionedGraph<VertexData, EdgeData>.Pin pin = versions.pin();
+        String name = depthFirst ? "Depth First Traversal" : "Breadth First Traversal";
+        int id = pin.getGraph().getId(start);
+        service.run(name, pin, (snapshot, progress) -> {
+            int[] edgeIds = depthFirst ? snapshot.depthFirstTraversal(id, progress)
+                    : snapshot.breadthFirstTraversal(id, progress);
+            StringBuilder out = new StringBuilder("---" + name + "---\n");
+            for (int e : edgeIds) {
+                out.append(snapshot.getEdge(e)).append('\n');
+            }
+            System.out.println(out);
+            return edgeIds;
+        }, edgeIds -> {
+            FrozenGraph<VertexData, EdgeData> snapshot = pin.getGraph();
+            beginBatch();
+            try {
+                for (int e : edgeIds) {
+                    if (snapshot.getEdge(e).getIndex() >= 0) {
+                        colorTraversal(snapshot.getEdge(e));
+                    }
+                }
+            } finally {
+                endBatch();
+            }
+        });
+    }
 
-        repaint();
+    /**
+     * Import a graph from file on a background thread, then add it to the graph in one step.
+     * The file is read into a separate graph holding a stand-in for each vertex of the canvas,
+     * so that its edges may name them as in importGraph(String); its vertices whose names
+     * are free when it is added are added to the canvas, and then its edges between vertices
+     * the canvas has by name. If the canvas is still empty the separate graph is taken over
+     * instead.
+     *
+     * @param filename name of file
+     * @param service  service running the import
+     * @param report   receives a summary of the import, such as lines read per second, on the
+     *                 event dispatch thread
+     */
+    public void importGraph(String filename, AlgorithmService service, Consumer<String> report) {
+        Graph<VertexData, EdgeData> imported = new Graph<>();
+        HashMap<String, Graph<VertexData, EdgeData>.Vertex> importedNames = new HashMap<>();
+        for (Graph<VertexData, EdgeData>.Vertex v : graph.getVertices()) {
+            importedNames.put(v.getData().getString(), imported.addVertex(v.getData()));
+        }
+        int standIns = imported.numVertex();
+        GraphImporter importer = new GraphImporter(DEFAULT_V_COLOR, DEFAULT_E_COLOR, ForkJoinPool.commonPool());
 
+        service.run("Import", null, (snapshot, progress) -> {
+            if (BinaryGraphFormat.isBinary(filename)) {
+                try (MappedGraph mapped = MappedGraph.open(filename, true)) {
+                    mapped.addTo(imported, importedNames, DEFAULT_V_COLOR, DEFAULT_E_COLOR);
+                }
+                return String.format("Imported %d vertices and %d edges", imported.numVertex() - standIns,
+                        imported.numEdge());
+            }
+            importer.setProgress(progress);
+            importer.read(filename, imported, importedNames);
+            return String.format("Imported %d lines in %.2f s (%.0f lines/s)", importer.getLineCount(),
+                    importer.getElapsedNanos() / 1e9, importer.getLinesPerSecond());
+        }, summary -> {
+            if (standIns == 0 && graph.numVertex() == 0) {
+                setGraph(imported, importedNames);
+            } else {
+                addImported(imported, standIns);
+            }
+            report.accept(summary);
+        });
     }
 
     /**
-     * Use doDijkstra algorithm to find and the shortest path between two vertices
+     * Add the vertices and edges of a graph read by importGraph(String, AlgorithmService)
      *
-     * @param start starting point
-     * @param end   ending point
+     * @param imported graph read from file
+     * @param standIns number of vertices at the start of imported standing in for canvas vertices
      */
-    public double shortestPath(Graph<VertexData, EdgeData>.Vertex start, Graph<VertexData, EdgeData>.Vertex end) {
+    private void addImported(Graph<VertexData, EdgeData> imported, int standIns) {
+        beginBatch();
+        try {
+            for (int i = standIns; i < imported.numVertex(); i++) {
+                VertexData data = imported.getVertex(i).getData();
+                if (!names.containsKey(data.getString())) {
+                    names.put(data.getString(), graph.addVertex(data));
+                }
+            }
+            for (Graph<VertexData, EdgeData>.Edge e : imported.getEdges()) {
+                Graph<VertexData, EdgeData>.Vertex v1 = names.get(e.getSourceVertex().getData().getString());
+                Graph<VertexData, EdgeData>.Vertex v2 = names.get(e.getTargetVertex().getData().getString());
+                if (v1 != null && v2 != null) {
+                    graph.addEdge(e.getData(), v1, v2);
+                }
+            }
+            damageAll();
+        } finally {
+            endBatch();
+        }
+    }
 
-        HashMap<Graph<VertexData, EdgeData>.Vertex, Graph<VertexData, EdgeData>.CostHomePair> dijkstra = graph.doDijkstra(end);
 
-        double pathCost = dijkstra.get(start).getCost();
+    /**
+     * Clear the graph of the canvas
+     */
+    public void clearGraph() {
+        setGraph(new Graph<>(), new HashMap<>());
+    }
+
+    /**
+     * Replace the graph of the canvas
+     *
+     * @param graph new graph
+     * @param names vertex of each name in the new graph
+     */
+    private void setGraph(Graph<VertexData, EdgeData> graph, HashMap<String, Graph<VertexData, EdgeData>.Vertex> names) {
+        beginBatch();
+        this.graph = graph;
+        this.names = names;
+        versions = new VersionedGraph<>(graph);
+        trees.clear();
+        distanceCache = new QueryCache<>(graph, QUERY_CACHE_BYTES);
+        pathCache = new QueryCache<>(graph, QUERY_CACHE_BYTES);
+        heuristic = null;
+        grid = new VertexGrid(graph, DIAMETER);
+        edgeGrid = new EdgeGrid(graph, EDGE_CELL_SIZE);
+        tileDetail.clear();
+        damageAll();
+        endBatch();
+    }
 
-        if (pathCost != Double.POSITIVE_INFINITY) {
-            ArrayList<Graph<VertexData, EdgeData>.Vertex> path = graph.getShortestPath(dijkstra, start, end);
 
-            path.get(0).getData().setColor(Color.white);
-            for (int i = 1; i < path.size(); i++) {
-                getEdgeRef(path.get(i - 1), path.get(i)).getData().setColor(Color.white);
-                path.get(i).getData().setColor(Color.white);
-            }
+    /**
+     * Get the scale of the view
+     *
+     * @return screen pixels per world unit
+     */
+    public double getZoom() {
+        return Math.pow(ZOOM_STEP, zoomLevel);
+    }
+
+    /**
+     * Get the world location shown at a screen location, for finding what the mouse is over
+     *
+     * @param screen location on the canvas
+     * @return location in the graph
+     */
+    public Point toWorld(Point screen) {
+        double zoom = getZoom();
+        return new Point((int) Math.floor((screen.x + panX) / zoom), (int) Math.floor((screen.y + panY) / zoom));
+    }
+
+    /**
+     * Move the view by a distance on the screen
+     *
+     * @param dx pixels to move right
+     * @param dy pixels to move down
+     */
+    public void pan(int dx, int dy) {
+        panX -= dx;
+        panY -= dy;
+        markDirty(new Rectangle(0, 0, getWidth(), getHeight()));
+    }
+
+    /**
+     * Zoom in or out by whole zoom levels, keeping the world location under a screen location
+     * where it is
+     *
+     * @param screen location on the canvas to zoom around
+     * @param steps  levels to zoom in, negative to zoom out
+     */
+    public void zoomAt(Point screen, int steps) {
+        int level = Math.max(MIN_ZOOM_LEVEL, Math.min(MAX_ZOOM_LEVEL, zoomLevel + steps));
+        if (level == zoomLevel) {
+            return;
         }
-        repaint();
+        double zoom = getZoom();
+        double x = (screen.x + panX) / zoom;
+        double y = (screen.y + panY) / zoom;
+        zoomLevel = level;
+        zoom = getZoom();
+        panX = (int) Math.round(x * zoom - screen.x);
+        panY = (int) Math.round(y * zoom - screen.y);
+        markDirty(new Rectangle(0, 0, getWidth(), getHeight()));
+    }
 
-        return pathCost;
+    /**
+     * Get the tile statistics of the view
+     *
+     * @return statistics as string
+     */
+    public String getTileStatistics() {
+        return tiles.toString();
     }
 
+    /**
+     * Hold back repaints until the matching endBatch, so that many changes in a row, such as
+     * coloring a traversal, are repainted once. Batches may be nested.
+     */
+    public void beginBatch() {
+        batchDepth++;
+    }
 
     /**
-     * Clear the graph of the canvas
+     * End a batch begun by beginBatch, scheduling one repaint of everything changed during it
+     * once the outermost batch ends
+     *
+     * @throws IllegalStateException if no batch has begun
      */
-    public void clearGraph() {
-        graph = new Graph<>();
-        repaint();
+    public void endBatch() {
+        if (batchDepth == 0) {
+            throw new IllegalStateException("No batch has begun");
+        }
+        batchDepth--;
+        if (batchDepth == 0) {
+            scheduleFlush();
+        }
     }
 
+    /**
+     * Mark the tiles showing a changed area of the world as damaged and the area of the screen
+     * showing it as dirty
+     *
+     * @param world changed area, grown by the reach of anything drawn for it
+     */
+    private void damage(Rectangle world) {
+        world.grow(CULL_MARGIN + 1, CULL_MARGIN + 1);
+        tiles.invalidate(world);
+        markDirty(toScreen(world));
+    }
 
     /**
-     * Paints the graph
+     * Drop every tile and mark the whole screen as dirty, for changes all over the graph
+     */
+    private void damageAll() {
+        tiles.clear();
+        markDirty(new Rectangle(0, 0, getWidth(), getHeight()));
+    }
+
+    /**
+     * Add an area to the area of the screen waiting to be repainted, scheduling a repaint
+     * unless a batch is open
+     *
+     * @param screen area of the canvas
+     */
+    private void markDirty(Rectangle screen) {
+        if (dirty == null) {
+            dirty = screen;
+        } else {
+            dirty.add(screen);
+        }
+        if (batchDepth == 0) {
+            scheduleFlush();
+        }
+    }
+
+    /**
+     * Schedule one repaint of the dirty area on the event dispatch thread, after the events
+     * already queued, unless one is already scheduled
+     */
+    private void scheduleFlush() {
+        if (dirty != null && !flushScheduled) {
+            flushScheduled = true;
+            SwingUtilities.invokeLater(this::flush);
+        }
+    }
+
+    /**
+     * Repaint the dirty area, unless a batch has begun since the repaint was scheduled
+     */
+    private void flush() {
+        flushScheduled = false;
+        if (batchDepth > 0 || dirty == null) {
+            return;
+        }
+        Rectangle area = dirty.intersection(new Rectangle(0, 0, getWidth(), getHeight()));
+        dirty = null;
+        if (!area.isEmpty()) {
+            repaint(area);
+        }
+    }
+
+    /**
+     * Get the area of the screen showing an area of the world
+     *
+     * @param world area of the graph
+     * @return smallest rectangle of whole pixels holding it
+     */
+    private Rectangle toScreen(Rectangle world) {
+        double zoom = getZoom();
+        int x = (int) Math.floor(world.x * zoom) - panX;
+        int y = (int) Math.floor(world.y * zoom) - panY;
+        return new Rectangle(x, y, (int) Math.ceil((world.x + world.width) * zoom) - panX - x,
+                (int) Math.ceil((world.y + world.height) * zoom) - panY - y);
+    }
+
+    /**
+     * Get the area of the world covered by a vertex's location
+     *
+     * @param vertex vertex of graph
+     * @return location as a rectangle
+     */
+    private Rectangle vertexBounds(Graph<VertexData, EdgeData>.Vertex vertex) {
+        return new Rectangle(vertex.getData().getPoint());
+    }
+
+    /**
+     * Get the area of the world covered by an edge's line
+     *
+     * @param edge edge of graph
+     * @return bounding box of line
+     */
+    private Rectangle edgeBounds(Graph<VertexData, EdgeData>.Edge edge) {
+        Rectangle bounds = new Rectangle(edge.getSourceVertex().getData().getPoint());
+        bounds.add(edge.getTargetVertex().getData().getPoint());
+        return bounds;
+    }
+
+    /**
+     * Get the area of the world covered by a vertex and its edges
+     *
+     * @param vertex vertex of graph
+     * @return bounding box of vertex and edges
+     */
+    private Rectangle reachBounds(Graph<VertexData, EdgeData>.Vertex vertex) {
+        Rectangle bounds = vertexBounds(vertex);
+        for (int i = 0; i < vertex.degree(); i++) {
+            bounds.add(edgeBounds(vertex.getEdge(i)));
+        }
+        return bounds;
+    }
+
+    /**
+     * Paints the view by drawing the cached tiles of the current zoom level that meet the clip
+     * rectangle, rendering those not held and the damaged parts of those held. Panning only
+     * moves where tiles are drawn, and after a change only the changed area is drawn again.
      *
      * @param g The graphics object to draw with
      */
     public void paintComponent(Graphics g) {
+        Rectangle clip = g.getClipBounds();
+        if (clip == null) {
+            clip = new Rectangle(0, 0, getWidth(), getHeight());
+        }
+        double zoom = getZoom();
+        int detail = levelOfDetail(zoom);
+        Integer drawnWith = tileDetail.put(zoomLevel, detail);
+        if (drawnWith != null && drawnWith != detail) {
+            tiles.invalidateLevel(zoomLevel);
+        }
 
-        for (Graph<VertexData, EdgeData>.Edge e : graph.getEdges()) {
-            Point p1 = e.getSourceVertex().getData().getPoint();
-            Point p2 = e.getTargetVertex().getData().getPoint();
-            Point midpoint = new Point((int) (p1.getX() + p2.getX()) / 2, (int) (p1.getY() + p2.getY()) / 2);
+        int size = TileCache.TILE_SIZE;
+        int minX = Math.floorDiv(clip.x + panX, size);
+        int maxX = Math.floorDiv(clip.x + clip.width - 1 + panX, size);
+        int minY = Math.floorDiv(clip.y + panY, size);
+        int maxY = Math.floorDiv(clip.y + clip.height - 1 + panY, size);
+        for (int ty = minY; ty <= maxY; ty++) {
+            for (int tx = minX; tx <= maxX; tx++) {
+                BufferedImage tile = tiles.get(zoomLevel, tx, ty);
+                if (tile == null) {
+                    Rectangle world = tileBounds(tx, ty, zoom);
+                    tile = new BufferedImage(size, size, BufferedImage.TYPE_INT_ARGB_PRE);
+                    renderTile(tile, tx, ty, zoom, world, detail);
+                    tiles.put(zoomLevel, tx, ty, world, tile);
+                } else {
+                    Rectangle damage = tiles.takeDamage(zoomLevel, tx, ty);
+                    if (damage != null) {
+                        renderTile(tile, tx, ty, zoom, damage, detail);
+                    }
+                }
+                g.drawImage(tile, tx * size - panX, ty * size - panY, null);
+            }
+        }
+    }
 
-            g.setColor(e.getData().getColor());
+    /**
+     * Choose how much detail to draw at a zoom level from how many elements a full view would
+     * show if they were spread evenly over the graph's bounds. Every tile of a level is drawn
+     * with the same detail so that neighboring tiles match.
+     *
+     * @param zoom scale of the view
+     * @return DETAIL_LABELS, DETAIL_SHAPES or DETAIL_CLUSTERED
+     */
+    private int levelOfDetail(double zoom) {
+        Rectangle bounds = grid.getBounds();
+        double worldArea = (bounds.width + 1.0) * (bounds.height + 1.0);
+        double viewArea = Math.max(1, getWidth()) * (double) Math.max(1, getHeight()) / (zoom * zoom);
+        double visible = (graph.numVertex() + graph.numEdge()) * Math.min(1.0, viewArea / worldArea);
+        if (visible > CLUSTER_LIMIT) {
+            return DETAIL_CLUSTERED;
+        }
+        return visible > LABEL_LIMIT ? DETAIL_SHAPES : DETAIL_LABELS;
+    }
 
-            g.fillPolygon(new int[]{(int) p1.getX() + DIAMETER / 4, (int) p1.getX() - DIAMETER / 4, (int) p2.getX() - DIAMETER / 4,
-                            (int) p2.getX() + DIAMETER / 4}, new int[]{(int) p1.getY(), (int) p1.getY(), (int) p2.getY(), (int) p2.getY()},
-                    4);
+    /**
+     * Get the area of the world shown by a tile
+     *
+     * @param tx   column of tile
+     * @param ty   row of tile
+     * @param zoom scale of the view
+     * @return smallest rectangle of whole world units holding the tile
+     */
+    private Rectangle tileBounds(int tx, int ty, double zoom) {
+        int size = TileCache.TILE_SIZE;
+        int x = (int) Math.floor(tx * size / zoom);
+        int y = (int) Math.floor(ty * size / zoom);
+        return new Rectangle(x, y, (int) Math.ceil((tx + 1) * size / zoom) - x,
+                (int) Math.ceil((ty + 1) * size / zoom) - y);
+    }
 
-            g.fillPolygon(new int[]{(int) p1.getX(), (int) p1.getX(), (int) p2.getX(), (int) p2.getX()}, new int[]{(int) p1.getY() + DIAMETER / 4,
-                    (int) p1.getY() - DIAMETER / 4, (int) p2.getY() - DIAMETER / 4, (int) p2.getY() + DIAMETER / 4}, 4);
+    /**
+     * Render part of a tile, clearing it first. Only edges and vertices near that part are
+     * looked up, through the grids.
+     *
+     * @param tile   image of tile
+     * @param tx     column of tile
+     * @param ty     row of tile
+     * @param zoom   scale of the view
+     * @param world  area of the world to render
+     * @param detail level of detail
+     */
+    private void renderTile(BufferedImage tile, int tx, int ty, double zoom, Rectangle world, int detail) {
+        int size = TileCache.TILE_SIZE;
+        Graphics2D g = tile.createGraphics();
+        g.translate(-tx * size, -ty * size);
+        g.scale(zoom, zoom);
+        g.clip(world);
+        g.setComposite(AlphaComposite.Clear);
+        g.fill(world);
+        g.setComposite(AlphaComposite.SrcOver);
+
+        Rectangle area = new Rectangle(world.x - CULL_MARGIN, world.y - CULL_MARGIN,
+                world.width + 2 * CULL_MARGIN, world.height + 2 * CULL_MARGIN);
+        ArrayList<Graph<VertexData, EdgeData>.Edge> visibleEdges = edgeGrid.crossing(area);
+        ArrayList<Graph<VertexData, EdgeData>.Vertex> visibleVertices = grid.inside(area);
+        visibleEdges.sort(Comparator.comparingInt(Graph.Edge::getIndex));
+        visibleVertices.sort(Comparator.comparingInt(Graph.Vertex::getIndex));
+
+        g.setFont(LABEL_FONT);
+        if (detail == DETAIL_CLUSTERED) {
+            int squareSize = Math.max(1, (int) Math.round(CLUSTER_SIZE / zoom));
+            paintClustered(g, area, visibleEdges, visibleVertices, squareSize);
+        } else {
+            paintDetailed(g, visibleEdges, visibleVertices, detail == DETAIL_LABELS);
+        }
+        g.dispose();
+    }
 
-            g.setColor(Color.black);
-            g.setFont(new Font("TimesRoman", Font.BOLD, 12));
-            g.drawString(Double.toString(e.getData().getLength()), (int) midpoint.getX(), (int) midpoint.getY());
+    /**
+     * Paints edges as bars and vertices as circles, with or without their labels
+     *
+     * @param g        The graphics object to draw with
+     * @param edges    edges to draw
+     * @param vertices vertices to draw
+     * @param labels   whether to draw labels
+     */
+    private void paintDetailed(Graphics g, ArrayList<Graph<VertexData, EdgeData>.Edge> edges,
+                               ArrayList<Graph<VertexData, EdgeData>.Vertex> vertices, boolean labels) {
+        for (Graph<VertexData, EdgeData>.Edge e : edges) {
+            Point p1 = e.getSourceVertex().getData().getPoint();
+            Point p2 = e.getTargetVertex().getData().getPoint();
 
+            g.setColor(e.getData().getColor());
+
+            polygonX[0] = p1.x + DIAMETER / 4;
+            polygonX[1] = p1.x - DIAMETER / 4;
+            polygonX[2] = p2.x - DIAMETER / 4;
+            polygonX[3] = p2.x + DIAMETER / 4;
+            polygonY[0] = p1.y;
+            polygonY[1] = p1.y;
+            polygonY[2] = p2.y;
+            polygonY[3] = p2.y;
+            g.fillPolygon(polygonX, polygonY, 4);
+
+            polygonX[0] = p1.x;
+            polygonX[1] = p1.x;
+            polygonX[2] = p2.x;
+            polygonX[3] = p2.x;
+            polygonY[0] = p1.y + DIAMETER / 4;
+            polygonY[1] = p1.y - DIAMETER / 4;
+            polygonY[2] = p2.y - DIAMETER / 4;
+            polygonY[3] = p2.y + DIAMETER / 4;
+            g.fillPolygon(polygonX, polygonY, 4);
+
+            if (labels) {
+                g.setColor(Color.black);
+                g.drawString(Double.toString(e.getData().getLength()), (p1.x + p2.x) / 2, (p1.y + p2.y) / 2);
+            }
         }
 
-        for (Graph<VertexData, EdgeData>.Vertex v : graph.getVertices()) {
+        for (Graph<VertexData, EdgeData>.Vertex v : vertices) {
             Point p = v.getData().getPoint();
-            String s = v.getData().getString();
             g.setColor(v.getData().getColor());
-            g.fillOval((int) p.getX() - DIAMETER / 2, (int) p.getY() - DIAMETER / 2, DIAMETER, DIAMETER);
-
+            g.fillOval(p.x - DIAMETER / 2, p.y - DIAMETER / 2, DIAMETER, DIAMETER);
 
-            g.setColor(Color.black);
-            g.setFont(new Font("TimesRoman", Font.BOLD, 12));
-            g.drawString(s, (int) p.getX() - DIAMETER / 2, (int) p.getY() - 10);
+            if (labels) {
+                g.setColor(Color.black);
+                g.drawString(v.getData().getString(), p.x - DIAMETER / 2, p.y - 10);
+            }
+        }
+    }
 
+    /**
+     * Paints edges as thin lines and vertices as circles. Edges within one small square are not
+     * drawn, and of the vertices within one small square only the last in the graph's order,
+     * which would be drawn on top, is drawn.
+     *
+     * @param g          The graphics object to draw with
+     * @param area       area holding every element to draw
+     * @param edges      edges to draw
+     * @param vertices   vertices to draw
+     * @param squareSize width and height of a small square in world units
+     */
+    private void paintClustered(Graphics g, Rectangle area, ArrayList<Graph<VertexData, EdgeData>.Edge> edges,
+                                ArrayList<Graph<VertexData, EdgeData>.Vertex> vertices, int squareSize) {
+        for (Graph<VertexData, EdgeData>.Edge e : edges) {
+            Point p1 = e.getSourceVertex().getData().getPoint();
+            Point p2 = e.getTargetVertex().getData().getPoint();
+            if (Math.abs(p1.x - p2.x) >= squareSize || Math.abs(p1.y - p2.y) >= squareSize) {
+                g.setColor(e.getData().getColor());
+                g.drawLine(p1.x, p1.y, p2.x, p2.y);
+            }
+        }
 
+        int columns = area.width / squareSize + 1;
+        boolean[] drawn = new boolean[columns * (area.height / squareSize + 1)];
+        for (int i = vertices.size() - 1; i >= 0; i--) {
+            Point p = vertices.get(i).getData().getPoint();
+            int square = (p.y - area.y) / squareSize * columns + (p.x - area.x) / squareSize;
+            if (!drawn[square]) {
+                drawn[square] = true;
+                g.setColor(vertices.get(i).getData().getColor());
+                g.fillOval(p.x - DIAMETER / 2, p.y - DIAMETER / 2, DIAMETER, DIAMETER);
+            }
         }
     }
 }
\ No newline at end of file
@@ -0,0 +1,318 @@
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes graphs in the text format read by GraphImporter, one vertex or edge a line:
+ * <pre>
+ * v x y name
+ * e length name1 name2
+ * </pre>
+ * Lines are formatted into a fixed-size byte buffer that is written out whenever it fills, so
+ * the memory used does not grow with the graph. A file whose name ends in .gz is gzip-compressed.
+ * With a pool, lines are formatted in parallel in batches of at most BATCH_LINES lines, and no
+ * more batches than the pool's parallelism are held at a time.
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class GraphExporter {
+
+    /**
+     * File name extension of compressed files
+     */
+    public static final String GZIP_EXTENSION = ".gz";
+
+    /**
+     * Size of the output buffer in bytes
+     */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Number of lines formatted by one parallel task
+     */
+    private static final int BATCH_LINES = 1 << 14;
+
+    /**
+     * Pool that formats batches, or null to format on the calling thread
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Charset of vertex names
+     */
+    private final Charset charset = Charset.defaultCharset();
+
+    /**
+     * Number of lines written by the last export
+     */
+    private long lineCount;
+
+    /**
+     * Duration of the last export in nanoseconds
+     */
+    private long elapsedNanos;
+
+
+    /**
+     * Constructor
+     *
+     * @param pool pool that formats batches, or null to format on the calling thread
+     */
+    public GraphExporter(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Write a graph to a file
+     *
+     * @param graph    graph to write
+     * @param filename name of file, compressed if it ends in .gz
+     * @throws IOException if the file cannot be written
+     */
+    public void write(Graph<VertexData, EdgeData> graph, String filename) throws IOException {
+        long startTime = System.nanoTime();
+        try (OutputStream out = filename.endsWith(GZIP_EXTENSION)
+                ? new GZIPOutputStream(new FileOutputStream(filename), BUFFER_SIZE)
+                : new FileOutputStream(filename)) {
+            write(graph, out);
+        }
+        elapsedNanos = System.nanoTime() - startTime;
+    }
+
+    /**
+     * Write a graph to a stream, which is left open
+     *
+     * @param graph graph to write
+     * @param out   stream to write to
+     * @throws IOException if the stream cannot be written
+     */
+    public void write(Graph<VertexData, EdgeData> graph, OutputStream out) throws IOException {
+        ArrayList<Graph<VertexData, EdgeData>.Vertex> vertices = graph.getVertices();
+        ArrayList<Graph<VertexData, EdgeData>.Edge> edges = graph.getEdges();
+        long lines = (long) vertices.size() + edges.size();
+        lineCount = 0;
+
+        if (pool == null || lines <= BATCH_LINES) {
+            LineBuffer buffer = new LineBuffer(BUFFER_SIZE);
+            for (long line = 0; line < lines; line++) {
+                format(vertices, edges, line, buffer);
+                if (buffer.size > BUFFER_SIZE - 1024) {
+                    buffer.writeTo(out);
+                }
+            }
+            buffer.writeTo(out);
+        } else {
+            int inFlight = Math.max(1, pool.getParallelism());
+            for (long from = 0; from < lines; from += (long) BATCH_LINES * inFlight) {
+                ArrayList<Future<LineBuffer>> batches = new ArrayList<>();
+                for (int i = 0; i < inFlight && from + (long) i * BATCH_LINES < lines; i++) {
+                    long batchFrom = from + (long) i * BATCH_LINES;
+                    long batchTo = Math.min(lines, batchFrom + BATCH_LINES);
+                    batches.add(pool.submit(() -> format(vertices, edges, batchFrom, batchTo)));
+                }
+                try {
+                    for (Future<LineBuffer> batch : batches) {
+                        batch.get().writeTo(out);
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while exporting", e);
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Export failed", e.getCause());
+                }
+            }
+        }
+        out.flush();
+        lineCount = lines;
+    }
+
+    /**
+     * Get the number of lines written by the last export
+     *
+     * @return number of lines
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Get the duration of the last export to a file
+     *
+     * @return nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Format a batch of lines
+     *
+     * @param vertices vertices of graph
+     * @param edges    edges of graph
+     * @param from     first line, counting vertex lines before edge lines
+     * @param to       line after the last one
+     * @return formatted lines
+     */
+    private LineBuffer format(ArrayList<Graph<VertexData, EdgeData>.Vertex> vertices,
+                              ArrayList<Graph<VertexData, EdgeData>.Edge> edges, long from, long to) {
+        LineBuffer buffer = new LineBuffer(BUFFER_SIZE);
+        for (long line = from; line < to; line++) {
+            format(vertices, edges, line, buffer);
+        }
+        return buffer;
+    }
+
+    /**
+     * Format one line
+     *
+     * @param vertices vertices of graph
+     * @param edges    edges of graph
+     * @param line     line, counting vertex lines before edge lines
+     * @param buffer   buffer to append to
+     */
+    private void format(ArrayList<Graph<VertexData, EdgeData>.Vertex> vertices,
+                        ArrayList<Graph<VertexData, EdgeData>.Edge> edges, long line, LineBuffer buffer) {
+        if (line < vertices.size()) {
+            VertexData data = vertices.get((int) line).getData();
+            buffer.append('v').append(' ').append((int) data.getPoint().getX()).append(' ')
+                    .append((int) data.getPoint().getY()).append(' ').append(data.getString().getBytes(charset));
+        } else {
+            Graph<VertexData, EdgeData>.Edge e = edges.get((int) (line - vertices.size()));
+            buffer.append('e').append(' ').append(Double.toString(e.getData().getLength())).append(' ')
+                    .append(e.getSourceVertex().getData().getString().getBytes(charset)).append(' ')
+                    .append(e.getTargetVertex().getData().getString().getBytes(charset));
+        }
+        buffer.append('\n');
+    }
+
+    /**
+     * Growable array of formatted bytes
+     */
+    private static class LineBuffer {
+
+        /**
+         * Bytes
+         */
+        private byte[] bytes;
+
+        /**
+         * Number of bytes used
+         */
+        private int size;
+
+        /**
+         * Constructor for LineBuffer
+         *
+         * @param capacity initial capacity
+         */
+        private LineBuffer(int capacity) {
+            bytes = new byte[capacity];
+        }
+
+        /**
+         * Append an ASCII character
+         *
+         * @param c character
+         * @return this buffer
+         */
+        private LineBuffer append(char c) {
+            ensureCapacity(1);
+            bytes[size++] = (byte) c;
+            return this;
+        }
+
+        /**
+         * Append an int in decimal
+         *
+         * @param value value
+         * @return this buffer
+         */
+        private LineBuffer append(int value) {
+            ensureCapacity(11);
+            long v = value;
+            if (v < 0) {
+                bytes[size++] = '-';
+                v = -v;
+            }
+            int end = size + digits(v);
+            for (int i = end - 1; i >= size; i--) {
+                bytes[i] = (byte) ('0' + v % 10);
+                v /= 10;
+            }
+            size = end;
+            return this;
+        }
+
+        /**
+         * Append an ASCII string
+         *
+         * @param s string
+         * @return this buffer
+         */
+        private LineBuffer append(String s) {
+            ensureCapacity(s.length());
+            for (int i = 0; i < s.length(); i++) {
+                bytes[size++] = (byte) s.charAt(i);
+            }
+            return this;
+        }
+
+        /**
+         * Append bytes
+         *
+         * @param b bytes
+         * @return this buffer
+         */
+        private LineBuffer append(byte[] b) {
+            ensureCapacity(b.length);
+            System.arraycopy(b, 0, bytes, size, b.length);
+            size += b.length;
+            return this;
+        }
+
+        /**
+         * Write the bytes to a stream and empty the buffer
+         *
+         * @param out stream
+         * @throws IOException if the stream cannot be written
+         */
+        private void writeTo(OutputStream out) throws IOException {
+            out.write(bytes, 0, size);
+            size = 0;
+        }
+
+        /**
+         * Make room for more bytes
+         *
+         * @param extra number of bytes to add
+         */
+        private void ensureCapacity(int extra) {
+            if (size + extra > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, size + extra));
+            }
+        }
+
+        /**
+         * Count the decimal digits of a non-negative number
+         *
+         * @param v number
+         * @return number of digits
+         */
+        private static int digits(long v) {
+            int count = 1;
+            while (v >= 10) {
+                v /= 10;
+                count++;
+            }
+            return count;
+        }
+    }
+}
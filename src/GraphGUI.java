@@ -20,6 +20,11 @@ public class GraphGUI {
      */
     private  JLabel instr;
 
+    /**
+     * Runs algorithms off the event dispatch thread, showing progress in instr
+     */
+    private AlgorithmService algorithms;
+
     /**
      * The input mode
      */
@@ -92,10 +97,12 @@ public class GraphGUI {
         PointMouseListener pml = new PointMouseListener();
         canvas.addMouseListener(pml);
         canvas.addMouseMotionListener(pml);
+        canvas.addMouseWheelListener(pml);
         panel1.add(canvas);
         instr = new JLabel("Click to add new points; drag to move.");
         //instr.setForeground(Color.white);
         instr.setFont(instr.getFont().deriveFont(20.0f));
+        algorithms = new AlgorithmService(instr);
         panel1.add(instr, BorderLayout.NORTH);
         pane.add(panel1);
         textField = new TextField();
@@ -105,7 +112,7 @@ public class GraphGUI {
         // controls
         JPanel panel2 = new JPanel();
         panel2.setBackground(b);
-        panel2.setLayout(new GridLayout(11, 1));
+        panel2.setLayout(new GridLayout(12, 1));
         JButton addPointButton = new JButton("Add/Move/Name Vertices");
         panel2.add(addPointButton);
         addPointButton.addActionListener(new AddPointListener());
@@ -139,6 +146,9 @@ public class GraphGUI {
         JButton clearButton = new JButton("Clear Graph");
         panel2.add(clearButton);
         clearButton.addActionListener(new ClearGraphListener());
+        JButton cancelButton = new JButton("Cancel");
+        panel2.add(cancelButton);
+        cancelButton.addActionListener(new CancelListener());
 
         pane.add(panel2);
     }
@@ -147,21 +157,13 @@ public class GraphGUI {
      * Returns a point found within the drawing radius of the given location,
      * or null if none
      *
-     * @param x the x coordinate of the location
-     * @param y the y coordinate of the location
+     * @param screen the location on the canvas
      * @return a point from the canvas if there is one covering this location,
      * or a null reference if not
      */
-    private Graph<VertexData, EdgeData>.Vertex findNearbyVertex(int x, int y) {
-        Graph<VertexData, EdgeData>.Vertex v = null;
-        for (Graph<VertexData, EdgeData>.Vertex vertex : canvas.getVertices()) {
-            Point p = vertex.getData().getPoint();
-            if (p.distance(x, y) < GraphCanvas.DIAMETER) {
-                v = vertex;
-            }
-        }
-
-        return v;
+    private Graph<VertexData, EdgeData>.Vertex findNearbyVertex(Point screen) {
+        Point p = canvas.toWorld(screen);
+        return canvas.findVertex(p.x, p.y);
     }
 
     /**
@@ -289,6 +291,18 @@ public class GraphGUI {
         }
     }
 
+    /**
+     * Check if a file name is one the graph can be imported from or exported to: text, text
+     * compressed with gzip, or binary
+     *
+     * @param filename name of file
+     * @return true if the name has a graph file extension
+     */
+    private static boolean isGraphFile(String filename) {
+        return filename.endsWith(".txt") || filename.endsWith(GraphExporter.GZIP_EXTENSION)
+                || BinaryGraphFormat.isBinary(filename);
+    }
+
     /**
      * Listener for importing graph
      */
@@ -301,10 +315,10 @@ public class GraphGUI {
             instr.setText("Type desired input filename and then click on 'Import Graph'");
             canvas.clearTraversal();
 
-            if (textField.getText().endsWith(".txt")) {
-                canvas.importGraph(textField.getText());
+            String filename = textField.getText();
+            if (isGraphFile(filename)) {
+                canvas.importGraph(filename, algorithms, summary -> instr.setText(summary));
                 textField.setText("");
-                instr.setText("Now click on a different button to do something");
             }
         }
     }
@@ -319,8 +333,9 @@ public class GraphGUI {
         public void actionPerformed(ActionEvent event) {
             instr.setText("Type desired output filename and then click on 'Export Graph'");
             canvas.clearTraversal();
-            if (textField.getText().endsWith(".txt")) {
-                canvas.exportGraph(textField.getText());
+            String filename = textField.getText();
+            if (isGraphFile(filename)) {
+                canvas.exportGraph(filename);
                 textField.setText("");
                 instr.setText("Now click on a different button to do something");
             }
@@ -335,11 +350,24 @@ public class GraphGUI {
          * Event handler for clearing graph
          */
         public void actionPerformed(ActionEvent event) {
+            algorithms.cancel();
             instr.setText("Graph cleared");
             canvas.clearGraph();
         }
     }
 
+    /**
+     * Listener for cancel button
+     */
+    private class CancelListener implements ActionListener {
+        /**
+         * Event handler for cancelling the algorithm running
+         */
+        public void actionPerformed(ActionEvent event) {
+            algorithms.cancel();
+        }
+    }
+
 
     /**
      * Listener for text input
@@ -360,13 +388,18 @@ public class GraphGUI {
     private class PointMouseListener extends MouseAdapter
             implements MouseMotionListener {
 
+        /**
+         * Last location of a right-button drag panning the view, null if not panning
+         */
+        private Point panFrom = null;
+
         /**
          * Responds to click event depending on mode
          */
         public void mouseClicked(MouseEvent event) {
             switch (mode) {
                 case ADD_EDIT_POINTS:
-                    vertexUnderMouse = findNearbyVertex(event.getX(), event.getY());
+                    vertexUnderMouse = findNearbyVertex(event.getPoint());
                     //add vertex
                     if (vertexUnderMouse == null) {
                         String name = Integer.toString(canvas.getVertices().size() + 1);
@@ -374,7 +407,7 @@ public class GraphGUI {
                             name = textField.getText();
                             textField.setText("");
                         }
-                        canvas.addVertex(new Point(event.getX(), event.getY()), name);
+                        canvas.addVertex(canvas.toWorld(event.getPoint()), name);
 
                         //edit vertex
                     } else if (!textField.getText().equals("")) {
@@ -386,8 +419,8 @@ public class GraphGUI {
                     }
                     break;
                 case RMV_POINTS:
-                    if (findNearbyVertex(event.getX(), event.getY()) != null) {
-                        vertexUnderMouse = findNearbyVertex(event.getX(), event.getY());
+                    vertexUnderMouse = findNearbyVertex(event.getPoint());
+                    if (vertexUnderMouse != null) {
                         canvas.removeVertex(vertexUnderMouse);
                         vertexUnderMouse = null;
 
@@ -397,7 +430,7 @@ public class GraphGUI {
                     break;
                 case ADD_EDIT_EDGES:
                     if (numClick == 1) {
-                        Graph<VertexData, EdgeData>.Vertex target = findNearbyVertex(event.getX(), event.getY());
+                        Graph<VertexData, EdgeData>.Vertex target = findNearbyVertex(event.getPoint());
                         if (target != null) {
 
                             //add edge
@@ -426,7 +459,7 @@ public class GraphGUI {
                         textField.setText("");
 
                     } else if (numClick == 0) {
-                        vertexUnderMouse = findNearbyVertex(event.getX(), event.getY());
+                        vertexUnderMouse = findNearbyVertex(event.getPoint());
                         if (vertexUnderMouse != null) {
                             numClick = 1;
                         } else {
@@ -439,7 +472,7 @@ public class GraphGUI {
                     if (numClick == 1) {
 
                         //remove edge
-                        Graph<VertexData, EdgeData>.Vertex target = findNearbyVertex(event.getX(), event.getY());
+                        Graph<VertexData, EdgeData>.Vertex target = findNearbyVertex(event.getPoint());
                         if (target != null) {
                             canvas.removeEdge(vertexUnderMouse, target);
                         } else {
@@ -450,7 +483,7 @@ public class GraphGUI {
                         numClick = 0;
 
                     } else if (numClick == 0) {
-                        vertexUnderMouse = findNearbyVertex(event.getX(), event.getY());
+                        vertexUnderMouse = findNearbyVertex(event.getPoint());
                         if (vertexUnderMouse != null) {
                             numClick += 1;
                         } else {
@@ -458,38 +491,41 @@ public class GraphGUI {
                         }
                     }
                     break;
-                case BFT:
-                    if (findNearbyVertex(event.getX(), event.getY()) != null) {
-                        canvas.breadFirstTraversal(findNearbyVertex(event.getX(), event.getY()));
-                        instr.setText("View edges in console");
+                case BFT: {
+                    Graph<VertexData, EdgeData>.Vertex start = findNearbyVertex(event.getPoint());
+                    if (start != null) {
+                        canvas.traverse(start, false, algorithms);
                     }
                     break;
-                case DFT:
-                    if (findNearbyVertex(event.getX(), event.getY()) != null) {
-                        canvas.depthFirstTraversal(findNearbyVertex(event.getX(), event.getY()));
-                        instr.setText("View edges in console");
+                }
+                case DFT: {
+                    Graph<VertexData, EdgeData>.Vertex start = findNearbyVertex(event.getPoint());
+                    if (start != null) {
+                        canvas.traverse(start, true, algorithms);
                     }
                     break;
-                case DISTANCE:
-                    if (findNearbyVertex(event.getX(), event.getY()) != null) {
-                        canvas.shortestDistances(findNearbyVertex(event.getX(), event.getY()));
-                        instr.setText("View shortest distances in console");
+                }
+                case DISTANCE: {
+                    Graph<VertexData, EdgeData>.Vertex start = findNearbyVertex(event.getPoint());
+                    if (start != null) {
+                        canvas.shortestDistances(start, algorithms);
                     }
                     break;
+                }
                 case SHORT_PATH:
                     if (numClick == 1) {
                         //do shortest path
-                        Graph<VertexData, EdgeData>.Vertex target = findNearbyVertex(event.getX(), event.getY());
+                        Graph<VertexData, EdgeData>.Vertex target = findNearbyVertex(event.getPoint());
                         if (target != null) {
-                            double cost = canvas.shortestPath(vertexUnderMouse, target);
-                            instr.setText("Shortest path cost: " + cost);
+                            canvas.shortestPath(vertexUnderMouse, target, algorithms,
+                                    cost -> instr.setText("Shortest path cost: " + cost));
                         } else {
                             Toolkit.getDefaultToolkit().beep();
                         }
                         vertexUnderMouse = null;
                         numClick = 0;
                     } else if (numClick == 0 && vertexUnderMouse == null) {
-                        vertexUnderMouse = findNearbyVertex(event.getX(), event.getY());
+                        vertexUnderMouse = findNearbyVertex(event.getPoint());
                         if (vertexUnderMouse != null) {
                             numClick += 1;
                         } else {
@@ -505,9 +541,13 @@ public class GraphGUI {
          * Records point under press event in anticipation of possible drag
          */
         public void mousePressed(MouseEvent event) {
+            if (SwingUtilities.isRightMouseButton(event)) {
+                panFrom = event.getPoint();
+                return;
+            }
             //  Record point under mouse, if any
             if (mode == InputMode.ADD_EDIT_POINTS && textField.getText().equals("")) {
-                vertexUnderMouse = findNearbyVertex(event.getX(), event.getY());
+                vertexUnderMouse = findNearbyVertex(event.getPoint());
             }
         }
 
@@ -515,6 +555,10 @@ public class GraphGUI {
          * Responds to release event
          */
         public void mouseReleased(MouseEvent event) {
+            if (SwingUtilities.isRightMouseButton(event)) {
+                panFrom = null;
+                return;
+            }
             if ((mode != InputMode.ADD_EDIT_EDGES) && (mode != InputMode.RMV_EDGES) && (mode != InputMode.SHORT_PATH)){
                 vertexUnderMouse = null;
             }
@@ -524,8 +568,13 @@ public class GraphGUI {
          * Responds to mouse drag event
          */
         public void mouseDragged(MouseEvent event) {
+            if (panFrom != null) {
+                canvas.pan(event.getX() - panFrom.x, event.getY() - panFrom.y);
+                panFrom = event.getPoint();
+                return;
+            }
             if (vertexUnderMouse != null && mode == InputMode.ADD_EDIT_POINTS && textField.getText().equals("")) {
-                canvas.moveVertex(vertexUnderMouse, new Point(event.getX(), event.getY()));
+                canvas.moveVertex(vertexUnderMouse, canvas.toWorld(event.getPoint()));
             }
 
         }
@@ -535,6 +584,13 @@ public class GraphGUI {
          */
         public void mouseMoved(MouseEvent event) {
         }
+
+        /**
+         * Zooms around the mouse, in when the wheel is turned away from the user
+         */
+        public void mouseWheelMoved(MouseWheelEvent event) {
+            canvas.zoomAt(event.getPoint(), -event.getWheelRotation());
+        }
     }
 
 
@@ -0,0 +1,876 @@
+import java.awt.*;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Reads graphs in the text format written by GraphCanvas.exportGraph, one vertex or edge a line:
+ * <pre>
+ * v x y name
+ * e length name1 name2
+ * </pre>
+ * The file is read from a channel in large blocks and tokenized on the bytes directly, without
+ * building a String per line. Names are interned into a table keyed by their bytes, so an edge
+ * finds its endpoints without creating Strings. Each block can be cut at line breaks into chunks
+ * that are parsed in parallel; the parsed chunks are then added to the graph one after another
+ * in file order, so the result is the same as reading line by line.
+ * <p>
+ * A file whose name ends in .gz is decompressed while it is read.
+ * <p>
+ * As in the canvas, a vertex whose name is already taken and an edge naming an unknown vertex
+ * are skipped. Lines starting with anything else are ignored.
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class GraphImporter {
+
+    /**
+     * Number of bytes read from the file at a time
+     */
+    private static final int BLOCK_SIZE = 8 << 20;
+
+    /**
+     * Smallest chunk worth parsing on its own task
+     */
+    private static final int MIN_CHUNK_SIZE = 256 << 10;
+
+    /**
+     * Powers of ten that are exact in a double
+     */
+    private static final double[] POWERS_OF_TEN = new double[23];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    /**
+     * Color of imported vertices
+     */
+    private final Color vertexColor;
+
+    /**
+     * Color of imported edges
+     */
+    private final Color edgeColor;
+
+    /**
+     * Pool that parses chunks, or null to parse on the calling thread
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * Charset of vertex names
+     */
+    private final Charset charset = Charset.defaultCharset();
+
+    /**
+     * Receives progress reports in bytes read, or null
+     */
+    private AlgorithmProgress progress;
+
+    /**
+     * Number of lines read by the last import
+     */
+    private long lineCount;
+
+    /**
+     * Number of vertices added by the last import
+     */
+    private int vertexCount;
+
+    /**
+     * Number of edges added by the last import
+     */
+    private int edgeCount;
+
+    /**
+     * Number of vertex and edge lines skipped by the last import
+     */
+    private int skippedCount;
+
+    /**
+     * Duration of the last import in nanoseconds
+     */
+    private long elapsedNanos;
+
+
+    /**
+     * Constructor
+     *
+     * @param vertexColor color of imported vertices
+     * @param edgeColor   color of imported edges
+     * @param pool        pool that parses chunks, or null to parse on the calling thread
+     */
+    public GraphImporter(Color vertexColor, Color edgeColor, ForkJoinPool pool) {
+        this.vertexColor = vertexColor;
+        this.edgeColor = edgeColor;
+        this.pool = pool;
+    }
+
+    /**
+     * Set what receives progress reports during a read, in bytes read out of the file size, or
+     * out of 0 for a compressed file. Stopping it makes read throw CancellationException after
+     * the block being added, leaving the graph with the lines added so far.
+     *
+     * @param progress receives progress reports, or null for none
+     */
+    public void setProgress(AlgorithmProgress progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * Read a file into a graph
+     *
+     * @param filename name of file
+     * @param graph    graph to add to
+     * @throws IOException if the file cannot be read or has a malformed line
+     */
+    public void read(String filename, Graph<VertexData, EdgeData> graph) throws IOException {
+        HashMap<String, Graph<VertexData, EdgeData>.Vertex> names = new HashMap<>();
+        for (Graph<VertexData, EdgeData>.Vertex v : graph.getVertices()) {
+            names.putIfAbsent(v.getData().getString(), v);
+        }
+        read(filename, graph, names);
+    }
+
+    /**
+     * Read a file into a graph whose vertices are already indexed by name
+     *
+     * @param filename name of file
+     * @param graph    graph to add to
+     * @param names    vertex of each name in graph; imported vertices are added to it
+     * @throws IOException if the file cannot be read or has a malformed line
+     */
+    public void read(String filename, Graph<VertexData, EdgeData> graph,
+                     Map<String, Graph<VertexData, EdgeData>.Vertex> names) throws IOException {
+        long startTime = System.nanoTime();
+        lineCount = 0;
+        vertexCount = 0;
+        edgeCount = 0;
+        skippedCount = 0;
+
+        NameTable table = new NameTable(names.size());
+        for (Graph<VertexData, EdgeData>.Vertex v : names.values()) {
+            byte[] bytes = v.getData().getString().getBytes(charset);
+            table.add(bytes, 0, bytes.length, hash(bytes, 0, bytes.length), v);
+        }
+        int firstImported = table.size();
+
+        try (ReadableByteChannel channel = open(filename)) {
+            long fileSize = channel instanceof FileChannel ? ((FileChannel) channel).size() : 0;
+            long size = channel instanceof FileChannel ? fileSize : BLOCK_SIZE;
+            byte[] block = new byte[(int) Math.min(BLOCK_SIZE, Math.max(size, 1))];
+            int filled = 0;
+            long bytesRead = 0;
+            boolean eof = false;
+
+            while (!eof || filled > 0) {
+                if (!eof) {
+                    if (filled == block.length) {
+                        block = Arrays.copyOf(block, block.length * 2);  // line longer than block
+                    }
+                    int read = channel.read(ByteBuffer.wrap(block, filled, block.length - filled));
+                    if (read < 0) {
+                        eof = true;
+                    } else {
+                        filled += read;
+                        bytesRead += read;
+                    }
+                }
+
+                int end = eof ? filled : lastLineEnd(block, filled);
+                if (end == 0) {
+                    continue;
+                }
+                apply(parse(block, end), graph, table);
+                if (progress != null) {
+                    progress.report(bytesRead, fileSize);
+                }
+
+                System.arraycopy(block, end, block, 0, filled - end);
+                filled -= end;
+            }
+        } finally {
+            for (int i = firstImported; i < table.size(); i++) {
+                Graph<VertexData, EdgeData>.Vertex v = table.getVertex(i);
+                names.put(v.getData().getString(), v);
+            }
+        }
+
+        elapsedNanos = System.nanoTime() - startTime;
+    }
+
+    /**
+     * Open a file, decompressing it if its name ends in .gz
+     *
+     * @param filename name of file
+     * @return channel to read from
+     * @throws IOException if the file cannot be opened
+     */
+    private static ReadableByteChannel open(String filename) throws IOException {
+        if (filename.endsWith(GraphExporter.GZIP_EXTENSION)) {
+            return Channels.newChannel(new GZIPInputStream(new FileInputStream(filename), 1 << 16));
+        }
+        return FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+    }
+
+    /**
+     * Get the number of lines read by the last import
+     *
+     * @return number of lines
+     */
+    public long getLineCount() {
+        return lineCount;
+    }
+
+    /**
+     * Get the number of vertices added by the last import
+     *
+     * @return number of vertices
+     */
+    public int getVertexCount() {
+        return vertexCount;
+    }
+
+    /**
+     * Get the number of edges added by the last import
+     *
+     * @return number of edges
+     */
+    public int getEdgeCount() {
+        return edgeCount;
+    }
+
+    /**
+     * Get the number of vertex and edge lines skipped by the last import because of a taken
+     * name or an unknown vertex
+     *
+     * @return number of lines skipped
+     */
+    public int getSkippedCount() {
+        return skippedCount;
+    }
+
+    /**
+     * Get the duration of the last import
+     *
+     * @return nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Get the speed of the last import
+     *
+     * @return lines per second
+     */
+    public double getLinesPerSecond() {
+        return elapsedNanos == 0 ? 0 : lineCount * 1e9 / elapsedNanos;
+    }
+
+    /**
+     * Find the position after the last line break of a block
+     *
+     * @param block bytes
+     * @param end   number of bytes used
+     * @return position after the last line break, 0 if there is none
+     */
+    private static int lastLineEnd(byte[] block, int end) {
+        for (int i = end - 1; i >= 0; i--) {
+            if (block[i] == '\n') {
+                return i + 1;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * Parse whole lines of a block, in parallel chunks if there is a pool
+     *
+     * @param block bytes
+     * @param end   position after the last line
+     * @return parsed chunks in file order
+     * @throws IOException if parsing is interrupted
+     */
+    private ArrayList<Chunk> parse(byte[] block, int end) throws IOException {
+        ArrayList<Chunk> chunks = new ArrayList<>();
+        int parts = pool == null ? 1 : Math.max(1, Math.min(pool.getParallelism(), end / MIN_CHUNK_SIZE));
+        if (parts == 1) {
+            chunks.add(new Chunk(block, 0, end).parse());
+            return chunks;
+        }
+
+        ArrayList<Future<Chunk>> results = new ArrayList<>();
+        int from = 0;
+        for (int i = 1; i <= parts && from < end; i++) {
+            int to = i == parts ? end : Math.max(from, lastLineEnd(block, (int) ((long) end * i / parts)));
+            if (to > from) {
+                Chunk chunk = new Chunk(block, from, to);
+                results.add(pool.submit(chunk::parse));
+                from = to;
+            }
+        }
+        try {
+            for (Future<Chunk> result : results) {
+                chunks.add(result.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while importing", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Import failed", e.getCause());
+        }
+        return chunks;
+    }
+
+    /**
+     * Add parsed chunks to the graph in order
+     *
+     * @param chunks parsed chunks
+     * @param graph  graph to add to
+     * @param table  vertex of each name in graph
+     * @throws IOException if a chunk has a malformed line
+     */
+    private void apply(ArrayList<Chunk> chunks, Graph<VertexData, EdgeData> graph, NameTable table)
+            throws IOException {
+        for (Chunk chunk : chunks) {
+            byte[] block = chunk.block;
+            for (int i = 0; i < chunk.count; i++) {
+                int start = chunk.firstStarts[i];
+                int end = chunk.firstEnds[i];
+                int hash = chunk.firstHashes[i];
+                if (chunk.kinds[i] == 'v') {
+                    if (table.find(block, start, end, hash) >= 0) {
+                        skippedCount++;
+                    } else {
+                        String name = new String(block, start, end - start, charset);
+                        VertexData data = new VertexData(new Point(chunk.xs[i], chunk.ys[i]), name, vertexColor);
+                        table.add(block, start, end, hash, graph.addVertex(data));
+                        vertexCount++;
+                    }
+                } else {
+                    int id1 = table.find(block, start, end, hash);
+                    int id2 = table.find(block, chunk.secondStarts[i], chunk.secondEnds[i], chunk.secondHashes[i]);
+                    if (id1 >= 0 && id2 >= 0) {
+                        Graph<VertexData, EdgeData>.Vertex v1 = table.getVertex(id1);
+                        Graph<VertexData, EdgeData>.Vertex v2 = table.getVertex(id2);
+                        graph.addEdge(new EdgeData(chunk.lengths[i], edgeColor), v1, v2);
+                        edgeCount++;
+                    } else {
+                        skippedCount++;
+                    }
+                }
+            }
+            if (chunk.badLine >= 0) {
+                throw new IOException("Malformed line " + (lineCount + chunk.badLine + 1));
+            }
+            lineCount += chunk.lineCount;
+        }
+    }
+
+    /**
+     * Hash the bytes of a name
+     *
+     * @param bytes bytes
+     * @param from  first byte
+     * @param to    byte after the last one
+     * @return hash
+     */
+    private static int hash(byte[] bytes, int from, int to) {
+        int h = 0;
+        for (int i = from; i < to; i++) {
+            h = 31 * h + bytes[i];
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Parse a double, exactly when it has few enough digits to be converted with one division
+     * and through Double.parseDouble otherwise
+     *
+     * @param bytes bytes
+     * @param from  first byte
+     * @param to    byte after the last one
+     * @return value
+     * @throws NumberFormatException if the bytes are not a number
+     */
+    private static double parseDouble(byte[] bytes, int from, int to) {
+        int i = from;
+        boolean negative = false;
+        if (i < to && (bytes[i] == '-' || bytes[i] == '+')) {
+            negative = bytes[i] == '-';
+            i++;
+        }
+        long mantissa = 0;
+        boolean sawDigit = false;
+        int digits = 0;
+        int fractionDigits = -1;
+        for (; i < to; i++) {
+            byte b = bytes[i];
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                sawDigit = true;
+                if (mantissa != 0) {
+                    digits++;
+                }
+                if (fractionDigits >= 0) {
+                    fractionDigits++;
+                }
+            } else if (b == '.' && fractionDigits < 0) {
+                fractionDigits = 0;
+            } else {
+                break;
+            }
+        }
+        if (i < to || !sawDigit || digits > 15 || fractionDigits >= POWERS_OF_TEN.length) {
+            return Double.parseDouble(new String(bytes, from, to - from, StandardCharsets.ISO_8859_1));
+        }
+        double value = fractionDigits > 0 ? mantissa / POWERS_OF_TEN[fractionDigits] : mantissa;
+        return negative ? -value : value;
+    }
+
+    /**
+     * Parse an int
+     *
+     * @param bytes bytes
+     * @param from  first byte
+     * @param to    byte after the last one
+     * @return value
+     * @throws NumberFormatException if the bytes are not an int
+     */
+    private static int parseInt(byte[] bytes, int from, int to) {
+        int i = from;
+        boolean negative = i < to && bytes[i] == '-';
+        if (negative || (i < to && bytes[i] == '+')) {
+            i++;
+        }
+        if (i == to || to - i > 9) {
+            return Integer.parseInt(new String(bytes, from, to - from, StandardCharsets.ISO_8859_1));
+        }
+        int value = 0;
+        for (; i < to; i++) {
+            int digit = bytes[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new NumberFormatException();
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * Vertex and edge lines parsed from a range of a block. A parsed line is stored at the same
+     * position of each array; fields that do not apply to its kind are left empty.
+     */
+    private class Chunk {
+
+        /**
+         * Bytes being parsed
+         */
+        private final byte[] block;
+
+        /**
+         * First byte of the chunk
+         */
+        private final int from;
+
+        /**
+         * Byte after the chunk
+         */
+        private final int to;
+
+        /**
+         * Number of parsed vertex and edge lines
+         */
+        private int count;
+
+        /**
+         * Number of lines in the chunk
+         */
+        private int lineCount;
+
+        /**
+         * Line in the chunk that could not be parsed, -1 if none
+         */
+        private int badLine = -1;
+
+        /**
+         * 'v' or 'e' for each parsed line
+         */
+        private byte[] kinds = new byte[16];
+
+        /**
+         * X coordinate of each vertex
+         */
+        private int[] xs = new int[16];
+
+        /**
+         * Y coordinate of each vertex
+         */
+        private int[] ys = new int[16];
+
+        /**
+         * Length of each edge
+         */
+        private double[] lengths = new double[16];
+
+        /**
+         * Start in block of the name of each vertex, or of the first endpoint of each edge
+         */
+        private int[] firstStarts = new int[16];
+
+        /**
+         * End in block of the name of each vertex, or of the first endpoint of each edge
+         */
+        private int[] firstEnds = new int[16];
+
+        /**
+         * Hash of the name of each vertex, or of the first endpoint of each edge
+         */
+        private int[] firstHashes = new int[16];
+
+        /**
+         * Start in block of the name of the second endpoint of each edge
+         */
+        private int[] secondStarts = new int[16];
+
+        /**
+         * End in block of the name of the second endpoint of each edge
+         */
+        private int[] secondEnds = new int[16];
+
+        /**
+         * Hash of the name of the second endpoint of each edge
+         */
+        private int[] secondHashes = new int[16];
+
+        /**
+         * Start and end of the tokens of the current line
+         */
+        private final int[] tokens = new int[8];
+
+        /**
+         * Constructor for Chunk
+         *
+         * @param block bytes being parsed
+         * @param from  first byte of the chunk
+         * @param to    byte after the chunk
+         */
+        private Chunk(byte[] block, int from, int to) {
+            this.block = block;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Parse the lines of the chunk, stopping at the first malformed one
+         *
+         * @return this chunk
+         */
+        private Chunk parse() {
+            int lineStart = from;
+            while (lineStart < to) {
+                int lineEnd = lineStart;
+                while (lineEnd < to && block[lineEnd] != '\n') {
+                    lineEnd++;
+                }
+                try {
+                    parseLine(lineStart, lineEnd);
+                } catch (NumberFormatException e) {
+                    badLine = lineCount;
+                    return this;
+                }
+                lineCount++;
+                lineStart = lineEnd + 1;
+            }
+            return this;
+        }
+
+        /**
+         * Parse one line
+         *
+         * @param start first byte of line
+         * @param end   byte after line
+         * @throws NumberFormatException if the line is malformed
+         */
+        private void parseLine(int start, int end) {
+            if (start == end || (block[start] != 'v' && block[start] != 'e')) {
+                return;
+            }
+            int tokenCount = tokenize(start, end);
+            if (tokenCount < 4) {
+                throw new NumberFormatException();
+            }
+            if (count == kinds.length) {
+                grow();
+            }
+
+            kinds[count] = block[start];
+            if (block[start] == 'v') {
+                xs[count] = parseInt(block, tokens[2], tokens[3]);
+                ys[count] = parseInt(block, tokens[4], tokens[5]);
+                setFirstName(tokens[6], tokens[7]);
+            } else {
+                lengths[count] = parseDouble(block, tokens[2], tokens[3]);
+                setFirstName(tokens[4], tokens[5]);
+                secondStarts[count] = tokens[6];
+                secondEnds[count] = tokens[7];
+                secondHashes[count] = hash(block, tokens[6], tokens[7]);
+            }
+            count++;
+        }
+
+        /**
+         * Store the name of the current vertex, or of the first endpoint of the current edge
+         *
+         * @param start first byte of name
+         * @param end   byte after name
+         */
+        private void setFirstName(int start, int end) {
+            firstStarts[count] = start;
+            firstEnds[count] = end;
+            firstHashes[count] = hash(block, start, end);
+        }
+
+        /**
+         * Find the first four whitespace-separated tokens of a line
+         *
+         * @param start first byte of line
+         * @param end   byte after line
+         * @return number of tokens found, at most 4
+         */
+        private int tokenize(int start, int end) {
+            int tokenCount = 0;
+            int i = start;
+            while (tokenCount < 4) {
+                while (i < end && isSpace(block[i])) {
+                    i++;
+                }
+                if (i == end) {
+                    break;
+                }
+                tokens[2 * tokenCount] = i;
+                while (i < end && !isSpace(block[i])) {
+                    i++;
+                }
+                tokens[2 * tokenCount + 1] = i;
+                tokenCount++;
+            }
+            return tokenCount;
+        }
+
+        /**
+         * Check if a byte separates tokens
+         *
+         * @param b byte
+         * @return true for spaces, tabs and carriage returns
+         */
+        private boolean isSpace(byte b) {
+            return b == ' ' || b == '\t' || b == '\r';
+        }
+
+        /**
+         * Double the capacity of the arrays
+         */
+        private void grow() {
+            int capacity = kinds.length * 2;
+            kinds = Arrays.copyOf(kinds, capacity);
+            xs = Arrays.copyOf(xs, capacity);
+            ys = Arrays.copyOf(ys, capacity);
+            lengths = Arrays.copyOf(lengths, capacity);
+            firstStarts = Arrays.copyOf(firstStarts, capacity);
+            firstEnds = Arrays.copyOf(firstEnds, capacity);
+            firstHashes = Arrays.copyOf(firstHashes, capacity);
+            secondStarts = Arrays.copyOf(secondStarts, capacity);
+            secondEnds = Arrays.copyOf(secondEnds, capacity);
+            secondHashes = Arrays.copyOf(secondHashes, capacity);
+        }
+    }
+
+    /**
+     * Open-addressing table from the bytes of a name to an id, numbered in order of adding, and
+     * the vertex with that name. The bytes of all names are kept together in one array.
+     */
+    private static class NameTable {
+
+        /**
+         * Hash of the name in each slot in the high half and its id + 1 in the low half,
+         * 0 for an empty slot
+         */
+        private long[] slots;
+
+        /**
+         * Bytes of all names
+         */
+        private byte[] bytes = new byte[1 << 12];
+
+        /**
+         * Number of bytes used
+         */
+        private int byteCount;
+
+        /**
+         * Start in bytes of each name, with one more entry for the end of the last name
+         */
+        private int[] starts;
+
+        /**
+         * Vertex of each id
+         */
+        private final ArrayList<Graph<VertexData, EdgeData>.Vertex> vertices = new ArrayList<>();
+
+        /**
+         * Constructor for NameTable
+         *
+         * @param expected number of names expected
+         */
+        private NameTable(int expected) {
+            int capacity = 16;
+            while (capacity < expected * 2) {
+                capacity *= 2;
+            }
+            slots = new long[capacity];
+            starts = new int[capacity / 2 + 1];
+        }
+
+        /**
+         * Get the number of names
+         *
+         * @return size
+         */
+        private int size() {
+            return vertices.size();
+        }
+
+        /**
+         * Get the vertex of an id
+         *
+         * @param id id
+         * @return vertex
+         */
+        private Graph<VertexData, EdgeData>.Vertex getVertex(int id) {
+            return vertices.get(id);
+        }
+
+        /**
+         * Look up a name
+         *
+         * @param name bytes holding the name
+         * @param from first byte of the name
+         * @param to   byte after the name
+         * @param hash hash of the name
+         * @return id of the name, -1 if absent
+         */
+        private int find(byte[] name, int from, int to, int hash) {
+            int mask = slots.length - 1;
+            for (int i = hash & mask; slots[i] != 0; i = (i + 1) & mask) {
+                int id = (int) slots[i] - 1;
+                if ((int) (slots[i] >>> 32) == hash && matches(id, name, from, to)) {
+                    return id;
+                }
+            }
+            return -1;
+        }
+
+        /**
+         * Add a name that is not in the table
+         *
+         * @param name   bytes holding the name
+         * @param from   first byte of the name
+         * @param to     byte after the name
+         * @param hash   hash of the name
+         * @param vertex vertex with the name
+         */
+        private void add(byte[] name, int from, int to, int hash, Graph<VertexData, EdgeData>.Vertex vertex) {
+            if (find(name, from, to, hash) >= 0) {
+                return;
+            }
+            int id = vertices.size();
+            if (2 * (id + 1) > slots.length) {
+                rehash();
+            }
+            if (id + 2 > starts.length) {
+                starts = Arrays.copyOf(starts, starts.length * 2);
+            }
+            if (byteCount + to - from > bytes.length) {
+                bytes = Arrays.copyOf(bytes, Math.max(bytes.length * 2, byteCount + to - from));
+            }
+            System.arraycopy(name, from, bytes, byteCount, to - from);
+            byteCount += to - from;
+            starts[id + 1] = byteCount;
+            vertices.add(vertex);
+            insert(id, hash);
+        }
+
+        /**
+         * Check if the name of an id equals some bytes
+         *
+         * @param id   id
+         * @param name bytes holding the name
+         * @param from first byte of the name
+         * @param to   byte after the name
+         * @return true if equal
+         */
+        private boolean matches(int id, byte[] name, int from, int to) {
+            int start = starts[id];
+            if (starts[id + 1] - start != to - from) {
+                return false;
+            }
+            for (int i = from; i < to; i++) {
+                if (bytes[start++] != name[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        /**
+         * Put an id in the first free slot for its hash
+         *
+         * @param id   id
+         * @param hash hash of its name
+         */
+        private void insert(int id, int hash) {
+            int mask = slots.length - 1;
+            int i = hash & mask;
+            while (slots[i] != 0) {
+                i = (i + 1) & mask;
+            }
+            slots[i] = ((long) hash << 32) | (id + 1);
+        }
+
+        /**
+         * Double the number of slots
+         */
+        private void rehash() {
+            long[] oldSlots = slots;
+            slots = new long[oldSlots.length * 2];
+            for (long slot : oldSlots) {
+                if (slot != 0) {
+                    insert((int) slot - 1, (int) (slot >>> 32));
+                }
+            }
+        }
+    }
+}
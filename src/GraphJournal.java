@@ -0,0 +1,491 @@
+import java.awt.*;
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.HashMap;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Append-only journal of the changes made to a graph, kept next to a snapshot in the text
+ * format of GraphExporter. Once attached to a graph the journal records every vertex and edge
+ * that is added, removed or changed, one line per change:
+ * <pre>
+ * v x y name              vertex added
+ * e length name1 name2    edge added
+ * dv name                 vertex removed
+ * de name1 name2          edge removed
+ * cv old x y name         vertex moved or renamed
+ * ce length name1 name2   edge length changed
+ * </pre>
+ * EdgeData.setLength reports itself to the edge holding it, so length changes are recorded
+ * however they are made. Vertices moved or renamed inside their VertexData are recorded when
+ * Vertex.dataChanged() is called, as the canvas does. Colors are not recorded.
+ * <p>
+ * compact() writes the whole graph to the snapshot and empties the journal; recover() loads
+ * the snapshot and replays the journal on top of it. The snapshot and the journal both start
+ * with a generation line, and a journal is only replayed onto the snapshot of its own
+ * generation, so a crash in the middle of compacting loses nothing and replays nothing twice.
+ * A last line cut short by a crash is ignored.
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class GraphJournal implements GraphListener<VertexData, EdgeData>, Closeable {
+
+    /**
+     * Start of the generation line of the snapshot and the journal
+     */
+    private static final String GENERATION = "# generation ";
+
+    /**
+     * Name of snapshot file
+     */
+    private final String snapshotFile;
+
+    /**
+     * Name of journal file
+     */
+    private final String journalFile;
+
+    /**
+     * Charset of both files
+     */
+    private final Charset charset = Charset.defaultCharset();
+
+    /**
+     * Graph being recorded, or null if not attached
+     */
+    private Graph<VertexData, EdgeData> graph;
+
+    /**
+     * Name each vertex had when it was last recorded
+     */
+    private HashMap<Graph<VertexData, EdgeData>.Vertex, String> recordedNames;
+
+    /**
+     * Stream of journal file
+     */
+    private FileOutputStream stream;
+
+    /**
+     * Writer of journal file
+     */
+    private BufferedWriter writer;
+
+    /**
+     * Generation of the current snapshot and journal
+     */
+    private long generation;
+
+    /**
+     * Number of records written since the last compaction
+     */
+    private long recordCount;
+
+    /**
+     * Number of records after which compactIfNeeded() compacts
+     */
+    private long compactionThreshold = 100000;
+
+    /**
+     * True to force each record to the disk before the change returns
+     */
+    private boolean sync;
+
+
+    /**
+     * Constructor
+     *
+     * @param snapshotFile name of snapshot file, gzip-compressed if it ends in .gz
+     * @param journalFile  name of journal file
+     */
+    public GraphJournal(String snapshotFile, String journalFile) {
+        this.snapshotFile = snapshotFile;
+        this.journalFile = journalFile;
+    }
+
+    /**
+     * Load the snapshot and replay the journal into an empty graph, then start recording it.
+     * Missing files are treated as empty.
+     *
+     * @param graph       empty graph to load into
+     * @param vertexColor color of loaded vertices
+     * @param edgeColor   color of loaded edges
+     * @throws IOException if a file cannot be read or the journal is malformed
+     */
+    public void recover(Graph<VertexData, EdgeData> graph, Color vertexColor, Color edgeColor) throws IOException {
+        HashMap<String, Graph<VertexData, EdgeData>.Vertex> names = new HashMap<>();
+        generation = 0;
+        if (Files.exists(Paths.get(snapshotFile))) {
+            generation = readSnapshotGeneration();
+            new GraphImporter(vertexColor, edgeColor, null).read(snapshotFile, graph, names);
+        }
+
+        Path journal = Paths.get(journalFile);
+        int validLength = -1;
+        if (Files.exists(journal)) {
+            validLength = replay(Files.readAllBytes(journal), graph, names, vertexColor, edgeColor);
+        }
+        if (validLength >= 0) {
+            try (RandomAccessFile file = new RandomAccessFile(journalFile, "rw")) {
+                file.setLength(validLength);  // drop a last line cut short by a crash
+            }
+        }
+        attach(graph, validLength < 0);
+    }
+
+    /**
+     * Start recording a graph, first writing its current state as a new snapshot
+     *
+     * @param graph graph to record
+     * @throws IOException if a file cannot be written
+     */
+    public void attach(Graph<VertexData, EdgeData> graph) throws IOException {
+        generation = Files.exists(Paths.get(snapshotFile)) ? readSnapshotGeneration() : 0;
+        attach(graph, true);
+        compact();
+    }
+
+    /**
+     * Start recording a graph
+     *
+     * @param graph       graph to record
+     * @param freshJournal true to start a new journal, false to append to the existing one
+     * @throws IOException if the journal cannot be opened
+     */
+    private void attach(Graph<VertexData, EdgeData> graph, boolean freshJournal) throws IOException {
+        if (this.graph != null) {
+            throw new IllegalStateException("Journal is already attached");
+        }
+        this.graph = graph;
+        recordedNames = new HashMap<>();
+        for (Graph<VertexData, EdgeData>.Vertex v : graph.getVertices()) {
+            recordedNames.put(v, v.getData().getString());
+        }
+        openJournal(freshJournal);
+        graph.addGraphListener(this);
+    }
+
+    /**
+     * Write the whole graph to the snapshot and start an empty journal
+     *
+     * @throws IOException if a file cannot be written
+     */
+    public void compact() throws IOException {
+        if (graph == null) {
+            throw new IllegalStateException("Journal is not attached");
+        }
+        long next = generation + 1;
+        Path snapshot = Paths.get(snapshotFile);
+        Path temporary = Paths.get(snapshotFile + ".tmp");
+        try (OutputStream out = snapshotFile.endsWith(GraphExporter.GZIP_EXTENSION)
+                ? new GZIPOutputStream(new FileOutputStream(temporary.toFile()), 1 << 16)
+                : new FileOutputStream(temporary.toFile())) {
+            out.write((GENERATION + next + "\n").getBytes(charset));
+            new GraphExporter(null).write(graph, out);
+            if (out instanceof FileOutputStream) {
+                ((FileOutputStream) out).getFD().sync();
+            }
+        }
+        Files.move(temporary, snapshot, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        writer.close();
+        generation = next;
+        openJournal(true);
+    }
+
+    /**
+     * Compact if the journal has reached the compaction threshold. Call this between changes,
+     * not from inside a GraphListener.
+     *
+     * @return true if compacted
+     * @throws IOException if a file cannot be written
+     */
+    public boolean compactIfNeeded() throws IOException {
+        if (recordCount < compactionThreshold) {
+            return false;
+        }
+        compact();
+        return true;
+    }
+
+    /**
+     * Set the number of records after which compactIfNeeded() compacts
+     *
+     * @param compactionThreshold number of records
+     */
+    public void setCompactionThreshold(long compactionThreshold) {
+        this.compactionThreshold = compactionThreshold;
+    }
+
+    /**
+     * Choose whether each record is forced to the disk before the change returns, which
+     * survives a power failure but makes every change wait for the disk
+     *
+     * @param sync true to force each record
+     */
+    public void setSync(boolean sync) {
+        this.sync = sync;
+    }
+
+    /**
+     * Get the number of records written since the last compaction
+     *
+     * @return number of records
+     */
+    public long getRecordCount() {
+        return recordCount;
+    }
+
+    /**
+     * Stop recording and close the journal
+     *
+     * @throws IOException if the journal cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        if (graph != null) {
+            graph.removeGraphListener(this);
+            graph = null;
+            writer.close();
+        }
+    }
+
+    /**
+     * Record an added vertex
+     *
+     * @param vertex new vertex
+     */
+    @Override
+    public void vertexAdded(Graph<VertexData, EdgeData>.Vertex vertex) {
+        VertexData data = vertex.getData();
+        recordedNames.put(vertex, data.getString());
+        record("v " + (int) data.getPoint().getX() + " " + (int) data.getPoint().getY() + " " + data.getString());
+    }
+
+    /**
+     * Record a removed vertex
+     *
+     * @param vertex removed vertex
+     */
+    @Override
+    public void vertexRemoved(Graph<VertexData, EdgeData>.Vertex vertex) {
+        record("dv " + recordedNames.remove(vertex));
+    }
+
+    /**
+     * Record a moved or renamed vertex
+     *
+     * @param vertex changed vertex
+     */
+    @Override
+    public void vertexChanged(Graph<VertexData, EdgeData>.Vertex vertex) {
+        VertexData data = vertex.getData();
+        String old = recordedNames.put(vertex, data.getString());
+        record("cv " + old + " " + (int) data.getPoint().getX() + " " + (int) data.getPoint().getY() + " " + data.getString());
+    }
+
+    /**
+     * Record an added edge
+     *
+     * @param edge new edge
+     */
+    @Override
+    public void edgeAdded(Graph<VertexData, EdgeData>.Edge edge) {
+        record("e " + edge.getData().getLength() + " " + endpoints(edge));
+    }
+
+    /**
+     * Record a removed edge
+     *
+     * @param edge removed edge
+     */
+    @Override
+    public void edgeRemoved(Graph<VertexData, EdgeData>.Edge edge) {
+        record("de " + endpoints(edge));
+    }
+
+    /**
+     * Record a changed edge length
+     *
+     * @param edge changed edge
+     */
+    @Override
+    public void edgeChanged(Graph<VertexData, EdgeData>.Edge edge) {
+        record("ce " + edge.getData().getLength() + " " + endpoints(edge));
+    }
+
+    /**
+     * Names of the endpoints of an edge as last recorded
+     *
+     * @param edge edge
+     * @return names separated by a space
+     */
+    private String endpoints(Graph<VertexData, EdgeData>.Edge edge) {
+        return recordedNames.get(edge.getSourceVertex()) + " " + recordedNames.get(edge.getTargetVertex());
+    }
+
+    /**
+     * Append a line to the journal
+     *
+     * @param line record
+     */
+    private void record(String line) {
+        try {
+            writer.write(line);
+            writer.write('\n');
+            writer.flush();
+            if (sync) {
+                stream.getFD().sync();
+            }
+            recordCount++;
+        } catch (IOException e) {
+            throw new UncheckedIOException("Problem writing journal", e);
+        }
+    }
+
+    /**
+     * Open the journal for writing
+     *
+     * @param fresh true to replace it with an empty journal of the current generation
+     * @throws IOException if the journal cannot be opened
+     */
+    private void openJournal(boolean fresh) throws IOException {
+        stream = new FileOutputStream(journalFile, !fresh);
+        writer = new BufferedWriter(new OutputStreamWriter(stream, charset));
+        if (fresh) {
+            writer.write(GENERATION + generation + "\n");
+            writer.flush();
+            stream.getFD().sync();
+            recordCount = 0;
+        }
+    }
+
+    /**
+     * Read the generation from the first line of the snapshot
+     *
+     * @return generation, 0 for a snapshot without one
+     * @throws IOException if the snapshot cannot be read
+     */
+    private long readSnapshotGeneration() throws IOException {
+        InputStream in = new FileInputStream(snapshotFile);
+        if (snapshotFile.endsWith(GraphExporter.GZIP_EXTENSION)) {
+            in = new GZIPInputStream(in);
+        }
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, charset))) {
+            String line = reader.readLine();
+            return line != null && line.startsWith(GENERATION) ? Long.parseLong(line.substring(GENERATION.length())) : 0;
+        } catch (NumberFormatException e) {
+            throw new IOException("Malformed snapshot generation", e);
+        }
+    }
+
+    /**
+     * Replay the records of a journal of the current generation
+     *
+     * @param bytes       contents of journal
+     * @param graph       graph to change
+     * @param names       vertex of each name in graph
+     * @param vertexColor color of added vertices
+     * @param edgeColor   color of added edges
+     * @return number of bytes up to the end of the last whole line, or -1 if the journal is not
+     * of the current generation
+     * @throws IOException if a record is malformed
+     */
+    private int replay(byte[] bytes, Graph<VertexData, EdgeData> graph,
+                           HashMap<String, Graph<VertexData, EdgeData>.Vertex> names,
+                           Color vertexColor, Color edgeColor) throws IOException {
+        int lineNumber = 0;
+        int start = 0;
+        recordCount = 0;
+        for (int end = 0; end < bytes.length; end++) {
+            if (bytes[end] != '\n') {
+                continue;
+            }
+            String line = new String(bytes, start, end - start, charset);
+            start = end + 1;
+            if (lineNumber++ == 0) {
+                if (!line.equals(GENERATION + generation)) {
+                    return -1;
+                }
+                continue;
+            }
+            try {
+                apply(line.split(" "), graph, names, vertexColor, edgeColor);
+            } catch (RuntimeException e) {
+                throw new IOException("Malformed journal line " + lineNumber, e);
+            }
+            recordCount++;
+        }
+        return lineNumber > 0 ? start : -1;
+    }
+
+    /**
+     * Apply one record
+     *
+     * @param fields      fields of record
+     * @param graph       graph to change
+     * @param names       vertex of each name in graph
+     * @param vertexColor color of added vertices
+     * @param edgeColor   color of added edges
+     */
+    private static void apply(String[] fields, Graph<VertexData, EdgeData> graph,
+                              HashMap<String, Graph<VertexData, EdgeData>.Vertex> names,
+                              Color vertexColor, Color edgeColor) {
+        switch (fields[0]) {
+            case "v":
+                if (!names.containsKey(fields[3])) {
+                    Point p = new Point(Integer.parseInt(fields[1]), Integer.parseInt(fields[2]));
+                    names.put(fields[3], graph.addVertex(new VertexData(p, fields[3], vertexColor)));
+                }
+                break;
+            case "e":
+                if (names.containsKey(fields[2]) && names.containsKey(fields[3])) {
+                    graph.addEdge(new EdgeData(Double.parseDouble(fields[1]), edgeColor),
+                            names.get(fields[2]), names.get(fields[3]));
+                }
+                break;
+            case "dv":
+                if (names.containsKey(fields[1])) {
+                    graph.removeVertex(names.remove(fields[1]));
+                }
+                break;
+            case "de":
+                if (names.containsKey(fields[1]) && names.containsKey(fields[2])) {
+                    graph.removeEdge(names.get(fields[1]), names.get(fields[2]));
+                }
+                break;
+            case "cv":
+                Graph<VertexData, EdgeData>.Vertex vertex = names.remove(fields[1]);
+                if (vertex != null) {
+                    vertex.getData().setPoint(new Point(Integer.parseInt(fields[2]), Integer.parseInt(fields[3])));
+                    vertex.getData().setName(fields[4]);
+                    names.put(fields[4], vertex);
+                }
+                break;
+            case "ce":
+                Graph<VertexData, EdgeData>.Edge edge = graph.getEdgeRef(names.get(fields[2]), names.get(fields[3]));
+                if (edge != null) {
+                    edge.getData().setLength(Double.parseDouble(fields[1]));
+                }
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown record " + fields[0]);
+        }
+    }
+}
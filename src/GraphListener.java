@@ -0,0 +1,61 @@
+/**
+ * Receives changes made to a Graph. Each method is called after the change is made, on the
+ * thread that made it. Changes made inside vertex or edge data objects are reported when
+ * Vertex.dataChanged() or Edge.dataChanged() is called, which NotifyingData, such as
+ * EdgeData, does itself.
+ *
+ * @param <V> data in Vertices
+ * @param <E> data in Edges
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public interface GraphListener<V, E> {
+
+    /**
+     * A vertex was added
+     *
+     * @param vertex new vertex
+     */
+    default void vertexAdded(Graph<V, E>.Vertex vertex) {
+    }
+
+    /**
+     * A vertex was removed, after its edges were removed and reported
+     *
+     * @param vertex removed vertex
+     */
+    default void vertexRemoved(Graph<V, E>.Vertex vertex) {
+    }
+
+    /**
+     * The data of a vertex was replaced or changed
+     *
+     * @param vertex changed vertex
+     */
+    default void vertexChanged(Graph<V, E>.Vertex vertex) {
+    }
+
+    /**
+     * An edge was added
+     *
+     * @param edge new edge
+     */
+    default void edgeAdded(Graph<V, E>.Edge edge) {
+    }
+
+    /**
+     * An edge was removed
+     *
+     * @param edge removed edge
+     */
+    default void edgeRemoved(Graph<V, E>.Edge edge) {
+    }
+
+    /**
+     * The data of an edge was replaced or changed
+     *
+     * @param edge changed edge
+     */
+    default void edgeChanged(Graph<V, E>.Edge edge) {
+    }
+}
@@ -0,0 +1,203 @@
+import java.util.Arrays;
+
+/**
+ * Binary min-heap of int ids with double keys that supports decrease-key.
+ * Ids range from 0 to capacity - 1; a heap can be cleared and reused between searches
+ * so that repeated searches allocate nothing.
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class IndexedMinHeap {
+
+    /**
+     * Ids in heap order
+     */
+    private int[] heap;
+
+    /**
+     * Position of each id in heap, or -1 if not in heap
+     */
+    private int[] position;
+
+    /**
+     * Key of each id
+     */
+    private double[] keys;
+
+    /**
+     * Number of ids in heap
+     */
+    private int size;
+
+    /**
+     * Constructor
+     *
+     * @param capacity number of ids the heap can hold
+     */
+    public IndexedMinHeap(int capacity) {
+        heap = new int[capacity];
+        position = new int[capacity];
+        keys = new double[capacity];
+        Arrays.fill(position, -1);
+    }
+
+    /**
+     * Get the number of ids the heap can hold
+     *
+     * @return capacity
+     */
+    public int capacity() {
+        return position.length;
+    }
+
+    /**
+     * Get the number of ids in the heap
+     *
+     * @return size
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Check if heap is empty
+     *
+     * @return true if heap has no ids
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * Check if an id is in the heap
+     *
+     * @param id id to check
+     * @return true if id is in heap
+     */
+    public boolean contains(int id) {
+        return position[id] >= 0;
+    }
+
+    /**
+     * Remove every id, in time proportional to the current size
+     */
+    public void clear() {
+        for (int i = 0; i < size; i++) {
+            position[heap[i]] = -1;
+        }
+        size = 0;
+    }
+
+    /**
+     * Insert an id, or lower its key if it is already in the heap with a larger key
+     *
+     * @param id  id to insert
+     * @param key new key
+     * @return true if the heap changed
+     */
+    public boolean insertOrDecrease(int id, double key) {
+        int i = position[id];
+        if (i < 0) {
+            i = size++;
+            heap[i] = id;
+            position[id] = i;
+        } else if (key >= keys[id]) {
+            return false;
+        }
+        keys[id] = key;
+        siftUp(i);
+        return true;
+    }
+
+    /**
+     * Get the id with the smallest key without removing it
+     *
+     * @return id with smallest key
+     */
+    public int peekMin() {
+        return heap[0];
+    }
+
+    /**
+     * Get the smallest key
+     *
+     * @return smallest key, or positive infinity if empty
+     */
+    public double minKey() {
+        return size == 0 ? Double.POSITIVE_INFINITY : keys[heap[0]];
+    }
+
+    /**
+     * Remove the id with the smallest key
+     *
+     * @return id with smallest key
+     */
+    public int pollMin() {
+        int min = heap[0];
+        position[min] = -1;
+        size--;
+        if (size > 0) {
+            heap[0] = heap[size];
+            position[heap[0]] = 0;
+            siftDown(0);
+        }
+        return min;
+    }
+
+    /**
+     * Get the key an id was last given
+     *
+     * @param id id in heap
+     * @return key of id
+     */
+    public double getKey(int id) {
+        return keys[id];
+    }
+
+    /**
+     * Move the id at i up until its parent is not larger
+     *
+     * @param i heap position
+     */
+    private void siftUp(int i) {
+        int id = heap[i];
+        double key = keys[id];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (keys[heap[parent]] <= key) {
+                break;
+            }
+            heap[i] = heap[parent];
+            position[heap[i]] = i;
+            i = parent;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+
+    /**
+     * Move the id at i down until its children are not smaller
+     *
+     * @param i heap position
+     */
+    private void siftDown(int i) {
+        int id = heap[i];
+        double key = keys[id];
+        int half = size >>> 1;
+        while (i < half) {
+            int child = 2 * i + 1;
+            if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+                child++;
+            }
+            if (key <= keys[heap[child]]) {
+                break;
+            }
+            heap[i] = heap[child];
+            position[heap[i]] = i;
+            i = child;
+        }
+        heap[i] = id;
+        position[id] = i;
+    }
+}
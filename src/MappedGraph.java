@@ -0,0 +1,471 @@
+import java.awt.*;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.zip.CRC32;
+
+/**
+ * Read-only graph backed by a memory-mapped file in BinaryGraphFormat. Vertices and edges are
+ * numbered as in the FrozenGraph the file was written from and are read from the mapping on
+ * demand, so opening even a large file costs little time or heap and the pages that are used
+ * are shared with the operating system's file cache.
+ * <p>
+ * Reading is thread-safe, except that the first call to findVertex builds a name index.
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class MappedGraph implements Closeable {
+
+    /**
+     * File the graph is mapped from
+     */
+    private final FileChannel channel;
+
+    /**
+     * Number of vertices
+     */
+    private final int n;
+
+    /**
+     * Number of edges
+     */
+    private final int m;
+
+    /**
+     * Weight of each arc
+     */
+    private final DoubleBuffer weights;
+
+    /**
+     * First arc of each vertex
+     */
+    private final IntBuffer offsets;
+
+    /**
+     * Vertex each arc leads to
+     */
+    private final IntBuffer targets;
+
+    /**
+     * Edge each arc was built from
+     */
+    private final IntBuffer arcEdges;
+
+    /**
+     * Source vertex of each edge
+     */
+    private final IntBuffer edgeSources;
+
+    /**
+     * Target vertex of each edge
+     */
+    private final IntBuffer edgeTargets;
+
+    /**
+     * X and y of each vertex
+     */
+    private final IntBuffer coordinates;
+
+    /**
+     * Start of each vertex name in names
+     */
+    private final IntBuffer nameStarts;
+
+    /**
+     * Vertex names in UTF-8
+     */
+    private final ByteBuffer names;
+
+    /**
+     * Id of each name, built on first use
+     */
+    private HashMap<String, Integer> nameIndex;
+
+
+    /**
+     * Constructor, see open()
+     *
+     * @param channel   file
+     * @param n         number of vertices
+     * @param m         number of edges
+     * @param nameBytes number of bytes of vertex names
+     * @throws IOException if the file cannot be mapped
+     */
+    private MappedGraph(FileChannel channel, int n, int m, long nameBytes) throws IOException {
+        this.channel = channel;
+        this.n = n;
+        this.m = m;
+
+        long position = BinaryGraphFormat.HEADER_SIZE;
+        weights = map(position, 16L * m).asDoubleBuffer();
+        position += 16L * m;
+        offsets = map(position, 4L * (n + 1)).asIntBuffer();
+        position += 4L * (n + 1);
+        targets = map(position, 8L * m).asIntBuffer();
+        position += 8L * m;
+        arcEdges = map(position, 8L * m).asIntBuffer();
+        position += 8L * m;
+        edgeSources = map(position, 4L * m).asIntBuffer();
+        position += 4L * m;
+        edgeTargets = map(position, 4L * m).asIntBuffer();
+        position += 4L * m;
+        coordinates = map(position, 8L * n).asIntBuffer();
+        position += 8L * n;
+        nameStarts = map(position, 4L * (n + 1)).asIntBuffer();
+        position += 4L * (n + 1);
+        names = map(position, nameBytes);
+    }
+
+    /**
+     * Open a binary graph file
+     *
+     * @param filename name of file
+     * @param verify   true to check the checksum and that every id in the file is in range,
+     *                 which reads the whole file
+     * @return graph
+     * @throws IOException if the file cannot be read or is not a valid binary graph file
+     */
+    public static MappedGraph open(String filename, boolean verify) throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(filename), StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(BinaryGraphFormat.HEADER_SIZE);
+            while (header.hasRemaining() && channel.read(header) >= 0) {
+                // read until full or end of file
+            }
+            header.flip();
+            if (header.remaining() < BinaryGraphFormat.HEADER_SIZE || header.getInt() != BinaryGraphFormat.MAGIC) {
+                throw new IOException(filename + " is not a binary graph file");
+            }
+            if (header.getInt() != BinaryGraphFormat.VERSION) {
+                throw new IOException(filename + " has an unsupported binary graph version");
+            }
+            int n = header.getInt();
+            int m = header.getInt();
+            long nameBytes = header.getLong();
+            long checksum = header.getLong();
+            if (n < 0 || m < 0 || m > Integer.MAX_VALUE / 2 || nameBytes < 0 || nameBytes > Integer.MAX_VALUE
+                    || channel.size() != BinaryGraphFormat.fileSize(n, m, nameBytes)) {
+                throw new IOException(filename + " is truncated or corrupt");
+            }
+
+            MappedGraph graph = new MappedGraph(channel, n, m, nameBytes);
+            if (verify) {
+                graph.verify(checksum, filename);
+            }
+            return graph;
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Map a section of the file
+     *
+     * @param position start of section
+     * @param size     size of section in bytes
+     * @return mapped bytes
+     * @throws IOException if the section cannot be mapped
+     */
+    private ByteBuffer map(long position, long size) throws IOException {
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("Binary graph section too large to map");
+        }
+        return channel.map(FileChannel.MapMode.READ_ONLY, position, size);
+    }
+
+    /**
+     * Check the checksum and that every vertex, edge, arc and name position is in range
+     *
+     * @param checksum checksum from the header
+     * @param filename name of file
+     * @throws IOException if the file is corrupt
+     */
+    private void verify(long checksum, String filename) throws IOException {
+        CRC32 crc = new CRC32();
+        long position = BinaryGraphFormat.HEADER_SIZE;
+        long end = channel.size();
+        while (position < end) {
+            long size = Math.min(1 << 30, end - position);
+            crc.update(channel.map(FileChannel.MapMode.READ_ONLY, position, size));
+            position += size;
+        }
+        if (crc.getValue() != checksum) {
+            throw new IOException(filename + " is corrupt: checksum differs");
+        }
+
+        boolean valid = offsets.get(0) == 0 && offsets.get(n) == 2 * m
+                && nameStarts.get(0) == 0 && nameStarts.get(n) == names.capacity();
+        for (int v = 0; v < n && valid; v++) {
+            valid = offsets.get(v) <= offsets.get(v + 1) && nameStarts.get(v) <= nameStarts.get(v + 1);
+        }
+        for (int arc = 0; arc < 2 * m && valid; arc++) {
+            valid = targets.get(arc) >= 0 && targets.get(arc) < n && arcEdges.get(arc) >= 0 && arcEdges.get(arc) < m;
+        }
+        for (int e = 0; e < m && valid; e++) {
+            valid = edgeSources.get(e) >= 0 && edgeSources.get(e) < n && edgeTargets.get(e) >= 0 && edgeTargets.get(e) < n;
+        }
+        if (!valid) {
+            throw new IOException(filename + " is corrupt: id out of range");
+        }
+    }
+
+    /**
+     * Get the number of vertices
+     *
+     * @return number of vertices
+     */
+    public int numVertex() {
+        return n;
+    }
+
+    /**
+     * Get the number of edges
+     *
+     * @return number of edges
+     */
+    public int numEdge() {
+        return m;
+    }
+
+    /**
+     * Get the name of a vertex
+     *
+     * @param v vertex id
+     * @return name
+     */
+    public String getName(int v) {
+        int start = nameStarts.get(v);
+        byte[] bytes = new byte[nameStarts.get(v + 1) - start];
+        for (int i = 0; i < bytes.length; i++) {
+            bytes[i] = names.get(start + i);
+        }
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Get the position of a vertex
+     *
+     * @param v vertex id
+     * @return point
+     */
+    public Point getPoint(int v) {
+        return new Point(coordinates.get(2 * v), coordinates.get(2 * v + 1));
+    }
+
+    /**
+     * Find a vertex by name
+     *
+     * @param name name of vertex
+     * @return vertex id, or -1 if there is none
+     */
+    public int findVertex(String name) {
+        if (nameIndex == null) {
+            nameIndex = new HashMap<>();
+            for (int v = 0; v < n; v++) {
+                nameIndex.putIfAbsent(getName(v), v);
+            }
+        }
+        Integer id = nameIndex.get(name);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * Get the number of edges at a vertex
+     *
+     * @param v vertex id
+     * @return degree
+     */
+    public int degree(int v) {
+        return offsets.get(v + 1) - offsets.get(v);
+    }
+
+    /**
+     * Get the first arc of a vertex
+     *
+     * @param v vertex id
+     * @return first arc
+     */
+    public int firstArc(int v) {
+        return offsets.get(v);
+    }
+
+    /**
+     * Get the arc after the last arc of a vertex
+     *
+     * @param v vertex id
+     * @return end arc
+     */
+    public int endArc(int v) {
+        return offsets.get(v + 1);
+    }
+
+    /**
+     * Get the vertex an arc leads to
+     *
+     * @param arc arc
+     * @return vertex id
+     */
+    public int arcTarget(int arc) {
+        return targets.get(arc);
+    }
+
+    /**
+     * Get the weight of an arc
+     *
+     * @param arc arc
+     * @return weight
+     */
+    public double arcWeight(int arc) {
+        return weights.get(arc);
+    }
+
+    /**
+     * Get the edge an arc was built from
+     *
+     * @param arc arc
+     * @return edge id
+     */
+    public int arcEdge(int arc) {
+        return arcEdges.get(arc);
+    }
+
+    /**
+     * Get the source vertex of an edge
+     *
+     * @param edgeId edge id
+     * @return vertex id
+     */
+    public int edgeSource(int edgeId) {
+        return edgeSources.get(edgeId);
+    }
+
+    /**
+     * Get the target vertex of an edge
+     *
+     * @param edgeId edge id
+     * @return vertex id
+     */
+    public int edgeTarget(int edgeId) {
+        return edgeTargets.get(edgeId);
+    }
+
+    /**
+     * Dijkstra's algorithm on the mapped arrays, as FrozenGraph.doDijkstra
+     *
+     * @param start       start vertex id
+     * @param target      vertex id to stop at, or -1 to settle every vertex
+     * @param dist        filled with the cost of each vertex
+     * @param parentEdges filled with the edge id leading home to the start, -1 for the start and
+     *                    unreached vertices
+     * @param heap        heap with capacity of at least numVertex(); it is cleared first
+     * @return number of vertices settled
+     */
+    public int doDijkstra(int start, int target, double[] dist, int[] parentEdges, IndexedMinHeap heap) {
+        Arrays.fill(dist, 0, n, Double.POSITIVE_INFINITY);
+        Arrays.fill(parentEdges, 0, n, -1);
+        heap.clear();
+
+        dist[start] = 0;
+        heap.insertOrDecrease(start, 0);
+        int settled = 0;
+
+        while (!heap.isEmpty()) {
+            int u = heap.pollMin();
+            settled++;
+            if (u == target) {
+                break;
+            }
+            double uCost = dist[u];
+            for (int arc = offsets.get(u), end = offsets.get(u + 1); arc < end; arc++) {
+                int v = targets.get(arc);
+                double alt = uCost + weights.get(arc);
+                if (alt < dist[v]) {
+                    dist[v] = alt;
+                    parentEdges[v] = arcEdges.get(arc);
+                    heap.insertOrDecrease(v, alt);
+                }
+            }
+        }
+
+        heap.clear();
+        return settled;
+    }
+
+    /**
+     * Add the vertices and edges of this file to a graph in the same way as GraphImporter: a
+     * vertex whose name is taken is skipped and its edges go to the vertex that has the name.
+     *
+     * @param graph       graph to add to
+     * @param vertexNames vertex of each name in graph; added vertices are put in it
+     * @param vertexColor color of added vertices
+     * @param edgeColor   color of added edges
+     */
+    public void addTo(Graph<VertexData, EdgeData> graph, Map<String, Graph<VertexData, EdgeData>.Vertex> vertexNames,
+                      Color vertexColor, Color edgeColor) {
+        ArrayList<Graph<VertexData, EdgeData>.Vertex> vertices = new ArrayList<>(n);
+        for (int v = 0; v < n; v++) {
+            String name = getName(v);
+            Graph<VertexData, EdgeData>.Vertex vertex = vertexNames.get(name);
+            if (vertex == null) {
+                vertex = graph.addVertex(new VertexData(getPoint(v), name, vertexColor));
+                vertexNames.put(name, vertex);
+            }
+            vertices.add(vertex);
+        }
+
+        double[] lengths = new double[m];
+        for (int arc = 0; arc < 2 * m; arc++) {
+            lengths[arcEdges.get(arc)] = weights.get(arc);
+        }
+        for (int e = 0; e < m; e++) {
+            graph.addEdge(new EdgeData(lengths[e], edgeColor), vertices.get(edgeSources.get(e)),
+                    vertices.get(edgeTargets.get(e)));
+        }
+    }
+
+    /**
+     * Build an ordinary graph from this file
+     *
+     * @param vertexColor color of vertices
+     * @param edgeColor   color of edges
+     * @return graph
+     */
+    public Graph<VertexData, EdgeData> toGraph(Color vertexColor, Color edgeColor) {
+        Graph<VertexData, EdgeData> graph = new Graph<>();
+        addTo(graph, new HashMap<>(), vertexColor, edgeColor);
+        return graph;
+    }
+
+    /**
+     * Close the file. The mapping stays valid until it is garbage collected, but the graph
+     * should not be used afterwards.
+     *
+     * @throws IOException if the file cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * String of graph size
+     *
+     * @return string
+     */
+    @Override
+    public String toString() {
+        return "MappedGraph: " + n + " vertices, " + m + " edges";
+    }
+}
@@ -0,0 +1,17 @@
+/**
+ * Edge data that can change in place and reports such changes itself. A Graph hands the data
+ * of each of its edges a hook that calls Edge.dataChanged(), so that the graph's listeners hear
+ * about the change however it is made.
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public interface NotifyingData {
+
+    /**
+     * Set what to run after each change made in place
+     *
+     * @param onChange run after each change, or null once the data has left its graph
+     */
+    void setOnChange(Runnable onChange);
+}
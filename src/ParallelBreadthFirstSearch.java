@@ -0,0 +1,388 @@
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Level-synchronous parallel breadth-first search over a FrozenGraph.
+ * Each level is expanded by fork-join tasks. Narrow levels are expanded top-down from the
+ * frontier; once the frontier touches a large share of the unvisited edges the search switches
+ * to bottom-up, where every unvisited vertex looks for a parent in the frontier, and it switches
+ * back when the frontier shrinks again.
+ * <p>
+ * Every vertex gets the same level as in a sequential breadth-first search, so the result is a
+ * breadth-first tree, but when a vertex has several parents on the previous level which one is
+ * chosen depends on thread timing.
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class ParallelBreadthFirstSearch {
+
+    /**
+     * Switch to bottom-up once frontier edges exceed unvisited edges / ALPHA
+     */
+    private static final int ALPHA = 14;
+
+    /**
+     * Switch back to top-down once the frontier has fewer than vertices / BETA vertices
+     */
+    private static final int BETA = 24;
+
+    /**
+     * Number of vertices a single task handles before splitting
+     */
+    private static final int GRAIN = 1024;
+
+    /**
+     * Graph to search
+     */
+    private final FrozenGraph<?, ?> graph;
+
+    /**
+     * Pool that runs the tasks
+     */
+    private final ForkJoinPool pool;
+
+    /**
+     * One bit per vertex, set once the vertex is visited
+     */
+    private AtomicLongArray visited;
+
+    /**
+     * Edge leading to each vertex from its parent, -1 for the start and unreached vertices
+     */
+    private int[] parentEdges;
+
+    /**
+     * Level of each vertex, -1 for unreached vertices
+     */
+    private int[] levels;
+
+    /**
+     * Visited vertices in level order; the current frontier is the last part of it
+     */
+    private int[] order;
+
+    /**
+     * Number of visited vertices
+     */
+    private int visitedCount;
+
+
+    /**
+     * Constructor
+     *
+     * @param graph graph to search
+     * @param pool  pool that runs the tasks
+     */
+    public ParallelBreadthFirstSearch(FrozenGraph<?, ?> graph, ForkJoinPool pool) {
+        this.graph = graph;
+        this.pool = pool;
+    }
+
+    /**
+     * Search the graph from a start vertex
+     *
+     * @param start start vertex id
+     */
+    public void run(int start) {
+        int n = graph.numVertex();
+        visited = new AtomicLongArray((n + 63) >>> 6);
+        parentEdges = new int[n];
+        levels = new int[n];
+        order = new int[n];
+        Arrays.fill(parentEdges, -1);
+        Arrays.fill(levels, -1);
+
+        setVisited(start);
+        levels[start] = 0;
+        order[0] = start;
+        visitedCount = 1;
+
+        int frontierStart = 0;
+        long unvisitedEdges = 2L * graph.numEdge() - graph.degree(start);
+        boolean bottomUp = false;
+        int previousFrontierSize = 0;
+
+        for (int level = 0; frontierStart < visitedCount; level++) {
+            int frontierEnd = visitedCount;
+            int frontierSize = frontierEnd - frontierStart;
+
+            long frontierEdges = 0;
+            for (int i = frontierStart; i < frontierEnd; i++) {
+                frontierEdges += graph.degree(order[i]);
+            }
+
+            if (!bottomUp && frontierEdges > unvisitedEdges / ALPHA && frontierSize > previousFrontierSize) {
+                bottomUp = true;
+            } else if (bottomUp && frontierSize < n / BETA && frontierSize < previousFrontierSize) {
+                bottomUp = false;
+            }
+
+            AtomicInteger tail = new AtomicInteger(frontierEnd);
+            if (bottomUp) {
+                long[] frontier = new long[(n + 63) >>> 6];
+                for (int i = frontierStart; i < frontierEnd; i++) {
+                    frontier[order[i] >>> 6] |= 1L << order[i];
+                }
+                pool.invoke(new BottomUpTask(0, n, frontier, level + 1, tail));
+            } else {
+                pool.invoke(new TopDownTask(frontierStart, frontierEnd, level + 1, tail));
+            }
+
+            visitedCount = tail.get();
+            for (int i = frontierEnd; i < visitedCount; i++) {
+                unvisitedEdges -= graph.degree(order[i]);
+            }
+            previousFrontierSize = frontierSize;
+            frontierStart = frontierEnd;
+        }
+    }
+
+    /**
+     * Get the number of vertices reached, including the start
+     *
+     * @return number of visited vertices
+     */
+    public int getVisitedCount() {
+        return visitedCount;
+    }
+
+    /**
+     * Get the visited vertices in level order; only the first getVisitedCount() entries are used
+     *
+     * @return vertex ids in level order
+     */
+    public int[] getOrder() {
+        return order;
+    }
+
+    /**
+     * Get the edge leading to a vertex from its parent in the tree
+     *
+     * @param v vertex id
+     * @return edge id, -1 for the start and unreached vertices
+     */
+    public int getParentEdge(int v) {
+        return parentEdges[v];
+    }
+
+    /**
+     * Get the level of a vertex, which is its number of edges from the start
+     *
+     * @param v vertex id
+     * @return level, -1 if unreached
+     */
+    public int getLevel(int v) {
+        return levels[v];
+    }
+
+    /**
+     * Check if a vertex is visited
+     *
+     * @param v vertex id
+     * @return true if visited
+     */
+    private boolean isVisited(int v) {
+        return (visited.get(v >>> 6) & (1L << v)) != 0;
+    }
+
+    /**
+     * Mark a vertex as visited
+     *
+     * @param v vertex id
+     * @return true if this call visited it, false if it already was
+     */
+    private boolean setVisited(int v) {
+        int word = v >>> 6;
+        long bit = 1L << v;
+        while (true) {
+            long old = visited.get(word);
+            if ((old & bit) != 0) {
+                return false;
+            }
+            if (visited.compareAndSet(word, old, old | bit)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Append vertices found by one task to the next frontier
+     *
+     * @param found vertex ids
+     * @param count number of ids
+     * @param tail  end of order
+     */
+    private void append(int[] found, int count, AtomicInteger tail) {
+        if (count > 0) {
+            System.arraycopy(found, 0, order, tail.getAndAdd(count), count);
+        }
+    }
+
+    /**
+     * Expands part of the frontier by visiting the unvisited neighbors of each frontier vertex
+     */
+    private class TopDownTask extends RecursiveAction {
+
+        /**
+         * Version of serialized form
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * First position in order of the frontier vertices of this task
+         */
+        private final int from;
+
+        /**
+         * Position in order after the frontier vertices of this task
+         */
+        private final int to;
+
+        /**
+         * Level of the vertices found
+         */
+        private final int level;
+
+        /**
+         * End of order
+         */
+        private final AtomicInteger tail;
+
+        /**
+         * Constructor for TopDownTask
+         *
+         * @param from  first position of frontier in order
+         * @param to    position after frontier in order
+         * @param level level of the vertices found
+         * @param tail  end of order
+         */
+        private TopDownTask(int from, int to, int level, AtomicInteger tail) {
+            this.from = from;
+            this.to = to;
+            this.level = level;
+            this.tail = tail;
+        }
+
+        /**
+         * Split the frontier until it is small, then expand it
+         */
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new TopDownTask(from, mid, level, tail), new TopDownTask(mid, to, level, tail));
+                return;
+            }
+
+            int arcs = 0;
+            for (int i = from; i < to; i++) {
+                arcs += graph.degree(order[i]);
+            }
+            int[] found = new int[arcs];
+            int count = 0;
+
+            for (int i = from; i < to; i++) {
+                int u = order[i];
+                for (int arc = graph.firstArc(u); arc < graph.endArc(u); arc++) {
+                    int v = graph.arcTarget(arc);
+                    if (!isVisited(v) && setVisited(v)) {
+                        parentEdges[v] = graph.arcEdge(arc);
+                        levels[v] = level;
+                        found[count++] = v;
+                    }
+                }
+            }
+            append(found, count, tail);
+        }
+    }
+
+    /**
+     * Visits every unvisited vertex of a range that has a neighbor in the frontier
+     */
+    private class BottomUpTask extends RecursiveAction {
+
+        /**
+         * Version of serialized form
+         */
+        private static final long serialVersionUID = 1L;
+
+        /**
+         * First vertex id of this task
+         */
+        private final int from;
+
+        /**
+         * Vertex id after the last one of this task
+         */
+        private final int to;
+
+        /**
+         * One bit per vertex, set for frontier vertices
+         */
+        private final long[] frontier;
+
+        /**
+         * Level of the vertices found
+         */
+        private final int level;
+
+        /**
+         * End of order
+         */
+        private final AtomicInteger tail;
+
+        /**
+         * Constructor for BottomUpTask
+         *
+         * @param from     first vertex id
+         * @param to       vertex id after the last one
+         * @param frontier one bit per vertex, set for frontier vertices
+         * @param level    level of the vertices found
+         * @param tail     end of order
+         */
+        private BottomUpTask(int from, int to, long[] frontier, int level, AtomicInteger tail) {
+            this.from = from;
+            this.to = to;
+            this.frontier = frontier;
+            this.level = level;
+            this.tail = tail;
+        }
+
+        /**
+         * Split the range until it is small, then look for parents of its vertices
+         */
+        @Override
+        protected void compute() {
+            if (to - from > GRAIN * 8) {
+                int mid = (from + to) >>> 1;
+                invokeAll(new BottomUpTask(from, mid, frontier, level, tail),
+                        new BottomUpTask(mid, to, frontier, level, tail));
+                return;
+            }
+
+            int[] found = new int[to - from];
+            int count = 0;
+
+            for (int v = from; v < to; v++) {
+                if (isVisited(v)) {
+                    continue;
+                }
+                for (int arc = graph.firstArc(v); arc < graph.endArc(v); arc++) {
+                    int u = graph.arcTarget(arc);
+                    if ((frontier[u >>> 6] & (1L << u)) != 0) {
+                        setVisited(v);
+                        parentEdges[v] = graph.arcEdge(arc);
+                        levels[v] = level;
+                        found[count++] = v;
+                        break;
+                    }
+                }
+            }
+            append(found, count, tail);
+        }
+    }
+}
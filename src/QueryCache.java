@@ -0,0 +1,290 @@
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+
+/**
+ * Bounded least-recently-used cache of query results on a graph, such as shortest paths, with a
+ * memory budget rather than an entry count. Every result is tied to the graph's modification
+ * count when it was stored, and the whole cache is dropped the first time it is used after the
+ * count has moved on, so a result is never returned once an edge or weight has changed.
+ * <p>
+ * Hits, misses, evictions to stay within the budget and entries dropped as out of date are
+ * counted.
+ *
+ * @param <K> query key
+ * @param <R> query result
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class QueryCache<K, R> {
+
+    /**
+     * Estimated bytes taken by an entry besides its result
+     */
+    private static final long ENTRY_OVERHEAD = 64;
+
+    /**
+     * Graph the results are computed from
+     */
+    private final Graph<?, ?> graph;
+
+    /**
+     * Most bytes of results to hold
+     */
+    private final long maxBytes;
+
+    /**
+     * Results and their sizes, least recently used first
+     */
+    private final LinkedHashMap<K, Entry<R>> entries;
+
+    /**
+     * Modification count of the graph when the held results were computed
+     */
+    private long modificationCount;
+
+    /**
+     * Estimated bytes of the held results
+     */
+    private long bytes;
+
+    /**
+     * Number of lookups answered from the cache
+     */
+    private long hits;
+
+    /**
+     * Number of lookups that had to compute the result
+     */
+    private long misses;
+
+    /**
+     * Number of results evicted to stay within the budget
+     */
+    private long evictions;
+
+    /**
+     * Number of results dropped because the graph changed
+     */
+    private long invalidations;
+
+
+    /**
+     * Constructor
+     *
+     * @param graph    graph the results are computed from
+     * @param maxBytes most bytes of results to hold
+     */
+    public QueryCache(Graph<?, ?> graph, long maxBytes) {
+        this.graph = graph;
+        this.maxBytes = maxBytes;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true);
+        this.modificationCount = graph.getModificationCount();
+    }
+
+    /**
+     * Get the result of a query, computing and storing it if it is not held
+     *
+     * @param key     query
+     * @param compute computes the result on the current graph
+     * @param weigher estimates the bytes taken by a result
+     * @return result of query
+     */
+    public R get(K key, Supplier<R> compute, ToLongFunction<R> weigher) {
+        validate();
+        Entry<R> entry = entries.get(key);
+        if (entry != null) {
+            hits++;
+            return entry.result;
+        }
+
+        misses++;
+        R result = compute.get();
+        store(key, result, weigher);
+        return result;
+    }
+
+    /**
+     * Get the result of a query if it is held, for results computed elsewhere, such as on a
+     * background thread, and stored with put
+     *
+     * @param key query
+     * @return result of query, or null if it is not held
+     */
+    public R getIfPresent(K key) {
+        validate();
+        Entry<R> entry = entries.get(key);
+        if (entry == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return entry.result;
+    }
+
+    /**
+     * Store the result of a query computed from the graph as it was at a modification count.
+     * Nothing is stored if the graph has changed since.
+     *
+     * @param key               query
+     * @param result            result of query
+     * @param weigher           estimates the bytes taken by a result
+     * @param modificationCount modification count of the graph the result was computed from
+     * @return true if the result is held
+     */
+    public boolean put(K key, R result, ToLongFunction<R> weigher, long modificationCount) {
+        validate();
+        return modificationCount == this.modificationCount && store(key, result, weigher);
+    }
+
+    /**
+     * Drop every held result
+     */
+    public void clear() {
+        entries.clear();
+        bytes = 0;
+    }
+
+    /**
+     * Get the number of held results
+     *
+     * @return number of results
+     */
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * Get the estimated bytes of the held results
+     *
+     * @return size in bytes
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Get the number of lookups answered from the cache
+     *
+     * @return hits
+     */
+    public long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Get the number of lookups that had to compute the result
+     *
+     * @return misses
+     */
+    public long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Get the number of results evicted to stay within the budget
+     *
+     * @return evictions
+     */
+    public long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Get the number of results dropped because the graph changed
+     *
+     * @return invalidations
+     */
+    public long getInvalidationCount() {
+        return invalidations;
+    }
+
+    /**
+     * Drop every held result if the graph has changed since they were computed
+     */
+    private void validate() {
+        long current = graph.getModificationCount();
+        if (current != modificationCount) {
+            invalidations += entries.size();
+            clear();
+            modificationCount = current;
+        }
+    }
+
+    /**
+     * Hold a result, unless it alone is over the budget
+     *
+     * @param key     query
+     * @param result  result of query
+     * @param weigher estimates the bytes taken by a result
+     * @return true if the result is held
+     */
+    private boolean store(K key, R result, ToLongFunction<R> weigher) {
+        long weight = weigher.applyAsLong(result) + ENTRY_OVERHEAD;
+        if (weight > maxBytes) {
+            return false;
+        }
+        Entry<R> replaced = entries.put(key, new Entry<>(result, weight));
+        if (replaced != null) {
+            bytes -= replaced.weight;
+        }
+        bytes += weight;
+        evict();
+        return true;
+    }
+
+    /**
+     * Evict the least recently used results until the budget is met
+     */
+    private void evict() {
+        Iterator<Map.Entry<K, Entry<R>>> it = entries.entrySet().iterator();
+        while (bytes > maxBytes && it.hasNext()) {
+            bytes -= it.next().getValue().weight;
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Summary of cache use
+     *
+     * @return statistics as string
+     */
+    @Override
+    public String toString() {
+        return "QueryCache: " + size() + " results, " + bytes + " of " + maxBytes + " bytes, "
+                + hits + " hits, " + misses + " misses, " + evictions + " evictions, "
+                + invalidations + " invalidated";
+    }
+
+    /**
+     * A held result and its estimated size
+     *
+     * @param <R> query result
+     */
+    private static class Entry<R> {
+
+        /**
+         * Result
+         */
+        private final R result;
+
+        /**
+         * Estimated bytes of the entry
+         */
+        private final long weight;
+
+        /**
+         * Constructor for Entry
+         *
+         * @param result result
+         * @param weight estimated bytes of the entry
+         */
+        private Entry(R result, long weight) {
+            this.result = result;
+            this.weight = weight;
+        }
+    }
+}
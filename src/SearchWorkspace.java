@@ -0,0 +1,76 @@
+/**
+ * Arrays and heap for shortest path searches on a FrozenGraph, kept per thread and grown to
+ * the largest snapshot searched on that thread, so that repeated searches on background
+ * threads allocate nothing in proportion to the graph. Everything in a workspace is
+ * overwritten by the next search on its thread, so results that outlive the search must be
+ * copied out of it.
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class SearchWorkspace {
+
+    /**
+     * Workspace of each thread
+     */
+    private static final ThreadLocal<SearchWorkspace> WORKSPACES = ThreadLocal.withInitial(SearchWorkspace::new);
+
+    /**
+     * Cost of each vertex
+     */
+    private double[] dist = new double[0];
+
+    /**
+     * Edge leading home from each vertex
+     */
+    private int[] parentEdges = new int[0];
+
+    /**
+     * Queue of vertices to settle
+     */
+    private IndexedMinHeap heap = new IndexedMinHeap(0);
+
+
+    /**
+     * Get the workspace of the current thread, large enough for a search on a snapshot
+     *
+     * @param size number of vertices of the snapshot
+     * @return workspace of the current thread
+     */
+    public static SearchWorkspace forThread(int size) {
+        SearchWorkspace workspace = WORKSPACES.get();
+        if (workspace.heap.capacity() < size) {
+            workspace.dist = new double[size];
+            workspace.parentEdges = new int[size];
+            workspace.heap = new IndexedMinHeap(size);
+        }
+        return workspace;
+    }
+
+    /**
+     * Accessor for dist
+     *
+     * @return array for the cost of each vertex
+     */
+    public double[] getDist() {
+        return dist;
+    }
+
+    /**
+     * Accessor for parentEdges
+     *
+     * @return array for the edge leading home from each vertex
+     */
+    public int[] getParentEdges() {
+        return parentEdges;
+    }
+
+    /**
+     * Accessor for heap
+     *
+     * @return heap for the vertices to settle
+     */
+    public IndexedMinHeap getHeap() {
+        return heap;
+    }
+}
@@ -0,0 +1,182 @@
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+
+/**
+ * Result of Dijkstra's algorithm on a Graph, kept as the cost and parent of each vertex in
+ * arrays indexed by vertex index instead of a map of boxed pairs. A tree can be passed back to
+ * Graph.shortestPathTree to be refilled, so that repeated searches allocate nothing once the
+ * arrays are large enough.
+ * <p>
+ * The tree refers to vertices by index, so it is only valid until a vertex is added to or
+ * removed from the graph.
+ *
+ * @param <V> data in Vertices
+ * @param <E> data in Edges
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class ShortestPathTree<V, E> {
+
+    /**
+     * Graph searched, null before the first search
+     */
+    private Graph<V, E> graph;
+
+    /**
+     * Start of every path
+     */
+    private Graph<V, E>.Vertex source;
+
+    /**
+     * Number of vertices of the graph when it was searched
+     */
+    private int size;
+
+    /**
+     * Cost of each vertex, positive infinity if unreached
+     */
+    double[] dist;
+
+    /**
+     * Index of the homeward vertex of each vertex, the source's own index for the source and
+     * -1 if unreached
+     */
+    int[] parent;
+
+
+    /**
+     * Constructor for an empty tree to be filled by Graph.shortestPathTree
+     */
+    public ShortestPathTree() {
+        dist = new double[0];
+        parent = new int[0];
+    }
+
+    /**
+     * Make ready for a new search, growing the arrays if needed
+     *
+     * @param graph  graph to search
+     * @param source start of every path
+     * @param size   number of vertices of graph
+     */
+    void reset(Graph<V, E> graph, Graph<V, E>.Vertex source, int size) {
+        this.graph = graph;
+        this.source = source;
+        this.size = size;
+        if (dist.length < size) {
+            dist = new double[size];
+            parent = new int[size];
+        }
+        Arrays.fill(dist, 0, size, Double.POSITIVE_INFINITY);
+        Arrays.fill(parent, 0, size, -1);
+    }
+
+    /**
+     * Get the start of every path
+     *
+     * @return source vertex
+     */
+    public Graph<V, E>.Vertex getSource() {
+        return source;
+    }
+
+    /**
+     * Get the number of vertices of the graph when it was searched
+     *
+     * @return number of vertices
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Get the cost of a vertex
+     *
+     * @param vertex vertex of graph
+     * @return cost, positive infinity if unreached
+     */
+    public double getCost(Graph<V, E>.Vertex vertex) {
+        return dist[vertex.getIndex()];
+    }
+
+    /**
+     * Get the cost of a vertex by index
+     *
+     * @param index index of vertex
+     * @return cost, positive infinity if unreached
+     */
+    public double getCost(int index) {
+        return dist[index];
+    }
+
+    /**
+     * Get the homeward vertex of a vertex
+     *
+     * @param vertex vertex of graph
+     * @return homeward vertex, the source itself for the source, null if unreached
+     */
+    public Graph<V, E>.Vertex getHome(Graph<V, E>.Vertex vertex) {
+        int home = parent[vertex.getIndex()];
+        return home < 0 ? null : graph.getVertex(home);
+    }
+
+    /**
+     * Get the index of the homeward vertex of a vertex by index
+     *
+     * @param index index of vertex
+     * @return index of homeward vertex, the source's own for the source, -1 if unreached
+     */
+    public int getParent(int index) {
+        return parent[index];
+    }
+
+    /**
+     * Get the path from the source to a vertex
+     *
+     * @param target end of path
+     * @return vertices from the source to the target, empty if unreached
+     */
+    public ArrayList<Graph<V, E>.Vertex> getPath(Graph<V, E>.Vertex target) {
+        ArrayList<Graph<V, E>.Vertex> path = new ArrayList<>();
+        int current = target.getIndex();
+        if (parent[current] < 0) {
+            return path;
+        }
+        while (parent[current] != current) {
+            path.add(graph.getVertex(current));
+            current = parent[current];
+        }
+        path.add(graph.getVertex(current));
+        Collections.reverse(path);
+        return path;
+    }
+
+    /**
+     * Copy into the map form returned by Graph.doDijkstra
+     *
+     * @return cost and homeward vertex of each vertex
+     */
+    public HashMap<Graph<V, E>.Vertex, Graph<V, E>.CostHomePair> toCostHomeMap() {
+        HashMap<Graph<V, E>.Vertex, Graph<V, E>.CostHomePair> vertexCostHome = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            Graph<V, E>.Vertex home = parent[i] < 0 ? null : graph.getVertex(parent[i]);
+            vertexCostHome.put(graph.getVertex(i), graph.new CostHomePair(dist[i], home));
+        }
+        return vertexCostHome;
+    }
+
+    /**
+     * Copy into the map form returned by Graph.getDistances
+     *
+     * @return cost of each vertex
+     */
+    public HashMap<Graph<V, E>.Vertex, Double> toDistanceMap() {
+        HashMap<Graph<V, E>.Vertex, Double> distances = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            distances.put(graph.getVertex(i), dist[i]);
+        }
+        return distances;
+    }
+}
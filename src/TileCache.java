@@ -0,0 +1,246 @@
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+
+/**
+ * Bounded least-recently-used cache of rendered square tiles of the canvas, kept per zoom
+ * level. A tile is named by its zoom level and its column and row on the screen plane of that
+ * level, and remembers the part of the world it shows. A change to the graph marks the part of
+ * each held tile showing the changed area as damaged, at every level, so that only that part
+ * is drawn again instead of the whole tile.
+ * <p>
+ * Hits, misses and tiles evicted to stay within the tile limit are counted.
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class TileCache {
+
+    /**
+     * Width and height of a tile in pixels
+     */
+    public static final int TILE_SIZE = 256;
+
+    /**
+     * Most tiles to hold
+     */
+    private final int maxTiles;
+
+    /**
+     * Tiles by key, least recently used first
+     */
+    private final LinkedHashMap<Long, Tile> tiles;
+
+    /**
+     * Number of lookups answered from the cache
+     */
+    private long hits;
+
+    /**
+     * Number of lookups that found no tile
+     */
+    private long misses;
+
+    /**
+     * Number of tiles evicted to stay within the limit
+     */
+    private long evictions;
+
+
+    /**
+     * Constructor
+     *
+     * @param maxTiles most tiles to hold
+     */
+    public TileCache(int maxTiles) {
+        this.maxTiles = maxTiles;
+        this.tiles = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    /**
+     * Get a held tile
+     *
+     * @param level zoom level
+     * @param tx    column of tile
+     * @param ty    row of tile
+     * @return image of tile, or null if it is not held
+     */
+    public BufferedImage get(int level, int tx, int ty) {
+        Tile tile = tiles.get(key(level, tx, ty));
+        if (tile == null) {
+            misses++;
+            return null;
+        }
+        hits++;
+        return tile.image;
+    }
+
+    /**
+     * Take the damaged part of a held tile, which is no longer marked damaged once taken
+     *
+     * @param level zoom level
+     * @param tx    column of tile
+     * @param ty    row of tile
+     * @return damaged part of the world shown by the tile, or null if there is none
+     */
+    public Rectangle takeDamage(int level, int tx, int ty) {
+        Tile tile = tiles.get(key(level, tx, ty));
+        if (tile == null) {
+            return null;
+        }
+        Rectangle damage = tile.damage;
+        tile.damage = null;
+        return damage;
+    }
+
+    /**
+     * Hold a rendered tile, evicting the least recently used tiles beyond the limit
+     *
+     * @param level zoom level
+     * @param tx    column of tile
+     * @param ty    row of tile
+     * @param world part of the world the tile shows
+     * @param image image of tile
+     */
+    public void put(int level, int tx, int ty, Rectangle world, BufferedImage image) {
+        tiles.put(key(level, tx, ty), new Tile(level, world, image));
+        Iterator<Tile> it = tiles.values().iterator();
+        while (tiles.size() > maxTiles && it.hasNext()) {
+            it.next();
+            it.remove();
+            evictions++;
+        }
+    }
+
+    /**
+     * Mark the part of the tiles of every level showing an area of the world as damaged
+     *
+     * @param world changed area
+     */
+    public void invalidate(Rectangle world) {
+        for (Tile tile : tiles.values()) {
+            if (tile.world.intersects(world)) {
+                Rectangle part = tile.world.intersection(world);
+                tile.damage = tile.damage == null ? part : tile.damage.union(part);
+            }
+        }
+    }
+
+    /**
+     * Drop the tiles of one zoom level
+     *
+     * @param level zoom level
+     */
+    public void invalidateLevel(int level) {
+        tiles.values().removeIf(tile -> tile.level == level);
+    }
+
+    /**
+     * Drop every tile
+     */
+    public void clear() {
+        tiles.clear();
+    }
+
+    /**
+     * Get the number of held tiles
+     *
+     * @return number of tiles
+     */
+    public int size() {
+        return tiles.size();
+    }
+
+    /**
+     * Get the number of lookups answered from the cache
+     *
+     * @return hits
+     */
+    public long getHitCount() {
+        return hits;
+    }
+
+    /**
+     * Get the number of lookups that found no tile
+     *
+     * @return misses
+     */
+    public long getMissCount() {
+        return misses;
+    }
+
+    /**
+     * Get the number of tiles evicted to stay within the limit
+     *
+     * @return evictions
+     */
+    public long getEvictionCount() {
+        return evictions;
+    }
+
+    /**
+     * Combine a zoom level, column and row into one key, the level in the top eight bits and
+     * the column in the next 24. The row is mixed with the level and column so that
+     * Long.hashCode, which folds the two halves together, spreads neighboring tiles.
+     *
+     * @param level zoom level
+     * @param tx    column
+     * @param ty    row
+     * @return key of tile
+     */
+    private static long key(int level, int tx, int ty) {
+        int high = (level << 24) | (tx & 0xffffff);
+        return ((long) high << 32) | ((ty ^ high * 0x9e3779b9) & 0xffffffffL);
+    }
+
+    /**
+     * Summary of cache use
+     *
+     * @return statistics as string
+     */
+    @Override
+    public String toString() {
+        return "TileCache: " + size() + " of " + maxTiles + " tiles of " + TILE_SIZE + ", " + hits + " hits, "
+                + misses + " misses, " + evictions + " evictions";
+    }
+
+    /**
+     * A rendered tile and the part of the world it shows
+     */
+    private static class Tile {
+
+        /**
+         * Zoom level
+         */
+        private final int level;
+
+        /**
+         * Part of the world shown
+         */
+        private final Rectangle world;
+
+        /**
+         * Rendered image
+         */
+        private final BufferedImage image;
+
+        /**
+         * Part of the world shown that has changed since it was drawn, null if none
+         */
+        private Rectangle damage;
+
+        /**
+         * Constructor for Tile
+         *
+         * @param level zoom level
+         * @param world part of the world shown
+         * @param image rendered image
+         */
+        private Tile(int level, Rectangle world, BufferedImage image) {
+            this.level = level;
+            this.world = world;
+            this.image = image;
+        }
+    }
+}
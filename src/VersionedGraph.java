@@ -0,0 +1,296 @@
+import java.util.LinkedHashSet;
+
+/**
+ * Multi-version snapshots of a Graph, so that long queries can run on other threads while the
+ * graph keeps being edited. A reader pins the current version, runs its searches on the pinned
+ * FrozenGraph and closes the pin when done:
+ * <pre>
+ * try (VersionedGraph&lt;V, E&gt;.Pin pin = versions.pin()) {
+ *     double[] costs = pin.getGraph().doDijkstra(start);
+ * }
+ * </pre>
+ * Changes reach this object as GraphListener events. A new version is only built when a pin is
+ * asked for after a change, so a run of edits costs one new version and not one each. This is
+ * copy-on-pin rather than structural sharing between versions: when only edge data has changed
+ * the new version shares the vertex, edge and arc arrays of the last one but copies the whole
+ * weights array, O(E); adding or removing any vertex or edge makes a fresh snapshot with
+ * Graph.freeze(), O(V + E), on the thread calling pin(). A version that has been replaced is
+ * reclaimed, dropping its arrays, as soon as no pin holds it.
+ * <p>
+ * pin() reads the graph and must be called on the thread that edits it. Pins may be used and
+ * closed on any thread. Vertex and edge data objects are shared by all versions, so changes
+ * made inside them, such as moving a vertex, are seen by every version.
+ *
+ * @param <V> data in Vertices
+ * @param <E> data in Edges
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class VersionedGraph<V, E> implements GraphListener<V, E> {
+
+    /**
+     * Graph being versioned
+     */
+    private final Graph<V, E> graph;
+
+    /**
+     * Latest version, or null if none has been built yet
+     */
+    private Version current;
+
+    /**
+     * Whether vertices or edges were added or removed since the latest version
+     */
+    private boolean structureChanged;
+
+    /**
+     * Edges whose data changed since the latest version
+     */
+    private final LinkedHashSet<Graph<V, E>.Edge> changedEdges;
+
+    /**
+     * Number of versions built
+     */
+    private long versionCount;
+
+    /**
+     * Number of versions not yet reclaimed
+     */
+    private int liveVersions;
+
+
+    /**
+     * Constructor, which starts listening to the graph
+     *
+     * @param graph graph to version
+     */
+    public VersionedGraph(Graph<V, E> graph) {
+        this.graph = graph;
+        this.changedEdges = new LinkedHashSet<>();
+        graph.addGraphListener(this);
+    }
+
+    /**
+     * Stop listening to the graph. Pins already handed out stay usable.
+     */
+    public void detach() {
+        graph.removeGraphListener(this);
+    }
+
+    /**
+     * Pin the current version of the graph, building it first if the graph has changed. The
+     * first pin after adding or removing vertices or edges freezes the whole graph, and the
+     * first after edge data changes copies the weights.
+     *
+     * @return pin, to be closed when done
+     */
+    public Pin pin() {
+        if (current == null || structureChanged) {
+            replaceCurrent(graph.freeze());
+        } else if (!changedEdges.isEmpty()) {
+            replaceCurrent(graph.freeze(current.snapshot, changedEdges));
+        }
+        structureChanged = false;
+        changedEdges.clear();
+
+        synchronized (this) {
+            current.pins++;
+            return new Pin(current);
+        }
+    }
+
+    /**
+     * Get the number of versions built so far
+     *
+     * @return number of versions
+     */
+    public long getVersionCount() {
+        return versionCount;
+    }
+
+    /**
+     * Get the number of versions that are current or still pinned
+     *
+     * @return number of versions
+     */
+    public synchronized int getLiveVersionCount() {
+        return liveVersions;
+    }
+
+    /**
+     * Make a snapshot the current version
+     *
+     * @param snapshot new snapshot
+     */
+    private synchronized void replaceCurrent(FrozenGraph<V, E> snapshot) {
+        Version old = current;
+        current = new Version(snapshot, ++versionCount);
+        liveVersions++;
+        if (old != null && old.pins == 0) {
+            reclaim(old);
+        }
+    }
+
+    /**
+     * Release one pin of a version, reclaiming it if it has been replaced and is no longer pinned
+     *
+     * @param version pinned version
+     */
+    private synchronized void release(Version version) {
+        version.pins--;
+        if (version.pins == 0 && version != current) {
+            reclaim(version);
+        }
+    }
+
+    /**
+     * Drop the snapshot of a version
+     *
+     * @param version version no longer in use
+     */
+    private void reclaim(Version version) {
+        version.snapshot = null;
+        liveVersions--;
+    }
+
+    /**
+     * A vertex was added
+     *
+     * @param vertex new vertex
+     */
+    @Override
+    public void vertexAdded(Graph<V, E>.Vertex vertex) {
+        structureChanged = true;
+    }
+
+    /**
+     * A vertex was removed
+     *
+     * @param vertex removed vertex
+     */
+    @Override
+    public void vertexRemoved(Graph<V, E>.Vertex vertex) {
+        structureChanged = true;
+    }
+
+    /**
+     * An edge was added
+     *
+     * @param edge new edge
+     */
+    @Override
+    public void edgeAdded(Graph<V, E>.Edge edge) {
+        structureChanged = true;
+    }
+
+    /**
+     * An edge was removed
+     *
+     * @param edge removed edge
+     */
+    @Override
+    public void edgeRemoved(Graph<V, E>.Edge edge) {
+        structureChanged = true;
+    }
+
+    /**
+     * The data of an edge was replaced or changed, which may change its weight
+     *
+     * @param edge changed edge
+     */
+    @Override
+    public void edgeChanged(Graph<V, E>.Edge edge) {
+        if (!structureChanged) {
+            changedEdges.add(edge);
+        }
+    }
+
+    /**
+     * One version of the graph and the number of pins holding it
+     */
+    private class Version {
+
+        /**
+         * Snapshot of graph, null once reclaimed
+         */
+        private FrozenGraph<V, E> snapshot;
+
+        /**
+         * Number of this version, counting from 1
+         */
+        private final long number;
+
+        /**
+         * Number of open pins
+         */
+        private int pins;
+
+        /**
+         * Constructor for Version
+         *
+         * @param snapshot snapshot of graph
+         * @param number   number of version
+         */
+        private Version(FrozenGraph<V, E> snapshot, long number) {
+            this.snapshot = snapshot;
+            this.number = number;
+        }
+    }
+
+    /**
+     * A reader's hold on one version of the graph
+     */
+    public class Pin implements AutoCloseable {
+
+        /**
+         * Version held, null once closed
+         */
+        private Version version;
+
+        /**
+         * Constructor for Pin
+         *
+         * @param version version to hold
+         */
+        private Pin(Version version) {
+            this.version = version;
+        }
+
+        /**
+         * Get the pinned snapshot
+         *
+         * @return snapshot of graph
+         * @throws IllegalStateException if the pin is closed
+         */
+        public FrozenGraph<V, E> getGraph() {
+            if (version == null) {
+                throw new IllegalStateException("Pin is closed");
+            }
+            return version.snapshot;
+        }
+
+        /**
+         * Get the number of the pinned version
+         *
+         * @return version number
+         * @throws IllegalStateException if the pin is closed
+         */
+        public long getVersion() {
+            if (version == null) {
+                throw new IllegalStateException("Pin is closed");
+            }
+            return version.number;
+        }
+
+        /**
+         * Release the version. Closing more than once has no effect.
+         */
+        @Override
+        public void close() {
+            if (version != null) {
+                release(version);
+                version = null;
+            }
+        }
+    }
+}
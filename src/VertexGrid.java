@@ -0,0 +1,298 @@
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.HashMap;
+
+/**
+ * Uniform grid over the locations of the vertices of a graph, for finding the vertex under the
+ * mouse and the vertices inside a rectangle without looking at every vertex. The plane is cut
+ * into square cells and each cell that holds a vertex keeps a list of its vertices; cells are
+ * kept in a hash map so that locations may be anywhere. Finding the nearest vertex within a
+ * radius no larger than the cell size looks at no more than nine cells.
+ * <p>
+ * The grid listens to the graph, so it follows vertices that are added, removed or moved as
+ * long as moves are reported with Vertex.dataChanged().
+ *
+ * @author Karen Santamaria
+ * @version 17 October 2026
+ */
+public class VertexGrid implements GraphListener<VertexData, EdgeData> {
+
+    /**
+     * Graph whose vertices are indexed
+     */
+    private final Graph<VertexData, EdgeData> graph;
+
+    /**
+     * Width and height of a cell
+     */
+    private final int cellSize;
+
+    /**
+     * Vertices of each occupied cell
+     */
+    private final HashMap<Long, ArrayList<Graph<VertexData, EdgeData>.Vertex>> cells;
+
+    /**
+     * Cell each vertex is filed under
+     */
+    private final HashMap<Graph<VertexData, EdgeData>.Vertex, Long> cellOf;
+
+    /**
+     * Rectangle holding every location, null until found again after a vertex is removed
+     */
+    private Rectangle bounds;
+
+
+    /**
+     * Constructor, which indexes the vertices already in the graph and starts listening to it
+     *
+     * @param graph    graph to index
+     * @param cellSize width and height of a cell
+     */
+    public VertexGrid(Graph<VertexData, EdgeData> graph, int cellSize) {
+        this.graph = graph;
+        this.cellSize = cellSize;
+        this.cells = new HashMap<>();
+        this.cellOf = new HashMap<>();
+        for (Graph<VertexData, EdgeData>.Vertex v : graph.getVertices()) {
+            add(v);
+        }
+        graph.addGraphListener(this);
+    }
+
+    /**
+     * Stop listening to the graph
+     */
+    public void detach() {
+        graph.removeGraphListener(this);
+    }
+
+    /**
+     * Get the number of vertices indexed
+     *
+     * @return number of vertices
+     */
+    public int size() {
+        return cellOf.size();
+    }
+
+    /**
+     * Get a rectangle holding the location of every vertex. It is the smallest such rectangle
+     * except after vertices on its edge move inward, when it is left larger until a vertex is
+     * removed, so that a dragged vertex does not make every vertex be looked at again.
+     *
+     * @return bounds of locations, empty if there are no vertices
+     */
+    public Rectangle getBounds() {
+        if (bounds == null) {
+            bounds = new Rectangle();
+            boolean first = true;
+            for (Graph<VertexData, EdgeData>.Vertex v : cellOf.keySet()) {
+                Point p = v.getData().getPoint();
+                if (first) {
+                    bounds.setBounds(p.x, p.y, 0, 0);
+                    first = false;
+                } else {
+                    bounds.add(p);
+                }
+            }
+        }
+        return new Rectangle(bounds);
+    }
+
+    /**
+     * Find the vertex closest to a location, if it is closer than a radius
+     *
+     * @param x      x coordinate
+     * @param y      y coordinate
+     * @param radius distance a vertex must be closer than
+     * @return nearest vertex, or null if none is closer than the radius
+     */
+    public Graph<VertexData, EdgeData>.Vertex nearest(int x, int y, double radius) {
+        int reach = (int) Math.ceil(radius);
+        int minX = cell(x - reach);
+        int maxX = cell(x + reach);
+        int minY = cell(y - reach);
+        int maxY = cell(y + reach);
+
+        Graph<VertexData, EdgeData>.Vertex best = null;
+        double bestDistance = radius;
+        for (int cx = minX; cx <= maxX; cx++) {
+            for (int cy = minY; cy <= maxY; cy++) {
+                ArrayList<Graph<VertexData, EdgeData>.Vertex> cell = cells.get(key(cx, cy));
+                if (cell == null) {
+                    continue;
+                }
+                for (Graph<VertexData, EdgeData>.Vertex v : cell) {
+                    double distance = v.getData().getPoint().distance(x, y);
+                    if (distance < bestDistance) {
+                        best = v;
+                        bestDistance = distance;
+                    }
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Find the vertices whose locations are inside a rectangle
+     *
+     * @param area rectangle to search
+     * @return vertices inside the rectangle
+     */
+    public ArrayList<Graph<VertexData, EdgeData>.Vertex> inside(Rectangle area) {
+        ArrayList<Graph<VertexData, EdgeData>.Vertex> found = new ArrayList<>();
+        if (area.isEmpty()) {
+            return found;
+        }
+        int minX = cell(area.x);
+        int maxX = cell(area.x + area.width - 1);
+        int minY = cell(area.y);
+        int maxY = cell(area.y + area.height - 1);
+
+        if ((long) (maxX - minX + 1) * (maxY - minY + 1) > cells.size()) {
+            for (ArrayList<Graph<VertexData, EdgeData>.Vertex> cell : cells.values()) {
+                addInside(cell, area, found);
+            }
+        } else {
+            for (int cx = minX; cx <= maxX; cx++) {
+                for (int cy = minY; cy <= maxY; cy++) {
+                    ArrayList<Graph<VertexData, EdgeData>.Vertex> cell = cells.get(key(cx, cy));
+                    if (cell != null) {
+                        addInside(cell, area, found);
+                    }
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Add the vertices of a cell that are inside a rectangle to a list
+     *
+     * @param cell  vertices of a cell
+     * @param area  rectangle
+     * @param found list to add to
+     */
+    private void addInside(ArrayList<Graph<VertexData, EdgeData>.Vertex> cell, Rectangle area,
+                           ArrayList<Graph<VertexData, EdgeData>.Vertex> found) {
+        for (Graph<VertexData, EdgeData>.Vertex v : cell) {
+            if (area.contains(v.getData().getPoint())) {
+                found.add(v);
+            }
+        }
+    }
+
+    /**
+     * File a vertex under the cell of its location
+     *
+     * @param vertex vertex to add
+     */
+    private void add(Graph<VertexData, EdgeData>.Vertex vertex) {
+        Point p = vertex.getData().getPoint();
+        long key = key(cell(p.x), cell(p.y));
+        cells.computeIfAbsent(key, k -> new ArrayList<>()).add(vertex);
+        cellOf.put(vertex, key);
+        if (bounds != null) {
+            if (cellOf.size() == 1) {
+                bounds.setBounds(p.x, p.y, 0, 0);
+            } else {
+                bounds.add(p);
+            }
+        }
+    }
+
+    /**
+     * Take a vertex out of its cell
+     *
+     * @param vertex vertex to remove
+     */
+    private void remove(Graph<VertexData, EdgeData>.Vertex vertex) {
+        Long key = cellOf.remove(vertex);
+        if (key != null) {
+            ArrayList<Graph<VertexData, EdgeData>.Vertex> cell = cells.get(key);
+            cell.remove(vertex);
+            if (cell.isEmpty()) {
+                cells.remove(key);
+            }
+        }
+    }
+
+    /**
+     * Get the cell column or row of a coordinate
+     *
+     * @param coordinate x or y coordinate
+     * @return column or row
+     */
+    private int cell(int coordinate) {
+        return Math.floorDiv(coordinate, cellSize);
+    }
+
+    /**
+     * Combine a cell column and row into one key. The row is mixed with the column so that
+     * Long.hashCode, which folds the two halves together, spreads neighboring cells.
+     *
+     * @param cx column
+     * @param cy row
+     * @return key of cell
+     */
+    private static long key(int cx, int cy) {
+        return ((long) cx << 32) | ((cy ^ cx * 0x9e3779b9) & 0xffffffffL);
+    }
+
+    /**
+     * A vertex was added
+     *
+     * @param vertex new vertex
+     */
+    @Override
+    public void vertexAdded(Graph<VertexData, EdgeData>.Vertex vertex) {
+        add(vertex);
+    }
+
+    /**
+     * A vertex was removed
+     *
+     * @param vertex removed vertex
+     */
+    @Override
+    public void vertexRemoved(Graph<VertexData, EdgeData>.Vertex vertex) {
+        remove(vertex);
+        bounds = null;
+    }
+
+    /**
+     * The data of a vertex changed, so file it again if it moved to another cell
+     *
+     * @param vertex changed vertex
+     */
+    @Override
+    public void vertexChanged(Graph<VertexData, EdgeData>.Vertex vertex) {
+        Point p = vertex.getData().getPoint();
+        Long key = cellOf.get(vertex);
+        if (bounds != null) {
+            bounds.add(p);
+        }
+        if (key == null || key != key(cell(p.x), cell(p.y))) {
+            remove(vertex);
+            add(vertex);
+        }
+    }
+
+    /**
+     * Summary of size of grid
+     *
+     * @return grid as string
+     */
+    @Override
+    public String toString() {
+        int largest = 0;
+        for (ArrayList<Graph<VertexData, EdgeData>.Vertex> cell : cells.values()) {
+            largest = Math.max(largest, cell.size());
+        }
+        return "VertexGrid: " + size() + " vertices in " + cells.size() + " cells of " + cellSize
+                + ", at most " + largest + " a cell";
+    }
+}